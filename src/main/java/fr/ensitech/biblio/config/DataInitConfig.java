@@ -1,16 +1,70 @@
 package fr.ensitech.biblio.config;
 
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogVersion;
 import fr.ensitech.biblio.entity.SecurityQuestion;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
 import fr.ensitech.biblio.repository.ISecurityQuestionRepository;
+import fr.ensitech.biblio.utils.Isbn;
+import fr.ensitech.biblio.utils.Texts;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.TableGenerator;
+import jakarta.persistence.metamodel.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
 
-import java.util.Arrays;
+import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
 
 @Configuration
 public class DataInitConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(DataInitConfig.class);
+
+    private static final String ISBN13_BACKFILL = "books.isbn13";
+
+    // tables créées sous IDENTITY : chaque compteur de id_generators est porté au-dessus du max(id) de sa table,
+    // avant toute insertion. L'optimiseur "pooled" lit next_id comme la borne haute du prochain bloc :
+    // il distribue à partir de next_id - allocationSize + 2, d'où max(id) + allocationSize
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner seedIdGenerators(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        return args -> {
+            for (EntityType<?> entity : entityManagerFactory.getMetamodel().getEntities()) {
+                for (Field field : entity.getJavaType().getDeclaredFields()) {
+                    TableGenerator generator = field.getAnnotation(TableGenerator.class);
+                    Table table = entity.getJavaType().getAnnotation(Table.class);
+                    if (generator == null || table == null || !field.isAnnotationPresent(Id.class)) {
+                        continue;
+                    }
+                    String generators = generator.catalog() + "." + generator.table();
+                    Long maxId = jdbcTemplate.queryForObject(
+                            "select coalesce(max(id), 0) from " + table.catalog() + "." + table.name(), Long.class);
+                    long nextId = maxId + generator.allocationSize();
+                    jdbcTemplate.update("update " + generators + " set next_id = ? where entity = ? and next_id < ?",
+                            nextId, generator.pkColumnValue(), nextId);
+                    // ligne absente : pas encore créée par Hibernate
+                    jdbcTemplate.update("insert into " + generators + " (entity, next_id) select ?, ? "
+                                    + "where not exists (select 1 from " + generators + " where entity = ?)",
+                            generator.pkColumnValue(), nextId, generator.pkColumnValue());
+                }
+            }
+        };
+    }
+
     @Bean
     public CommandLineRunner initSecurityQuestions(ISecurityQuestionRepository repo) {
         return args -> {
@@ -25,4 +79,167 @@ public class DataInitConfig {
             }
         };
     }
+
+    // compteur du journal des modifications, repris après la dernière version déjà écrite
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public CommandLineRunner seedCatalogVersion(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            Integer counters = jdbcTemplate.queryForObject("select count(*) from biblio_database.catalog_versions", Integer.class);
+            if (counters != null && counters == 0) {
+                jdbcTemplate.update("insert into biblio_database.catalog_versions (id, last_version) "
+                        + "select ?, coalesce(max(version), 0) from biblio_database.catalog_changes", CatalogVersion.ID);
+            }
+        };
+    }
+
+    // colonnes normalisées ajoutées par ddl-auto sur une base existante : remplies par lots de 500.
+    // Les livres en double sur isbn_normalized ou isbn13 sont d'abord traités en JDBC (cf. foldCollidingBooks) :
+    // un enregistrement JPA recalcule les deux clés et violerait leur index unique
+    @Bean
+    public CommandLineRunner backfillFoldedColumns(IBookRepository bookRepository, IAuthorRepository authorRepository,
+                                                   JdbcTemplate jdbcTemplate) {
+        return args -> {
+            if (!bookRepository.findTop500ByTitleFoldedIsNull().isEmpty()) {
+                foldCollidingBooks(jdbcTemplate);
+            }
+            for (List<Book> books = bookRepository.findTop500ByTitleFoldedIsNull(); !books.isEmpty();
+                 books = bookRepository.findTop500ByTitleFoldedIsNull()) {
+                books.forEach(Book::foldColumns);
+                bookRepository.saveAll(books);
+            }
+            for (List<Author> authors = authorRepository.findTop500ByLastnameFoldedIsNull(); !authors.isEmpty();
+                 authors = authorRepository.findTop500ByLastnameFoldedIsNull()) {
+                authors.forEach(Author::foldColumns);
+                authorRepository.saveAll(authors);
+            }
+        };
+    }
+
+    // colonne isbn13 ajoutée par ddl-auto : remplie par lots de 500 pour les ISBN valides. Les doublons
+    // (ISBN-10 et ISBN-13 d'un même livre, tirets...) gardent un isbn13 nul, cf. foldCollidingBooks ;
+    // ils ne sont recherchés que si un lot contient un ISBN valide encore sans isbn13
+    // Faite une seule fois (data_migrations) : les codes hors norme et les doublons gardent un isbn13 nul,
+    // ils seraient sinon relus, et les doublons signalés de nouveau, à chaque démarrage
+    @Bean
+    public CommandLineRunner backfillIsbn13(IBookRepository bookRepository, JdbcTemplate jdbcTemplate) {
+        return args -> {
+            if (isMigrated(jdbcTemplate, ISBN13_BACKFILL)) {
+                return;
+            }
+            long after = 0;
+            Set<Long> colliding = null;
+            for (List<Book> books = bookRepository.findTop500ByIsbn13IsNullAndIdGreaterThanOrderById(after); !books.isEmpty();
+                 books = bookRepository.findTop500ByIsbn13IsNullAndIdGreaterThanOrderById(after)) {
+                after = books.get(books.size() - 1).getId();
+                if (books.stream().noneMatch(book -> Isbn.isValid(book.getIsbn()))) {
+                    continue;
+                }
+                if (colliding == null) {
+                    colliding = foldCollidingBooks(jdbcTemplate);
+                }
+                Set<Long> skipped = colliding;
+                List<Book> valid = books.stream().filter(book -> !skipped.contains(book.getId())).toList();
+                valid.forEach(Book::foldColumns);
+                bookRepository.saveAll(valid);
+            }
+            markMigrated(jdbcTemplate, ISBN13_BACKFILL);
+        };
+    }
+
+    // l'ancienne table author_book avait ses colonnes inversées (author_id contenait l'id du livre) :
+    // ses liens sont recopiés une fois, remis dans le bon sens, dans book_author. Une fois la copie vérifiée,
+    // author_book est supprimée : ses clés étrangères (author_id vers books, book_id vers authors)
+    // empêcheraient sinon de supprimer tout livre ou auteur antérieur à la migration
+    @Bean
+    public CommandLineRunner migrateAuthorBookLinks(JdbcTemplate jdbcTemplate) {
+        return args -> {
+            Integer oldTables = jdbcTemplate.queryForObject("select count(*) from information_schema.tables "
+                    + "where table_schema = 'biblio_database' and table_name = 'author_book'", Integer.class);
+            if (oldTables == null || oldTables == 0) {
+                return;
+            }
+            Integer links = jdbcTemplate.queryForObject("select count(*) from biblio_database.book_author", Integer.class);
+            if (links != null && links == 0) {
+                jdbcTemplate.update("insert into biblio_database.book_author (book_id, author_id) "
+                        + "select distinct author_id, book_id from biblio_database.author_book");
+            }
+            Integer missing = jdbcTemplate.queryForObject("select count(*) from biblio_database.author_book o "
+                    + "where not exists (select 1 from biblio_database.book_author n "
+                    + "where n.book_id = o.author_id and n.author_id = o.book_id)", Integer.class);
+            if (missing == null || missing > 0) {
+                log.warn("author_book conservée : {} lien(s) absent(s) de book_author", missing);
+                return;
+            }
+            jdbcTemplate.execute("drop table biblio_database.author_book");
+            log.info("author_book supprimée après recopie de ses liens dans book_author");
+        };
+    }
+
+    private static boolean isMigrated(JdbcTemplate jdbcTemplate, String name) {
+        Integer done = jdbcTemplate.queryForObject(
+                "select count(*) from biblio_database.data_migrations where name = ?", Integer.class, name);
+        return done != null && done > 0;
+    }
+
+    private static void markMigrated(JdbcTemplate jdbcTemplate, String name) {
+        jdbcTemplate.update("insert into biblio_database.data_migrations (name, completed_at) select ?, ? "
+                + "where not exists (select 1 from biblio_database.data_migrations where name = ?)",
+                name, Timestamp.from(Instant.now()), name);
+    }
+
+    /**
+     * Normalise en JDBC les livres en double sur isbn_normalized ou isbn13, sans leur donner la clé
+     * déjà portée par un autre livre ; renvoie leurs ids, à exclure des enregistrements JPA.
+     */
+    private static Set<Long> foldCollidingBooks(JdbcTemplate jdbcTemplate) {
+        Set<Long> normalized = isbnCollisions(jdbcTemplate, "isbn_normalized", Texts::normalizeCode);
+        Set<Long> isbn13 = isbnCollisions(jdbcTemplate, "isbn13", Isbn::toIsbn13);
+        Set<Long> colliding = new HashSet<>(normalized);
+        colliding.addAll(isbn13);
+        for (Long id : colliding) {
+            Map<String, Object> book = jdbcTemplate.queryForMap(
+                    "select isbn, title, description from biblio_database.books where id = ?", id);
+            String isbn = (String) book.get("isbn");
+            String description = (String) book.get("description");
+            jdbcTemplate.update("update biblio_database.books set title_folded = ?, description_folded = ?, "
+                            + "isbn_normalized = coalesce(isbn_normalized, ?), isbn13 = coalesce(isbn13, ?) where id = ?",
+                    Texts.fold((String) book.get("title")), description == null ? null : Texts.fold(description),
+                    normalized.contains(id) ? null : Texts.normalizeCode(isbn),
+                    isbn13.contains(id) ? null : Isbn.toIsbn13(isbn), id);
+        }
+        return colliding;
+    }
+
+    /**
+     * Livres dont la clé calculée par {@code key} est déjà celle d'un autre livre : le livre qui porte déjà
+     * {@code column} la garde, sinon le plus ancien. Chaque groupe est signalé, pour une fusion manuelle.
+     */
+    private static Set<Long> isbnCollisions(JdbcTemplate jdbcTemplate, String column, Function<String, Object> key) {
+        Map<Object, List<Object[]>> byKey = new HashMap<>();
+        jdbcTemplate.query("select id, isbn, " + column + " from biblio_database.books order by id", rs -> {
+            Object value = key.apply(rs.getString(2));
+            if (value != null) {
+                byKey.computeIfAbsent(value, k -> new ArrayList<>())
+                        .add(new Object[]{rs.getLong(1), rs.getString(2), rs.getObject(3) != null});
+            }
+        });
+        Set<Long> collisions = new HashSet<>();
+        byKey.forEach((value, rows) -> {
+            if (rows.size() < 2) {
+                return;
+            }
+            Object[] kept = rows.stream().filter(row -> (Boolean) row[2]).findFirst().orElse(rows.get(0));
+            List<String> others = new ArrayList<>();
+            for (Object[] row : rows) {
+                if (row != kept) {
+                    collisions.add((Long) row[0]);
+                    others.add(row[0] + " (" + row[1] + ")");
+                }
+            }
+            log.warn("ISBN en double ({} = {}) : le livre {} ({}) garde la clé, {} laissé(s) sans {} à fusionner",
+                    column, value, kept[0], kept[1], others, column);
+        });
+        return collisions;
+    }
 }
@@ -0,0 +1,83 @@
+package fr.ensitech.biblio.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import fr.ensitech.biblio.datasource.*;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Routage des transactions read-only vers les réplicas MySQL.
+ * Activé par {@code biblio.datasource.routing.enabled=true} (voir application-replica.properties) ;
+ * sinon la datasource unique auto-configurée par Spring Boot est utilisée.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(name = "biblio.datasource.routing.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public ReplicaHealth replicaHealth() {
+        return new ReplicaHealth();
+    }
+
+    @Bean
+    public ReplicaDataSources replicaDataSources(ReplicaRoutingProperties properties,
+                                                DataSourceProperties primaryProperties) {
+        return new ReplicaDataSources(properties.getReplicas(), primaryProperties.determineDriverClassName());
+    }
+
+    @Bean
+    public HikariDataSource primaryDataSource(DataSourceProperties primaryProperties) {
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ReplicaDataSources replicaDataSources,
+                                 ReplicaHealth replicaHealth) {
+        Map<Object, Object> targets = new HashMap<>(replicaDataSources.asMap());
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryDataSource);
+
+        ReplicaRoutingDataSource routing =
+                new ReplicaRoutingDataSource(new ArrayList<>(replicaDataSources.asMap().keySet()), replicaHealth);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingProperties properties,
+                                               ReplicaDataSources replicaDataSources,
+                                               ReplicaHealth replicaHealth) {
+        ReplicaLagMonitor monitor = new ReplicaLagMonitor(replicaDataSources.asMap(), replicaHealth, properties);
+        monitor.checkAll();
+        return monitor;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter() {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
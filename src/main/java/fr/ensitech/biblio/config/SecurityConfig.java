@@ -1,7 +1,10 @@
 package fr.ensitech.biblio.config;
 
+import fr.ensitech.biblio.monitoring.SlowQueryEndpoint;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -15,8 +18,11 @@ public class SecurityConfig {
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth.anyRequest().permitAll())
-                .httpBasic(httpBasic -> httpBasic.disable())
+                // journal des requêtes lentes : SQL et paramètres réservés à l'administrateur (spring.security.user)
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers(EndpointRequest.to(SlowQueryEndpoint.class)).hasRole("ADMIN")
+                        .anyRequest().permitAll())
+                .httpBasic(Customizer.withDefaults())
                 .formLogin(form -> form.disable());
         return http.build();
     }
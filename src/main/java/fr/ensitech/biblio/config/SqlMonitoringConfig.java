@@ -0,0 +1,62 @@
+package fr.ensitech.biblio.config;
+
+import fr.ensitech.biblio.monitoring.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentation JDBC : la datasource principale (routée ou non) est enveloppée par datasource-proxy
+ * pour compter les requêtes SQL par requête HTTP (détection des N+1) et relever les requêtes lentes.
+ */
+@Configuration
+@EnableConfigurationProperties({SqlBudgetProperties.class, SlowQueryProperties.class})
+public class SqlMonitoringConfig {
+
+    // static : le post-processeur doit exister avant la création de la datasource
+    @Bean
+    public static BeanPostProcessor sqlMonitoringDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource dataSource)
+                        || bean instanceof ProxyDataSource) {
+                    return bean;
+                }
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name("biblio")
+                        .listener(new SqlStatementCountListener())
+                        .listener(new SlowQueryListener(dataSource, slowQueryLog))
+                        .build();
+            }
+        };
+    }
+
+    @Bean
+    public SlowQueryLog slowQueryLog(SlowQueryProperties properties) {
+        return new SlowQueryLog(properties);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementBudgetFilter> sqlStatementBudgetFilter(MeterRegistry meterRegistry,
+                                                                                   SqlBudgetProperties properties) {
+        FilterRegistrationBean<SqlStatementBudgetFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementBudgetFilter(meterRegistry, properties));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
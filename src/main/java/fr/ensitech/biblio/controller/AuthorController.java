@@ -1,5 +1,6 @@
 package fr.ensitech.biblio.controller;
 
+import fr.ensitech.biblio.dto.AuthorDto;
 import fr.ensitech.biblio.entity.Author;
 import fr.ensitech.biblio.service.IAuthorService;
 import jakarta.ws.rs.Consumes;
@@ -23,7 +24,7 @@ public class AuthorController implements IAuthorController{
     @PostMapping("/create")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
-    public ResponseEntity<Author> createAuthor(@RequestBody Author author) {
+    public ResponseEntity<AuthorDto> createAuthor(@RequestBody Author author) {
         System.out.println("createAuthor invoked");
         if (author == null
                 || author.getFirstname() == null || author.getFirstname().isBlank()
@@ -33,7 +34,7 @@ public class AuthorController implements IAuthorController{
         }
         try {
             authorService.createAuthor(author);
-            return new ResponseEntity<Author>(author, HttpStatus.CREATED);
+            return new ResponseEntity<AuthorDto>(AuthorDto.from(author), HttpStatus.CREATED);
         } catch (Exception e) {
             e.printStackTrace();
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
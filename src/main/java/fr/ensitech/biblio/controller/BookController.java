@@ -1,12 +1,38 @@
 package fr.ensitech.biblio.controller;
 
+import fr.ensitech.biblio.dto.AuthorBooksPage;
+import fr.ensitech.biblio.dto.BookAvailability;
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.CatalogChangePage;
+import fr.ensitech.biblio.dto.FacetPage;
+import fr.ensitech.biblio.dto.IsbnLookup;
+import fr.ensitech.biblio.dto.PublicationRangePage;
+import fr.ensitech.biblio.dto.RelatedBook;
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.dto.StockAdjustment;
+import fr.ensitech.biblio.dto.TrendingBook;
 import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.event.BookViewedEvent;
+import fr.ensitech.biblio.search.Facet;
+import fr.ensitech.biblio.search.TrendingPeriod;
+import fr.ensitech.biblio.service.IAutocompleteService;
+import fr.ensitech.biblio.service.IAvailabilityService;
 import fr.ensitech.biblio.service.IBookService;
+import fr.ensitech.biblio.service.IBookViewService;
+import fr.ensitech.biblio.service.ICatalogChangeService;
+import fr.ensitech.biblio.service.IFacetService;
+import fr.ensitech.biblio.service.IFuzzySearchService;
+import fr.ensitech.biblio.service.IPublicationDateService;
+import fr.ensitech.biblio.service.IRecommendationService;
 import fr.ensitech.biblio.service.IReservationService;
+import fr.ensitech.biblio.service.ITrendingService;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.parameters.P;
@@ -14,9 +40,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.bind.annotation.*;
 
 import javax.print.attribute.standard.Media;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Service
 @RestController
@@ -30,12 +54,77 @@ public class BookController implements IBookController{
     @Autowired
     private IReservationService reservationService;
 
+    @Autowired
+    private ICatalogChangeService catalogChangeService;
+
+    @Autowired
+    private IAutocompleteService autocompleteService;
+
+    @Autowired
+    private IFuzzySearchService fuzzySearchService;
+
+    @Autowired
+    private IFacetService facetService;
+
+    @Autowired
+    private IPublicationDateService publicationDateService;
+
+    @Autowired
+    private IAvailabilityService availabilityService;
+
+    @Autowired
+    private IRecommendationService recommendationService;
+
+    @Autowired
+    private ITrendingService trendingService;
+
+    @Autowired
+    private IBookViewService bookViewService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @PostMapping("/create")
     @Consumes(MediaType.APPLICATION_JSON)
     @Produces(MediaType.APPLICATION_JSON)
     @Override
-    public ResponseEntity<Book> createBook(@RequestBody Book book) {
-        if (book == null
+    public ResponseEntity<BookDetail> createBook(@RequestBody Book book) {
+        if (isInvalidNewBook(book)) {
+            return new ResponseEntity<BookDetail>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Book created = bookService.addOrUpdateBook(book);
+            return new ResponseEntity<BookDetail>(BookDetail.from(created), HttpStatus.CREATED);
+        } catch (Exception e) {
+            return new ResponseEntity<BookDetail>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+
+    }
+    @PostMapping("/create/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Override
+    public ResponseEntity<?> createBooks(@RequestBody List<Book> books) {
+        Map<String, String> body = new HashMap<>();
+
+        if (books == null || books.isEmpty() || books.stream().anyMatch(this::isInvalidNewBook)) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<Book> created = bookService.addBooks(books);
+            body.put("message", created.size() + " livres créés");
+            return new ResponseEntity<>(body, HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            body.put("message", "Erreur: " + e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private boolean isInvalidNewBook(Book book) {
+        return book == null
                 || book.getIsbn() == null || book.getIsbn().isBlank()
                 || book.getTitle() == null || book.getTitle().isBlank()
                 || book.getDescription() == null || book.getDescription().isBlank()
@@ -44,26 +133,20 @@ public class BookController implements IBookController{
                 || book.getPublicationDate() == null
                 || book.getCategory() == null || book.getCategory().isBlank()
                 || book.getLanguage() == null || book.getLanguage().isBlank()
-                || book.getNbPages() <= 0){
-
-            return new ResponseEntity<Book>(book, HttpStatus.BAD_REQUEST);
-        }
-        try {
-            bookService.addOrUpdateBook(book);
-            return new ResponseEntity<Book>(HttpStatus.CREATED);
-        } catch (Exception e) {
-            return new ResponseEntity<Book>(HttpStatus.INTERNAL_SERVER_ERROR);
-        }
-
+                || book.getNbPages() <= 0;
     }
+
     @GetMapping("/{id}")
     @Override
-    public ResponseEntity<Book> getBookById(@PathVariable("id") @RequestParam(required = true) long id) {
+    public ResponseEntity<BookDetail> getBookById(@PathVariable("id") @RequestParam(required = true) long id) {
        if (id < 0){
            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
        }
        try {
-           Book book = bookService.getBook(id);
+           BookDetail book = bookService.getBookDetail(id);
+           if (book != null) {
+               eventPublisher.publishEvent(new BookViewedEvent(book.getId()));
+           }
            return new ResponseEntity<>(book, HttpStatus.OK);
        } catch (Exception e){
            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -72,7 +155,7 @@ public class BookController implements IBookController{
 
     @PutMapping("/update")
     @Override
-    public ResponseEntity<Book> updateBook(@RequestBody Book book) {
+    public ResponseEntity<BookDetail> updateBook(@RequestBody Book book) {
         if (book == null
                 || book.getId() <= 0
                 || book.getIsbn() == null || book.getIsbn().isBlank()
@@ -85,14 +168,84 @@ public class BookController implements IBookController{
                 || book.getLanguage() == null || book.getLanguage().isBlank()
                 || book.getNbPages() <= 0) {
 
-            return new ResponseEntity<Book>(HttpStatus.BAD_REQUEST);
+            return new ResponseEntity<BookDetail>(HttpStatus.BAD_REQUEST);
         }
         try {
             bookService.addOrUpdateBook(book);
-            Book _book = bookService.getBook(book.getId());
-            return new ResponseEntity<Book>(_book, HttpStatus.OK);
+            BookDetail _book = bookService.getBookDetail(book.getId());
+            return new ResponseEntity<BookDetail>(_book, HttpStatus.OK);
         } catch (Exception e) {
-            return new ResponseEntity<Book>(HttpStatus.INTERNAL_SERVER_ERROR);
+            return new ResponseEntity<BookDetail>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // modification partielle : seuls les champs présents sont écrits (UPDATE limité à ces colonnes)
+    @PatchMapping("/{id}")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Override
+    public ResponseEntity<?> patchBook(@PathVariable long id, @RequestBody BookPatch patch) {
+        Map<String, String> body = new HashMap<>();
+        if (patch == null) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            BookDetail book = bookService.patchBook(id, patch);
+            if (book == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(book, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @PatchMapping("/bulk")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Override
+    public ResponseEntity<?> patchBooks(@RequestBody List<BookPatch> patches) {
+        Map<String, String> body = new HashMap<>();
+        if (patches == null || patches.isEmpty() || patches.contains(null)) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            int changed = bookService.patchBooks(patches);
+            body.put("message", changed + " livres modifiés");
+            return new ResponseEntity<>(body, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // entrées / sorties d'exemplaires : un seul UPDATE pour tous les livres, tout ou rien
+    @PatchMapping("/stock")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Override
+    public ResponseEntity<?> adjustStocks(@RequestBody List<StockAdjustment> adjustments) {
+        Map<String, String> body = new HashMap<>();
+        if (adjustments == null || adjustments.isEmpty() || adjustments.contains(null)) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            int updated = bookService.adjustStocks(adjustments);
+            body.put("message", updated + " stocks mis à jour");
+            return new ResponseEntity<>(body, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
@@ -117,18 +270,47 @@ public class BookController implements IBookController{
 
     @GetMapping("/all")
     @Override
-    public ResponseEntity<List<Book>> getAllBooks() {
+    public ResponseEntity<List<BookSummary>> getAllBooks(@RequestParam(defaultValue = "false") boolean availability) {
         try{
-            List<Book> books = bookService.getBooks();
+            List<BookSummary> books = bookService.getBookSummaries();
             if(books == null || books.isEmpty()){
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
         }catch (Exception e){
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    // disponibilité de plusieurs livres en un appel : ?ids=1,2,3
+    @GetMapping("/availability")
+    @Override
+    public ResponseEntity<?> getAvailability(@RequestParam List<Long> ids) {
+        Map<String, String> body = new HashMap<>();
+
+        if (ids.isEmpty() || ids.stream().anyMatch(id -> id == null || id <= 0)) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<BookAvailability> availability = availabilityService.getAvailability(ids);
+            if (availability.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(availability, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // listes : disponibilité ajoutée à chaque livre si demandée, en une requête groupée
+    private List<BookSummary> embedAvailability(List<BookSummary> books, boolean availability) throws Exception {
+        return availability ? availabilityService.withAvailability(books) : books;
+    }
+
     @PutMapping("/reserver/{book_id}/{email}")
     @Override
     public ResponseEntity<?> reserverBook(@PathVariable("book_id") long bookId,
@@ -152,15 +334,16 @@ public class BookController implements IBookController{
     }
     @GetMapping("/published/{published}")
     @Override
-    public ResponseEntity<List<Book>> getBooksByPublished(
-            @PathVariable boolean published) {
+    public ResponseEntity<List<BookSummary>> getBooksByPublished(
+            @PathVariable boolean published,
+            @RequestParam(defaultValue = "false") boolean availability) {
 
         try {
-            List<Book> books = bookService.getBooksByPublished(published);
+            List<BookSummary> books = bookService.getBookSummariesByPublished(published);
             if (books.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
@@ -168,45 +351,47 @@ public class BookController implements IBookController{
 
     @GetMapping("/title/{title}")
     @Override
-    public ResponseEntity<List<Book>> getBooksByTitle(
-            @PathVariable String title) {
+    public ResponseEntity<List<BookSummary>> getBooksByTitle(
+            @PathVariable String title,
+            @RequestParam(defaultValue = "false") boolean availability) {
 
         if (title == null || title.isBlank()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
         try {
-            List<Book> books = bookService.getBooksByTitle(title);
+            List<BookSummary> books = bookService.getBookSummariesByTitle(title);
             if (books.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     @GetMapping("/title/contains/{text}")
     @Override
-    public ResponseEntity<List<Book>> getBooksByTitleContains(
-            @PathVariable String text) {
+    public ResponseEntity<List<BookSummary>> getBooksByTitleContains(
+            @PathVariable String text,
+            @RequestParam(defaultValue = "false") boolean availability) {
 
         if (text == null || text.isBlank()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
         try {
-            List<Book> books = bookService.getBooksByTitleContains(text);
+            List<BookSummary> books = bookService.getBookSummariesByTitleContains(text);
             if (books.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     @GetMapping("/isbn/{isbn}")
     @Override
-    public ResponseEntity<Book> getBookByIsbn(
+    public ResponseEntity<BookDetail> getBookByIsbn(
             @PathVariable String isbn) {
 
         if (isbn == null || isbn.isBlank()) {
@@ -214,52 +399,275 @@ public class BookController implements IBookController{
         }
 
         try {
-            Book book = bookService.getBookByIsbn(isbn);
+            BookDetail book = bookService.getBookDetailByIsbn(isbn);
             if (book == null) {
                 return new ResponseEntity<>(HttpStatus.NOT_FOUND);
             }
+            eventPublisher.publishEvent(new BookViewedEvent(book.getId()));
             return new ResponseEntity<>(book, HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+    // vérification de nombreux ISBN en un seul appel : trouvés et manquants ensemble
+    @PostMapping("/isbn/batch")
+    @Consumes(MediaType.APPLICATION_JSON)
+    @Produces(MediaType.APPLICATION_JSON)
+    @Override
+    public ResponseEntity<?> getBooksByIsbns(@RequestBody List<String> isbns) {
+        Map<String, String> body = new HashMap<>();
+
+        if (isbns == null || isbns.isEmpty()) {
+            body.put("message", "Paramètres invalides");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try {
+            IsbnLookup lookup = bookService.getBookDetailsByIsbns(isbns);
+            return new ResponseEntity<>(lookup, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @GetMapping("/search/{text}")
     @Override
-    public ResponseEntity<List<Book>> getBooksByTitleOrDescription(
-            @PathVariable String text) {
+    public ResponseEntity<List<BookSummary>> getBooksByTitleOrDescription(
+            @PathVariable String text,
+            @RequestParam(defaultValue = "false") boolean availability) {
 
         if (text == null || text.isBlank()) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
         try {
-            List<Book> books = bookService.getBooksByTitleOrDescription(text, text);
+            List<BookSummary> books = bookService.getBookSummariesByTitleOrDescription(text, text);
             if (books.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
-            return new ResponseEntity<>(books, HttpStatus.OK);
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
     @GetMapping("/between/{startYear}/{endYear}")
     @Override
-    public ResponseEntity<List<Book>> getBooksBetweenYears(
+    public ResponseEntity<List<BookSummary>> getBooksBetweenYears(
             @PathVariable int startYear,
-            @PathVariable int endYear) {
+            @PathVariable int endYear,
+            @RequestParam(defaultValue = "false") boolean availability) {
 
         if (startYear <= 0 || endYear <= 0 || startYear > endYear) {
             return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
 
         try {
-            List<Book> books = bookService.getBooksBetweenYears(startYear, endYear);
+            List<BookSummary> books = bookService.getBookSummariesBetweenYears(startYear, endYear);
+            if (books.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(embedAvailability(books, availability), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // nombre de consultations de la fiche, y compris celles pas encore reportées en base
+    @GetMapping("/{id}/views")
+    @Override
+    public ResponseEntity<Long> getBookViews(@PathVariable long id) {
+        try {
+            return new ResponseEntity<>(bookViewService.getViews(id), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // livres en vogue sur la dernière heure ou le dernier jour (consultations et réservations), servis depuis la mémoire
+    @GetMapping("/trending")
+    @Override
+    public ResponseEntity<?> getTrendingBooks(@RequestParam(defaultValue = "hour") String period,
+                                              @RequestParam(defaultValue = "10") int limit) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            List<TrendingBook> books = trendingService.getTrending(TrendingPeriod.of(period), limit);
+            if (books.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(books, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // "ceux qui ont réservé ce livre ont aussi réservé..." : classement servi depuis la mémoire
+    @GetMapping("/{id}/related")
+    @Override
+    public ResponseEntity<List<RelatedBook>> getRelatedBooks(@PathVariable long id,
+                                                             @RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<RelatedBook> books = recommendationService.getRelatedBooks(id, limit);
             if (books.isEmpty()) {
                 return new ResponseEntity<>(HttpStatus.NO_CONTENT);
             }
             return new ResponseEntity<>(books, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
+
+    // livres d'un auteur, pagination par clé : ?after=<dernier id reçu>&size=20
+    @GetMapping("/author/{authorId}")
+    @Override
+    public ResponseEntity<?> getBooksByAuthor(@PathVariable long authorId,
+                                              @RequestParam(defaultValue = "0") long after,
+                                              @RequestParam(defaultValue = "20") int size) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            AuthorBooksPage page = bookService.getBookSummariesByAuthor(authorId, after, size);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // même recherche paginée, servie par l'index des dates de publication en mémoire
+    @GetMapping("/between/{startYear}/{endYear}/page")
+    @Override
+    public ResponseEntity<?> getBooksPageBetweenYears(@PathVariable int startYear,
+                                                      @PathVariable int endYear,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "20") int size) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            PublicationRangePage rangePage = publicationDateService.getBooksBetweenYears(startYear, endYear, page, size);
+            return new ResponseEntity<>(rangePage, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // nombre de livres publiés par année, sans requête SQL
+    @GetMapping("/between/{startYear}/{endYear}/histogram")
+    @Override
+    public ResponseEntity<?> getPublicationHistogram(@PathVariable int startYear, @PathVariable int endYear) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            Map<Integer, Integer> histogram = publicationDateService.getHistogram(startYear, endYear);
+            return new ResponseEntity<>(histogram, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // synchronisation incrémentale : modifications (tombstones compris) postérieures à la version since
+    @GetMapping("/changes")
+    @Override
+    public ResponseEntity<?> getChanges(@RequestParam(defaultValue = "0") long since,
+                                        @RequestParam(defaultValue = "100") int limit) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            CatalogChangePage page = catalogChangeService.getChanges(since, limit);
+            return new ResponseEntity<>(page, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // suggestions à chaque frappe : servies par l'index en mémoire, sans requête SQL
+    @GetMapping("/autocomplete/{text}")
+    @Override
+    public ResponseEntity<List<SearchHit>> autocomplete(@PathVariable String text,
+                                                        @RequestParam(defaultValue = "10") int limit) {
+        if (text == null || text.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<SearchHit> hits = autocompleteService.suggest(text, limit);
+            if (hits.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(hits, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // recherche tolérante aux fautes de frappe sur les titres et les auteurs, classée par similarité
+    @GetMapping("/search/fuzzy/{text}")
+    @Override
+    public ResponseEntity<List<SearchHit>> searchFuzzy(@PathVariable String text,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        if (text == null || text.isBlank()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<SearchHit> hits = fuzzySearchService.search(text, limit);
+            if (hits.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(hits, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // navigation par facettes : valeurs répétées d'un même paramètre en OU, paramètres différents en ET
+    @GetMapping("/facets")
+    @Override
+    public ResponseEntity<?> browseFacets(@RequestParam(required = false) List<String> category,
+                                          @RequestParam(required = false) List<String> language,
+                                          @RequestParam(required = false) List<String> editor,
+                                          @RequestParam(required = false) List<String> published,
+                                          @RequestParam(required = false) List<String> decade,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "20") int size) {
+        Map<String, String> body = new HashMap<>();
+        Map<Facet, Set<String>> filters = new EnumMap<>(Facet.class);
+        addFilter(filters, Facet.CATEGORY, category);
+        addFilter(filters, Facet.LANGUAGE, language);
+        addFilter(filters, Facet.EDITOR, editor);
+        addFilter(filters, Facet.PUBLISHED, published);
+        addFilter(filters, Facet.DECADE, decade);
+        try {
+            FacetPage facetPage = facetService.browse(filters, page, size);
+            return new ResponseEntity<>(facetPage, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    private static void addFilter(Map<Facet, Set<String>> filters, Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, new HashSet<>(values));
+        }
+    }
 }
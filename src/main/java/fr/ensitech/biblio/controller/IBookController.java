@@ -1,5 +1,11 @@
 package fr.ensitech.biblio.controller;
 
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.RelatedBook;
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.dto.StockAdjustment;
 import fr.ensitech.biblio.entity.Book;
 import org.apache.coyote.Response;
 import org.springframework.http.ResponseEntity;
@@ -8,16 +14,33 @@ import java.util.List;
 
 public interface IBookController {
 
-    ResponseEntity<Book> createBook(Book book);
-    ResponseEntity<Book> getBookById(long id);
-    ResponseEntity<Book> updateBook(Book book);
+    ResponseEntity<BookDetail> createBook(Book book);
+    ResponseEntity<?> createBooks(List<Book> books);
+    ResponseEntity<BookDetail> getBookById(long id);
+    ResponseEntity<BookDetail> updateBook(Book book);
+    ResponseEntity<?> patchBook(long id, BookPatch patch);
+    ResponseEntity<?> patchBooks(List<BookPatch> patches);
+    ResponseEntity<?> adjustStocks(List<StockAdjustment> adjustments);
     ResponseEntity<String> deleteBook(long id);
-    ResponseEntity<List<Book>>  getAllBooks();
+    ResponseEntity<List<BookSummary>>  getAllBooks(boolean availability);
+    ResponseEntity<?> getAvailability(List<Long> ids);
     ResponseEntity<?> reserverBook(long bookId, String email);
-    ResponseEntity<List<Book>> getBooksByPublished(boolean published);
-    ResponseEntity<List<Book>> getBooksByTitle(String title);
-    ResponseEntity<List<Book>> getBooksByTitleContains(String text);
-    ResponseEntity<Book> getBookByIsbn(String isbn);
-    ResponseEntity<List<Book>> getBooksByTitleOrDescription(String text);
-    ResponseEntity<List<Book>> getBooksBetweenYears(int startYear, int endYear);
+    ResponseEntity<List<BookSummary>> getBooksByPublished(boolean published, boolean availability);
+    ResponseEntity<List<BookSummary>> getBooksByTitle(String title, boolean availability);
+    ResponseEntity<List<BookSummary>> getBooksByTitleContains(String text, boolean availability);
+    ResponseEntity<BookDetail> getBookByIsbn(String isbn);
+    ResponseEntity<?> getBooksByIsbns(List<String> isbns);
+    ResponseEntity<List<BookSummary>> getBooksByTitleOrDescription(String text, boolean availability);
+    ResponseEntity<List<BookSummary>> getBooksBetweenYears(int startYear, int endYear, boolean availability);
+    ResponseEntity<?> getBooksByAuthor(long authorId, long after, int size);
+    ResponseEntity<List<RelatedBook>> getRelatedBooks(long id, int limit);
+    ResponseEntity<?> getTrendingBooks(String period, int limit);
+    ResponseEntity<Long> getBookViews(long id);
+    ResponseEntity<?> getBooksPageBetweenYears(int startYear, int endYear, int page, int size);
+    ResponseEntity<?> getPublicationHistogram(int startYear, int endYear);
+    ResponseEntity<?> getChanges(long since, int limit);
+    ResponseEntity<List<SearchHit>> autocomplete(String text, int limit);
+    ResponseEntity<List<SearchHit>> searchFuzzy(String text, int limit);
+    ResponseEntity<?> browseFacets(List<String> category, List<String> language, List<String> editor,
+                                   List<String> published, List<String> decade, int page, int size);
 }
@@ -0,0 +1,13 @@
+package fr.ensitech.biblio.controller;
+
+import fr.ensitech.biblio.entity.IngestJob;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.multipart.MultipartFile;
+
+public interface IIngestController {
+
+    ResponseEntity<?> startIngest(MultipartFile file, String format);
+    ResponseEntity<IngestJob> getIngestJob(long id);
+    ResponseEntity<?> getIngestErrors(long id, long after, int limit);
+    ResponseEntity<?> resumeIngest(long id);
+}
@@ -0,0 +1,97 @@
+package fr.ensitech.biblio.controller;
+
+import fr.ensitech.biblio.entity.IngestError;
+import fr.ensitech.biblio.entity.IngestFormat;
+import fr.ensitech.biblio.entity.IngestJob;
+import fr.ensitech.biblio.service.IIngestService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@CrossOrigin(origins = "http://localhost:8080")
+@RequestMapping("/api/ingest")
+public class IngestController implements IIngestController {
+
+    @Autowired
+    private IIngestService ingestService;
+
+    // => http://localhost:8080/api/ingest (multipart : file, format=csv|onix)
+    // l'import tourne en tâche de fond : 202 avec le job, dont on suit l'avancement sur /api/ingest/{id}
+    @PostMapping
+    @Override
+    public ResponseEntity<?> startIngest(@RequestParam("file") MultipartFile file,
+                                         @RequestParam(defaultValue = "csv") String format) {
+        Map<String, String> body = new HashMap<>();
+        if (file == null || file.isEmpty()) {
+            body.put("message", "file is required");
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        }
+        try (InputStream content = file.getInputStream()) {
+            IngestJob job = ingestService.startJob(IngestFormat.of(format), file.getOriginalFilename(), content);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Override
+    public ResponseEntity<IngestJob> getIngestJob(@PathVariable long id) {
+        try {
+            IngestJob job = ingestService.getJob(id);
+            if (job == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(job, HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // lignes rejetées, par numéro de ligne croissant à partir de after
+    @GetMapping("/{id}/errors")
+    @Override
+    public ResponseEntity<?> getIngestErrors(@PathVariable long id,
+                                             @RequestParam(defaultValue = "0") long after,
+                                             @RequestParam(defaultValue = "100") int limit) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            List<IngestError> errors = ingestService.getErrors(id, after, limit);
+            if (errors.isEmpty()) {
+                return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+            }
+            return new ResponseEntity<>(errors, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // reprise après arrêt du serveur ou échec : repart de la ligne qui suit le dernier lot commité
+    @PostMapping("/{id}/resume")
+    @Override
+    public ResponseEntity<?> resumeIngest(@PathVariable long id) {
+        Map<String, String> body = new HashMap<>();
+        try {
+            return new ResponseEntity<>(ingestService.resumeJob(id), HttpStatus.ACCEPTED);
+        } catch (IllegalArgumentException e) {
+            body.put("message", e.getMessage());
+            return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package fr.ensitech.biblio.datasource;
+
+/**
+ * Mémorise, pour le thread courant, qu'une écriture a eu lieu :
+ * les lectures suivantes de la même requête HTTP restent alors sur le primaire.
+ * Le contexte est remis à zéro par {@link ReadYourWritesFilter}.
+ */
+public final class ReadYourWritesContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_STICKY = new ThreadLocal<>();
+
+    private ReadYourWritesContext() {
+    }
+
+    public static void markWrite() {
+        PRIMARY_STICKY.set(Boolean.TRUE);
+    }
+
+    public static boolean isPrimarySticky() {
+        return Boolean.TRUE.equals(PRIMARY_STICKY.get());
+    }
+
+    public static void clear() {
+        PRIMARY_STICKY.remove();
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ensitech.biblio.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import javax.sql.DataSource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools de connexions vers les réplicas, indexés par clé de routage ("replica-0", ...).
+ */
+public class ReplicaDataSources implements AutoCloseable {
+
+    private final Map<String, HikariDataSource> dataSources = new LinkedHashMap<>();
+
+    public ReplicaDataSources(List<ReplicaRoutingProperties.Replica> replicas, String driverClassName) {
+        for (int i = 0; i < replicas.size(); i++) {
+            ReplicaRoutingProperties.Replica replica = replicas.get(i);
+            HikariDataSource ds = new HikariDataSource();
+            ds.setPoolName("replica-" + i);
+            ds.setJdbcUrl(replica.getUrl());
+            ds.setUsername(replica.getUsername());
+            ds.setPassword(replica.getPassword());
+            ds.setDriverClassName(driverClassName);
+            ds.setMaximumPoolSize(replica.getMaximumPoolSize());
+            ds.setReadOnly(true);
+            dataSources.put("replica-" + i, ds);
+        }
+    }
+
+    public Map<String, DataSource> asMap() {
+        return Collections.unmodifiableMap(dataSources);
+    }
+
+    @Override
+    public void close() {
+        dataSources.values().forEach(HikariDataSource::close);
+    }
+}
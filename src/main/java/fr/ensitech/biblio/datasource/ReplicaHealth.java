@@ -0,0 +1,21 @@
+package fr.ensitech.biblio.datasource;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * État des réplicas tel que mesuré par {@link ReplicaLagMonitor}.
+ * Un réplica jamais vérifié est considéré comme indisponible.
+ */
+public class ReplicaHealth {
+
+    private final Map<String, Boolean> healthy = new ConcurrentHashMap<>();
+
+    public boolean isHealthy(String key) {
+        return healthy.getOrDefault(key, Boolean.FALSE);
+    }
+
+    public void update(String key, boolean isHealthy) {
+        healthy.put(key, isHealthy);
+    }
+}
@@ -0,0 +1,62 @@
+package fr.ensitech.biblio.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+/**
+ * Vérifie périodiquement le retard de réplication de chaque réplica
+ * et met à jour {@link ReplicaHealth}.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final Map<String, DataSource> replicas;
+    private final ReplicaHealth replicaHealth;
+    private final ReplicaRoutingProperties properties;
+
+    public ReplicaLagMonitor(Map<String, DataSource> replicas, ReplicaHealth replicaHealth,
+                             ReplicaRoutingProperties properties) {
+        this.replicas = replicas;
+        this.replicaHealth = replicaHealth;
+        this.properties = properties;
+    }
+
+    @Scheduled(fixedDelayString = "${biblio.datasource.routing.lag-check-interval-ms:5000}")
+    public void checkAll() {
+        replicas.forEach((key, dataSource) -> {
+            boolean healthy;
+            try {
+                long lag = readLagSeconds(dataSource);
+                healthy = lag >= 0 && lag <= properties.getMaxLagSeconds();
+                if (!healthy) {
+                    log.warn("Replica {} écarté : retard {}s", key, lag);
+                }
+            } catch (Exception e) {
+                log.warn("Replica {} injoignable : {}", key, e.getMessage());
+                healthy = false;
+            }
+            replicaHealth.update(key, healthy);
+        });
+    }
+
+    // -1 si la réplication est arrêtée (colonne à NULL)
+    private long readLagSeconds(DataSource dataSource) throws Exception {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(properties.getLagQuery())) {
+            if (!rs.next()) {
+                return 0;
+            }
+            long lag = rs.getLong(properties.getLagColumn());
+            return rs.wasNull() ? -1 : lag;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package fr.ensitech.biblio.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Envoie les transactions en lecture seule vers un réplica sain (round-robin)
+ * et tout le reste vers le primaire.
+ * Doit être enveloppée dans un LazyConnectionDataSourceProxy : le caractère read-only de la
+ * transaction n'est connu qu'après le début de celle-ci.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+
+    private final List<String> replicaKeys;
+    private final ReplicaHealth replicaHealth;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicaKeys, ReplicaHealth replicaHealth) {
+        this.replicaKeys = List.copyOf(replicaKeys);
+        this.replicaHealth = replicaHealth;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean inTransaction = TransactionSynchronizationManager.isActualTransactionActive();
+        boolean readOnly = inTransaction && TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+
+        if (!readOnly) {
+            if (inTransaction) {
+                ReadYourWritesContext.markWrite();
+            }
+            return PRIMARY;
+        }
+        if (ReadYourWritesContext.isPrimarySticky()) {
+            return PRIMARY;
+        }
+        return pickReplica();
+    }
+
+    private String pickReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String key = replicaKeys.get((start + i) % size);
+            if (replicaHealth.isHealthy(key)) {
+                return key;
+            }
+        }
+        // aucun réplica utilisable : repli sur le primaire
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,40 @@
+package fr.ensitech.biblio.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration du routage lecture/écriture (préfixe {@code biblio.datasource.routing}).
+ * La datasource primaire reste décrite par {@code spring.datasource.*}.
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "biblio.datasource.routing")
+public class ReplicaRoutingProperties {
+
+    private boolean enabled = false;
+
+    // Retard de réplication au-delà duquel un réplica est écarté (secondes)
+    private long maxLagSeconds = 5;
+
+    // Période de vérification du retard des réplicas (millisecondes)
+    private long lagCheckIntervalMs = 5000;
+
+    // Requête renvoyant le retard ; un résultat vide (serveur non répliqué) vaut 0
+    private String lagQuery = "SHOW REPLICA STATUS";
+
+    private String lagColumn = "Seconds_Behind_Source";
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Getter @Setter
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+}
@@ -0,0 +1,19 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page des livres d'un auteur, par id croissant : le client rappelle l'endpoint
+ * avec {@code after = nextAfter} tant que {@code hasMore} est vrai.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class AuthorBooksPage {
+
+    private long authorId;
+    private long after;
+    private long nextAfter;
+    private boolean hasMore;
+    private List<BookSummary> books;
+}
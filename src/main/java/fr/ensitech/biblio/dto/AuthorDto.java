@@ -0,0 +1,16 @@
+package fr.ensitech.biblio.dto;
+
+import fr.ensitech.biblio.entity.Author;
+import lombok.*;
+
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class AuthorDto {
+
+    private Long id;
+    private String firstname;
+    private String lastname;
+
+    public static AuthorDto from(Author author) {
+        return new AuthorDto(author.getId(), author.getFirstname(), author.getLastname());
+    }
+}
@@ -0,0 +1,20 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+/**
+ * Disponibilité d'un livre : stock, réservations actives et exemplaires restants (jamais négatif).
+ * Construite directement par la requête groupée de IReservationRepository.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class BookAvailability {
+
+    private Long bookId;
+    private int stock;
+    private long reserved;
+    private long remaining;
+
+    public BookAvailability(Long bookId, Integer stock, Long reserved) {
+        this(bookId, stock == null ? 0 : stock, reserved, Math.max(0, (stock == null ? 0 : stock) - reserved));
+    }
+}
@@ -0,0 +1,35 @@
+package fr.ensitech.biblio.dto;
+
+import fr.ensitech.biblio.entity.Book;
+import lombok.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Fiche complète d'un livre avec ses auteurs.
+ * À construire dans la transaction du service, la collection authors y étant chargée.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class BookDetail {
+
+    private Long id;
+    private String title;
+    private String description;
+    private boolean published;
+    private String editor;
+    private LocalDate publicationDate;
+    private String isbn;
+    private short nbPages;
+    private String category;
+    private String language;
+    private Integer stock;
+    private List<AuthorDto> authors;
+
+    public static BookDetail from(Book book) {
+        return new BookDetail(book.getId(), book.getTitle(), book.getDescription(), book.isPublished(),
+                book.getEditor(), book.getPublicationDate(), book.getIsbn(), book.getNbPages(),
+                book.getCategory(), book.getLanguage(), book.getStock(),
+                book.getAuthors().stream().map(AuthorDto::from).toList());
+    }
+}
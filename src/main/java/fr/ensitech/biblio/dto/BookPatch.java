@@ -0,0 +1,25 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Modification partielle d'un livre : seuls les champs non nuls sont appliqués.
+ * L'id n'est lu que dans une modification groupée (PATCH /api/books/bulk).
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class BookPatch {
+
+    private Long id;
+    private String isbn;
+    private String title;
+    private String description;
+    private String editor;
+    private LocalDate publicationDate;
+    private String category;
+    private String language;
+    private Short nbPages;
+    private Integer stock;
+    private Boolean published;
+}
@@ -0,0 +1,55 @@
+package fr.ensitech.biblio.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Vue allégée d'un livre pour les listes et recherches (sans description ni auteurs).
+ * Construite directement par les requêtes JPQL "select new" de IBookRepository.
+ * {@code available} indique un stock strictement positif.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class BookSummary {
+
+    private Long id;
+    private String isbn;
+    private String title;
+    private String editor;
+    private Integer year;
+    private String category;
+    private String language;
+    private boolean available;
+
+    // renseignée seulement à la demande (paramètre availability des listes)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private BookAvailability availability;
+
+    public BookSummary(Long id, String isbn, String title, String editor, Integer year,
+                       String category, String language, boolean available) {
+        this(id, isbn, title, editor, year, category, language, available, null);
+    }
+
+    /**
+     * Résumés lus par {@code IBookRepository.findSummariesByIdIn}, indexés par id dans l'ordre de {@code ids}
+     * (classement ou tri d'un index en mémoire) ; un id sans résumé, livre supprimé entre-temps, est ignoré.
+     */
+    public static Map<Long, BookSummary> inOrder(List<Long> ids, Collection<BookSummary> summaries) {
+        Map<Long, BookSummary> byId = new LinkedHashMap<>();
+        for (BookSummary summary : summaries) {
+            byId.put(summary.getId(), summary);
+        }
+        Map<Long, BookSummary> ordered = new LinkedHashMap<>();
+        for (Long id : ids) {
+            BookSummary summary = byId.get(id);
+            if (summary != null) {
+                ordered.put(id, summary);
+            }
+        }
+        return ordered;
+    }
+}
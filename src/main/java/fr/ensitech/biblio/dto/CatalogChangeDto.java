@@ -0,0 +1,20 @@
+package fr.ensitech.biblio.dto;
+
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import lombok.*;
+
+/**
+ * Dernier état connu d'une entité modifiée : {@code book} ou {@code author} selon le type,
+ * aucun des deux pour une suppression (tombstone).
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class CatalogChangeDto {
+
+    private long version;
+    private CatalogEntityType entityType;
+    private Long entityId;
+    private ChangeOperation operation;
+    private BookDetail book;
+    private AuthorDto author;
+}
@@ -0,0 +1,18 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page du flux de modifications : le client rappelle l'endpoint avec {@code since = nextSince}
+ * tant que {@code hasMore} est vrai.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class CatalogChangePage {
+
+    private long since;
+    private long nextSince;
+    private boolean hasMore;
+    private List<CatalogChangeDto> changes;
+}
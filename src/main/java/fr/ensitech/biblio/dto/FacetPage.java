@@ -0,0 +1,20 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page de navigation par facettes : livres filtrés (triés par id) et compteurs par facette
+ * ({@code facets.get("language").get("fr")} = nombre de livres en français compatibles avec les autres filtres).
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class FacetPage {
+
+    private long total;
+    private int page;
+    private int size;
+    private Map<String, Map<String, Integer>> facets;
+    private List<BookSummary> books;
+}
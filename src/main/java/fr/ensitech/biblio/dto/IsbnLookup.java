@@ -0,0 +1,16 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Résultat d'une recherche groupée par ISBN : fiches trouvées dans l'ordre de la demande
+ * et ISBN demandés (tels que reçus) sans livre correspondant.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class IsbnLookup {
+
+    private List<BookDetail> found;
+    private List<String> missing;
+}
@@ -0,0 +1,19 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Page des livres publiés entre deux années incluses, triés par date de publication puis par id.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class PublicationRangePage {
+
+    private int startYear;
+    private int endYear;
+    private long total;
+    private int page;
+    private int size;
+    private List<BookSummary> books;
+}
@@ -0,0 +1,13 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+/**
+ * Livre recommandé : {@code reservedTogether} utilisateurs ont réservé à la fois ce livre et le livre consulté.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class RelatedBook {
+
+    private BookSummary book;
+    private int reservedTogether;
+}
@@ -0,0 +1,16 @@
+package fr.ensitech.biblio.dto;
+
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import lombok.*;
+
+/**
+ * Résultat de recherche : un livre (titre) ou un auteur (nom complet) et son score de classement.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class SearchHit {
+
+    private CatalogEntityType type;
+    private Long id;
+    private String text;
+    private double score;
+}
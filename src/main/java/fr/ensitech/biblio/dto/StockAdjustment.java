@@ -0,0 +1,13 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+/**
+ * Variation du stock d'un livre (entrée ou sortie d'exemplaires), appliquée par rapport au stock en base.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class StockAdjustment {
+
+    private Long bookId;
+    private int delta;
+}
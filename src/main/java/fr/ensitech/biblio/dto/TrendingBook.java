@@ -0,0 +1,13 @@
+package fr.ensitech.biblio.dto;
+
+import lombok.*;
+
+/**
+ * Livre en vogue : {@code score} est le nombre pondéré (estimé) de consultations et de réservations sur la période.
+ */
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class TrendingBook {
+
+    private BookSummary book;
+    private int score;
+}
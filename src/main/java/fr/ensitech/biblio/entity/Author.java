@@ -1,19 +1,30 @@
 package fr.ensitech.biblio.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import fr.ensitech.biblio.utils.Texts;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "authors", catalog = "biblio_database")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "authors", catalog = "biblio_database", indexes = {
+        @Index(name = "idx_authors_firstname_folded", columnList = "firstname_folded"),
+        @Index(name = "idx_authors_lastname_folded", columnList = "lastname_folded, firstname_folded")
+})
 @Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Author {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "authors_ids")
+    @TableGenerator(name = "authors_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "authors", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 48)
@@ -22,7 +33,24 @@ public class Author {
     @Column(nullable = false, length = 48)
     private String lastname;
 
+    // formes normalisées des noms (minuscules, sans accents), recalculées à chaque écriture
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "firstname_folded", length = 48)
+    private String firstnameFolded;
+
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "lastname_folded", length = 48)
+    private String lastnameFolded;
+
     // Relation vers Book
+    @ToString.Exclude
     @ManyToMany (mappedBy = "authors", fetch = FetchType.LAZY)
     private Set<Book> books = new HashSet<Book>();
+
+    @PrePersist
+    @PreUpdate
+    public void foldColumns() {
+        firstnameFolded = Texts.fold(firstname);
+        lastnameFolded = Texts.fold(lastname);
+    }
 }
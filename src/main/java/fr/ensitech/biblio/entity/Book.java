@@ -1,20 +1,37 @@
 package fr.ensitech.biblio.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import fr.ensitech.biblio.utils.Isbn;
+import fr.ensitech.biblio.utils.Texts;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
 @Entity
-@Table(name = "books", catalog = "biblio_database")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// UPDATE limité aux colonnes modifiées : changer le stock ne réécrit pas la description de 1024 caractères
+@DynamicUpdate
+@Table(name = "books", catalog = "biblio_database", indexes = {
+        @Index(name = "idx_books_title_folded", columnList = "title_folded"),
+        @Index(name = "idx_books_isbn_normalized", columnList = "isbn_normalized", unique = true),
+        @Index(name = "idx_books_isbn13", columnList = "isbn13", unique = true)
+})
 @Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Book {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "books_ids")
+    @TableGenerator(name = "books_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "books", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 128)
@@ -29,9 +46,8 @@ public class Book {
     @Column(length = 128)
     private String editor;
 
-    @Temporal(TemporalType.DATE)
     @Column(name = "publication_date")
-    private Date publicationDate;
+    private LocalDate publicationDate;
 
     @Column(nullable = false, unique = true, length = 32)
     private String isbn;
@@ -48,9 +64,71 @@ public class Book {
     @Column(name = "stock", nullable = false)
     private Integer stock;
 
+    // colonnes dérivées, recalculées à l'écriture (cf. beforeWrite) : les recherches insensibles à la casse
+    // et aux accents comparent ces colonnes indexées plutôt que upper(title) = upper(?)
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "title_folded", length = 128)
+    private String titleFolded;
+
+    // pas d'index : 1024 caractères dépassent la taille de clé InnoDB, et "contient" ne peut pas s'en servir
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "description_folded", length = 1024)
+    private String descriptionFolded;
+
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "isbn_normalized", length = 32)
+    private String isbnNormalized;
+
+    // ISBN-13 canonique (ISBN-10, tirets et espaces ramenés à la même clé) : recherche sur un entier indexé.
+    // Null pour les codes qui ne sont pas des ISBN valides, retrouvés alors par isbn_normalized
+    @JsonIgnore @ToString.Exclude @Setter(AccessLevel.NONE)
+    @Column(name = "isbn13")
+    private Long isbn13;
+
     // Relation vers Author
+    @ToString.Exclude
     @ManyToMany (fetch = FetchType.LAZY, cascade = CascadeType.ALL)
-    @JoinTable(name = "author_book", joinColumns = @JoinColumn(name = "author_id"), inverseJoinColumns =  @JoinColumn(name = "book_id"))
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    // clé primaire (book_id, author_id) ; l'index (author_id, book_id) sert la liste paginée des livres d'un auteur
+    @JoinTable(name = "book_author", catalog = "biblio_database",
+            joinColumns = @JoinColumn(name = "book_id"), inverseJoinColumns = @JoinColumn(name = "author_id"),
+            indexes = @Index(name = "idx_book_author_author", columnList = "author_id, book_id"))
     @Singular
     private Set<Author> authors = new HashSet<>();
+
+    // ISBN lu en base : les clés ne sont recalculées à l'écriture que si l'ISBN a changé. Un doublon laissé
+    // sans clé par DataInitConfig reste ainsi modifiable (stock, titre...) sans violer les index uniques
+    @Transient @JsonIgnore @ToString.Exclude @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+    private String loadedIsbn;
+
+    @PostLoad
+    void rememberIsbn() {
+        loadedIsbn = isbn;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeWrite() {
+        foldText();
+        if (!Objects.equals(isbn, loadedIsbn)) {
+            foldKeys();
+        }
+    }
+
+    /** Recalcule toutes les colonnes dérivées, clés d'ISBN comprises (remplissage des colonnes ajoutées). */
+    public void foldColumns() {
+        foldText();
+        foldKeys();
+    }
+
+    private void foldText() {
+        titleFolded = Texts.fold(title);
+        descriptionFolded = description == null ? null : Texts.fold(description);
+    }
+
+    private void foldKeys() {
+        isbnNormalized = Texts.normalizeCode(isbn);
+        isbn13 = Isbn.toIsbn13(isbn);
+        loadedIsbn = isbn;
+    }
 }
@@ -0,0 +1,21 @@
+package fr.ensitech.biblio.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Nombre de consultations d'un livre (fiche par id ou par ISBN), cumulé par {@code BookViewService}.
+ * Écrit uniquement par upsert groupé : jamais pendant la lecture de la fiche.
+ */
+@Entity
+@Table(name = "book_view_counts", catalog = "biblio_database")
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class BookViewCount {
+
+    @Id
+    @Column(name = "book_id")
+    private Long bookId;
+
+    @Column(nullable = false)
+    private long views;
+}
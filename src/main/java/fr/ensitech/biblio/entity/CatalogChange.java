@@ -0,0 +1,46 @@
+package fr.ensitech.biblio.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * Journal des modifications du catalogue (livres, auteurs), lu par /api/books/changes.
+ * La version est attribuée par {@link CatalogVersion}, verrouillé jusqu'au commit : elle croît dans l'ordre des commits.
+ */
+@Entity
+@Table(name = "catalog_changes", catalog = "biblio_database")
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class CatalogChange implements Persistable<Long> {
+
+    // ni IDENTITY ni TABLE : un auto-incrément est pris à l'insertion, pas au commit
+    @Id
+    private Long version;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 16)
+    private CatalogEntityType entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private ChangeOperation operation;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    @Override
+    public Long getId() {
+        return version;
+    }
+
+    // journal en écriture seule : save() insère sans SELECT préalable sur la version attribuée
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -0,0 +1,6 @@
+package fr.ensitech.biblio.entity;
+
+public enum CatalogEntityType {
+    BOOK,
+    AUTHOR
+}
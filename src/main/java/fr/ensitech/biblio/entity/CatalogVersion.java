@@ -0,0 +1,23 @@
+package fr.ensitech.biblio.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Compteur des versions du journal des modifications : une seule ligne, créée au démarrage.
+ * La transaction qui écrit dans le journal la verrouille jusqu'à son commit : une version N+1
+ * ne peut pas être commitée avant la version N, un client qui a lu jusqu'à N n'en manque aucune.
+ */
+@Entity
+@Table(name = "catalog_versions", catalog = "biblio_database")
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class CatalogVersion {
+
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_version", nullable = false)
+    private long lastVersion;
+}
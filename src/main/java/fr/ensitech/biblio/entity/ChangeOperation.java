@@ -0,0 +1,8 @@
+package fr.ensitech.biblio.entity;
+
+public enum ChangeOperation {
+    INSERT,
+    UPDATE,
+    // tombstone : l'entité a été supprimée
+    DELETE
+}
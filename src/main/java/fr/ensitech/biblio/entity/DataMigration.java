@@ -0,0 +1,23 @@
+package fr.ensitech.biblio.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Reprise de données déjà faite sur cette base (cf. DataInitConfig) : une ligne par reprise terminée,
+ * qui n'est alors plus relancée au démarrage.
+ */
+@Entity
+@Table(name = "data_migrations", catalog = "biblio_database")
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class DataMigration {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private Instant completedAt;
+}
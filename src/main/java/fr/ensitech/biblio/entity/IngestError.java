@@ -0,0 +1,34 @@
+package fr.ensitech.biblio.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Ligne rejetée par un import, avec sa raison. Commitée avec le lot de livres de la même tranche de lignes.
+ */
+@Entity
+@Table(name = "ingest_errors", catalog = "biblio_database", indexes = {
+        @Index(name = "idx_ingest_errors_job_row", columnList = "job_id, row_num")
+})
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class IngestError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ingest_errors_ids")
+    @TableGenerator(name = "ingest_errors_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "ingest_errors", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // row_number est un mot réservé de MySQL 8
+    @Column(name = "row_num", nullable = false)
+    private long rowNumber;
+
+    @Column(length = 32)
+    private String isbn;
+
+    @Column(nullable = false, length = 512)
+    private String message;
+}
@@ -0,0 +1,28 @@
+package fr.ensitech.biblio.entity;
+
+/**
+ * Formats de catalogue fournisseur acceptés par l'import : CSV (en-tête obligatoire) ou ONIX 3.0.
+ */
+public enum IngestFormat {
+    CSV("csv"),
+    ONIX("xml");
+
+    private final String extension;
+
+    IngestFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static IngestFormat of(String key) {
+        for (IngestFormat format : values()) {
+            if (format.name().equalsIgnoreCase(key)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown ingest format: " + key);
+    }
+}
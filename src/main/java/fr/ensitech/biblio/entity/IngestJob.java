@@ -0,0 +1,55 @@
+package fr.ensitech.biblio.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+/**
+ * Import d'un catalogue fournisseur. {@code committedOffset} est le numéro de la dernière ligne
+ * dont le sort (livre créé ou erreur) a été commité : une reprise repart de la ligne suivante.
+ */
+@Entity
+@Table(name = "ingest_jobs", catalog = "biblio_database")
+@Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
+public class IngestJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "file_name", length = 255)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private IngestFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IngestJobStatus status;
+
+    // copie locale du fichier reçu, relue en cas de reprise
+    @JsonIgnore
+    @Column(name = "storage_path", length = 512)
+    private String storagePath;
+
+    @Column(name = "committed_offset", nullable = false)
+    private long committedOffset;
+
+    @Column(name = "rows_written", nullable = false)
+    private long rowsWritten;
+
+    @Column(name = "rows_rejected", nullable = false)
+    private long rowsRejected;
+
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(length = 512)
+    private String message;
+}
@@ -0,0 +1,9 @@
+package fr.ensitech.biblio.entity;
+
+public enum IngestJobStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    // serveur arrêté pendant l'import : reprise possible au dernier offset validé
+    INTERRUPTED
+}
@@ -3,7 +3,7 @@ package fr.ensitech.biblio.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Date;
+import java.time.Instant;
 
 @Entity
 @Table(name = "password_history", catalog = "biblio_database")
@@ -11,9 +11,12 @@ import java.util.Date;
 public class PasswordHistory {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "password_history_ids")
+    @TableGenerator(name = "password_history_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "password_history", allocationSize = 50)
     private Long id;
 
+    @ToString.Exclude
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
@@ -21,7 +24,6 @@ public class PasswordHistory {
     @Column(name = "password_hash", nullable = false, length = 255)
     private String passwordHash;
 
-    @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "change_date", nullable = false)
-    private Date changeDate;
+    private Instant changeDate;
 }
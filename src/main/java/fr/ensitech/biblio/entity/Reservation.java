@@ -3,7 +3,7 @@ package fr.ensitech.biblio.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Date;
+import java.time.Instant;
 
 @Entity
 @Table(name = "reservations", catalog = "biblio_database")
@@ -11,20 +11,23 @@ import java.util.Date;
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "reservations_ids")
+    @TableGenerator(name = "reservations_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "reservations", allocationSize = 50)
     private Long id;
 
+    @ToString.Exclude
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    @ToString.Exclude
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     @JoinColumn(name = "book_id")
     private Book book;
 
-    @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "reservation_date", nullable = false)
-    private Date reservationDate;
+    private Instant reservationDate;
 
     @Column(nullable = false)
     private boolean active;
@@ -2,14 +2,20 @@ package fr.ensitech.biblio.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_ONLY)
 @Table(name = "security_questions", catalog = "biblio_database")
 @Getter @Setter @ToString @NoArgsConstructor @AllArgsConstructor
 public class SecurityQuestion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "security_questions_ids")
+    @TableGenerator(name = "security_questions_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "security_questions", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 255)
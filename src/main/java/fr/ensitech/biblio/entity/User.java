@@ -3,7 +3,8 @@ package fr.ensitech.biblio.entity;
 import jakarta.persistence.*;
 import lombok.*;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 
 @Entity
 @Table(name = "users", catalog = "biblio_database")
@@ -11,7 +12,9 @@ import java.util.Date;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_ids")
+    @TableGenerator(name = "users_ids", catalog = "biblio_database", table = "id_generators",
+            pkColumnName = "entity", valueColumnName = "next_id", pkColumnValue = "users", allocationSize = 50)
     private long id;
 
     @Column(name = "firstname", nullable = false, length = 48)
@@ -30,12 +33,12 @@ public class User {
     private String role;
 
     @Column(name = "birthdate", nullable = true)
-    @Temporal(TemporalType.DATE)
-    private Date birthdate;
+    private LocalDate birthdate;
 
     @Column(name = "active", nullable = false)
     private boolean active;
 
+    @ToString.Exclude
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "security_question_id")
     private SecurityQuestion securityQuestion;
@@ -43,9 +46,8 @@ public class User {
     @Column(name = "security_answer_hash", length = 255)
     private String securityAnswerHash;
 
-    @Temporal(TemporalType.TIMESTAMP)
     @Column(name = "last_password_change")
-    private Date lastPasswordChange;
+    private Instant lastPasswordChange;
 
     @Transient
     private Long securityQuestionId;
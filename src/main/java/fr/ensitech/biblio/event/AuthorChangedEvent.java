@@ -0,0 +1,17 @@
+package fr.ensitech.biblio.event;
+
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par les services dans la transaction qui crée ou modifie un auteur.
+ */
+@Getter @ToString @AllArgsConstructor
+public class AuthorChangedEvent {
+
+    private final Author author;
+    private final ChangeOperation operation;
+}
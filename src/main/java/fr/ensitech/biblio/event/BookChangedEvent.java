@@ -0,0 +1,18 @@
+package fr.ensitech.biblio.event;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par les services dans la transaction qui crée, modifie ou supprime un livre.
+ * Pour une suppression, {@code book} est l'état avant suppression.
+ */
+@Getter @ToString @AllArgsConstructor
+public class BookChangedEvent {
+
+    private final Book book;
+    private final ChangeOperation operation;
+}
@@ -0,0 +1,15 @@
+package fr.ensitech.biblio.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par {@code ReservationService} après l'enregistrement d'une réservation.
+ */
+@Getter @ToString @AllArgsConstructor
+public class BookReservedEvent {
+
+    private final Long bookId;
+    private final Long userId;
+}
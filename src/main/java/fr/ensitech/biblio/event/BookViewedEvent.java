@@ -0,0 +1,14 @@
+package fr.ensitech.biblio.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Publié par {@code BookController} quand la fiche d'un livre est consultée (par id ou par ISBN).
+ */
+@Getter @ToString @AllArgsConstructor
+public class BookViewedEvent {
+
+    private final Long bookId;
+}
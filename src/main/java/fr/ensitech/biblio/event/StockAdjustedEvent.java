@@ -0,0 +1,17 @@
+package fr.ensitech.biblio.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+/**
+ * Publié par {@code BookService} après un ajustement groupé des stocks, fait par un UPDATE ensembliste
+ * sans charger les livres : seuls les ids sont connus.
+ */
+@Getter @ToString @AllArgsConstructor
+public class StockAdjustedEvent {
+
+    private final List<Long> bookIds;
+}
@@ -0,0 +1,25 @@
+package fr.ensitech.biblio.ingest;
+
+import fr.ensitech.biblio.entity.IngestFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Lecture en flux d'un catalogue : une notice à la fois, le fichier n'est jamais chargé en entier.
+ */
+public interface CatalogReader extends Closeable {
+
+    /** Notice suivante, ou null en fin de fichier. Une erreur de syntaxe qui empêche de continuer lève IOException. */
+    CatalogRecord next() throws IOException;
+
+    static CatalogReader open(IngestFormat format, InputStream in) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvCatalogReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            case ONIX -> new OnixCatalogReader(in);
+        };
+    }
+}
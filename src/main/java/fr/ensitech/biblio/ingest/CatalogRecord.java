@@ -0,0 +1,35 @@
+package fr.ensitech.biblio.ingest;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Notice brute lue dans un catalogue fournisseur, avant normalisation : toutes les valeurs sont des chaînes.
+ * Le numéro de ligne est le rang de la notice dans le fichier (à partir de 1, en-tête CSV exclu).
+ */
+@Getter @Setter @ToString
+public class CatalogRecord {
+
+    private final long rowNumber;
+    private String isbn;
+    private String title;
+    // "Prénom Nom" ou "Nom, Prénom"
+    private List<String> authors = new ArrayList<>();
+    private String description;
+    private String editor;
+    private String publicationDate;
+    private String category;
+    private String language;
+    private String nbPages;
+    private String stock;
+    // notice illisible (nombre de colonnes...) : rejetée telle quelle
+    private String error;
+
+    public CatalogRecord(long rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+}
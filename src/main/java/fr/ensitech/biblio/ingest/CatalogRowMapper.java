@@ -0,0 +1,142 @@
+package fr.ensitech.biblio.ingest;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.utils.Isbn;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.List;
+
+/**
+ * Normalisation et validation d'une notice : ISBN valide obligatoire (stocké sous sa forme ISBN-13),
+ * titre obligatoire, longueurs des colonnes de {@link Book}, dates et nombres. Sans état, thread-safe.
+ */
+public final class CatalogRowMapper {
+
+    private CatalogRowMapper() {
+    }
+
+    public static final int MAX_NAME_LENGTH = 48;
+
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+            DateTimeFormatter.ofPattern("uuuu-MM-dd").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT),
+            DateTimeFormatter.ofPattern("uuuuMMdd").withResolverStyle(ResolverStyle.STRICT));
+
+    public static void normalize(IngestRow row) {
+        CatalogRecord record = row.getRecord();
+        if (record.getError() != null) {
+            row.reject(record.getError());
+            return;
+        }
+        try {
+            Long isbn13 = Isbn.toIsbn13(required(record.getIsbn(), "isbn", 32));
+            if (isbn13 == null) {
+                throw new IllegalArgumentException("Invalid ISBN: " + record.getIsbn());
+            }
+            LocalDate publicationDate = date(record.getPublicationDate());
+            Book book = Book.builder()
+                    .isbn(Isbn.format(isbn13))
+                    .title(required(record.getTitle(), "title", 128))
+                    .description(truncate(blankToNull(record.getDescription()), 1024))
+                    .editor(optional(record.getEditor(), "editor", 128))
+                    .category(optional(record.getCategory(), "category", 64))
+                    .language(optional(record.getLanguage(), "language", 64))
+                    .publicationDate(publicationDate)
+                    .published(publicationDate != null && !publicationDate.isAfter(LocalDate.now()))
+                    .nbPages((short) number(record.getNbPages(), "nb_pages", Short.MAX_VALUE))
+                    .stock(number(record.getStock(), "stock", Integer.MAX_VALUE))
+                    .build();
+            for (String author : record.getAuthors()) {
+                row.getAuthorNames().add(splitName(author));
+            }
+            row.setBook(book);
+        } catch (IllegalArgumentException e) {
+            row.reject(e.getMessage());
+        }
+    }
+
+    /** "Nom, Prénom" ou "Prénom Nom" (le nom est le dernier mot) → [prénom, nom]. */
+    public static String[] splitName(String author) {
+        String name = author.strip().replaceAll("\\s+", " ");
+        int comma = name.indexOf(',');
+        String firstname;
+        String lastname;
+        if (comma >= 0) {
+            lastname = name.substring(0, comma).strip();
+            firstname = name.substring(comma + 1).strip();
+        } else {
+            int space = name.lastIndexOf(' ');
+            firstname = space < 0 ? "" : name.substring(0, space);
+            lastname = name.substring(space + 1);
+        }
+        if (lastname.isEmpty()) {
+            throw new IllegalArgumentException("Invalid author name: " + author);
+        }
+        if (firstname.length() > MAX_NAME_LENGTH || lastname.length() > MAX_NAME_LENGTH) {
+            throw new IllegalArgumentException("Author name too long: " + author);
+        }
+        return new String[]{firstname, lastname};
+    }
+
+    private static String required(String value, String column, int maxLength) {
+        String stripped = blankToNull(value);
+        if (stripped == null) {
+            throw new IllegalArgumentException("Missing " + column);
+        }
+        return optional(stripped, column, maxLength);
+    }
+
+    private static String optional(String value, String column, int maxLength) {
+        String stripped = blankToNull(value);
+        if (stripped != null && stripped.length() > maxLength) {
+            throw new IllegalArgumentException(column + " longer than " + maxLength + " characters");
+        }
+        return stripped;
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value == null || value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+
+    // année seule acceptée : 1er janvier
+    private static LocalDate date(String value) {
+        String stripped = blankToNull(value);
+        if (stripped == null) {
+            return null;
+        }
+        if (stripped.length() == 4 && stripped.chars().allMatch(Character::isDigit)) {
+            return LocalDate.of(Integer.parseInt(stripped), 1, 1);
+        }
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(stripped, format);
+            } catch (DateTimeParseException e) {
+                // format suivant
+            }
+        }
+        throw new IllegalArgumentException("Invalid publication date: " + stripped);
+    }
+
+    private static int number(String value, String column, int max) {
+        String stripped = blankToNull(value);
+        if (stripped == null) {
+            return 0;
+        }
+        try {
+            int number = Integer.parseInt(stripped);
+            if (number < 0 || number > max) {
+                throw new IllegalArgumentException(column + " out of range: " + stripped);
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + stripped);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package fr.ensitech.biblio.ingest;
+
+import fr.ensitech.biblio.utils.Texts;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecteur CSV en flux (RFC 4180 : champs entre guillemets, guillemets doublés, retours à la ligne dans un champ).
+ * La première ligne est l'en-tête : colonnes reconnues par leur nom, dans n'importe quel ordre, les autres ignorées.
+ * Séparateur virgule ou point-virgule, déduit de l'en-tête. Plusieurs auteurs dans une cellule sont séparés
+ * par "|" (ou ";" quand le séparateur est la virgule).
+ */
+public class CsvCatalogReader implements CatalogReader {
+
+    private static final Map<String, Column> COLUMNS = Map.ofEntries(
+            Map.entry("isbn", Column.ISBN), Map.entry("title", Column.TITLE),
+            Map.entry("authors", Column.AUTHORS), Map.entry("author", Column.AUTHORS),
+            Map.entry("description", Column.DESCRIPTION), Map.entry("editor", Column.EDITOR),
+            Map.entry("publisher", Column.EDITOR), Map.entry("publication_date", Column.PUBLICATION_DATE),
+            Map.entry("category", Column.CATEGORY), Map.entry("language", Column.LANGUAGE),
+            Map.entry("nb_pages", Column.NB_PAGES), Map.entry("pages", Column.NB_PAGES),
+            Map.entry("stock", Column.STOCK));
+
+    private enum Column { ISBN, TITLE, AUTHORS, DESCRIPTION, EDITOR, PUBLICATION_DATE, CATEGORY, LANGUAGE, NB_PAGES, STOCK }
+
+    private final Reader in;
+    private final char[] buffer = new char[1 << 16];
+    private int position;
+    private int limit;
+    private char delimiter = ',';
+    private final Column[] columns;
+    private long rowNumber;
+
+    public CsvCatalogReader(Reader in) throws IOException {
+        this.in = in;
+        List<String> header = readFields(true);
+        if (header == null) {
+            throw new IOException("Empty CSV file");
+        }
+        columns = new Column[header.size()];
+        boolean hasIsbn = false;
+        boolean hasTitle = false;
+        for (int i = 0; i < header.size(); i++) {
+            columns[i] = COLUMNS.get(Texts.fold(header.get(i)).replace(' ', '_'));
+            hasIsbn |= columns[i] == Column.ISBN;
+            hasTitle |= columns[i] == Column.TITLE;
+        }
+        if (!hasIsbn || !hasTitle) {
+            throw new IOException("CSV header must contain the isbn and title columns");
+        }
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        List<String> fields;
+        do {
+            fields = readFields(false);
+            if (fields == null) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isBlank());
+
+        CatalogRecord record = new CatalogRecord(++rowNumber);
+        if (fields.size() > columns.length) {
+            record.setError("Expected " + columns.length + " columns, found " + fields.size());
+            return record;
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (columns[i] != null) {
+                set(record, columns[i], fields.get(i));
+            }
+        }
+        return record;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void set(CatalogRecord record, Column column, String value) {
+        switch (column) {
+            case ISBN -> record.setIsbn(value);
+            case TITLE -> record.setTitle(value);
+            case AUTHORS -> {
+                String separators = delimiter == ';' ? "\\|" : "[|;]";
+                for (String author : value.split(separators)) {
+                    if (!author.isBlank()) {
+                        record.getAuthors().add(author.strip());
+                    }
+                }
+            }
+            case DESCRIPTION -> record.setDescription(value);
+            case EDITOR -> record.setEditor(value);
+            case PUBLICATION_DATE -> record.setPublicationDate(value);
+            case CATEGORY -> record.setCategory(value);
+            case LANGUAGE -> record.setLanguage(value);
+            case NB_PAGES -> record.setNbPages(value);
+            case STOCK -> record.setStock(value);
+        }
+    }
+
+    // un enregistrement (éventuellement sur plusieurs lignes physiques), null en fin de fichier.
+    // Pour l'en-tête, le séparateur est celui des deux qui apparaît le plus hors guillemets
+    private List<String> readFields(boolean header) throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        if (header && c == '\uFEFF') {
+            c = read();
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        int commas = 0;
+        int semicolons = 0;
+        while (c >= 0) {
+            if (quoted) {
+                if (c == '"') {
+                    int following = read();
+                    if (following == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = following;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                break;
+            } else if (header && (c == ',' || c == ';')) {
+                if (c == ',') {
+                    commas++;
+                } else {
+                    semicolons++;
+                }
+                field.append((char) c);
+            } else if (c == delimiter) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field at row " + (rowNumber + 1));
+        }
+        fields.add(field.toString());
+        if (header) {
+            delimiter = semicolons > commas ? ';' : ',';
+            List<String> names = new ArrayList<>();
+            for (String raw : fields) {
+                for (String name : raw.split(delimiter == ';' ? ";" : ",", -1)) {
+                    names.add(name.strip());
+                }
+            }
+            return names;
+        }
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private boolean fill() throws IOException {
+        int read = in.read(buffer, 0, buffer.length);
+        if (read <= 0) {
+            return false;
+        }
+        position = 0;
+        limit = read;
+        return true;
+    }
+}
@@ -0,0 +1,157 @@
+package fr.ensitech.biblio.ingest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pipeline d'import en quatre étapes reliées par des files bornées :
+ * lecture en flux → normalisation / validation → résolution des auteurs → écriture par lots.
+ * Une file pleine bloque l'étape qui l'alimente, et un sémaphore borne les lignes lues mais pas encore écrites
+ * (files, workers et tampon de réordonnancement compris) : la mémoire ne dépend pas de la taille du fichier.
+ * Lecture et écriture sont mono-thread (ordre du fichier, offset de reprise exact) ; les deux étapes
+ * intermédiaires tournent sur {@code workers} threads chacune et rendent les lignes dans le désordre,
+ * remises dans l'ordre avant écriture. La première erreur d'une étape arrête toutes les autres.
+ */
+public class IngestPipeline {
+
+    /** Id de l'auteur (existant ou créé) pour un prénom et un nom ; appelé en parallèle. */
+    @FunctionalInterface
+    public interface AuthorResolver {
+        long resolve(String firstname, String lastname) throws Exception;
+    }
+
+    /**
+     * Écrit un lot de lignes consécutives (livres et rejets) et valide leur offset dans la même transaction.
+     * Appelé par un seul thread, dans l'ordre des lignes.
+     */
+    @FunctionalInterface
+    public interface BatchWriter {
+        void write(List<IngestRow> rows) throws Exception;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        void apply(IngestRow row) throws Exception;
+    }
+
+    // marqueur de fin de flux, propagé d'étape en étape
+    private static final IngestRow END = new IngestRow(new CatalogRecord(-1));
+
+    private final String name;
+    private final int workers;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final AuthorResolver resolver;
+    private final BatchWriter writer;
+
+    public IngestPipeline(String name, int workers, int queueCapacity, int batchSize,
+                          AuthorResolver resolver, BatchWriter writer) {
+        if (workers <= 0 || queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("workers, queue capacity and batch size must be positive");
+        }
+        this.name = name;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.resolver = resolver;
+        this.writer = writer;
+    }
+
+    /** Importe les lignes postérieures à {@code offset} ; rend la main quand tout est écrit ou à la première erreur. */
+    public void run(CatalogReader reader, long offset) throws Exception {
+        BlockingQueue<IngestRow> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<IngestRow> normalized = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<IngestRow> resolved = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger normalizing = new AtomicInteger(workers);
+        AtomicInteger resolving = new AtomicInteger(workers);
+        Semaphore inFlight = new Semaphore(batchSize + 3 * queueCapacity);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2 + 2 * workers,
+                Thread.ofPlatform().name(name + "-", 0).daemon().factory());
+        CompletionService<Void> stages = new ExecutorCompletionService<>(executor);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        tasks.add(() -> parse(reader, offset, parsed, inFlight));
+        for (int i = 0; i < workers; i++) {
+            tasks.add(() -> stage(parsed, normalized, normalizing, workers, CatalogRowMapper::normalize));
+            tasks.add(() -> stage(normalized, resolved, resolving, 1, this::resolveAuthors));
+        }
+        tasks.add(() -> write(resolved, offset, inFlight));
+        try {
+            for (Callable<Void> task : tasks) {
+                stages.submit(task);
+            }
+            for (int done = 0; done < tasks.size(); done++) {
+                stages.take().get();
+            }
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        } finally {
+            // interrompt les étapes encore bloquées sur une file après une erreur
+            executor.shutdownNow();
+        }
+    }
+
+    private Void parse(CatalogReader reader, long offset, BlockingQueue<IngestRow> out, Semaphore inFlight) throws Exception {
+        for (CatalogRecord record = reader.next(); record != null; record = reader.next()) {
+            if (record.getRowNumber() > offset) {
+                inFlight.acquire();
+                out.put(new IngestRow(record));
+            }
+        }
+        for (int i = 0; i < workers; i++) {
+            out.put(END);
+        }
+        return null;
+    }
+
+    // chaque worker consomme un marqueur de fin ; le dernier à s'arrêter prévient l'étape suivante
+    private Void stage(BlockingQueue<IngestRow> in, BlockingQueue<IngestRow> out, AtomicInteger running,
+                       int downstreamWorkers, Step step) throws Exception {
+        for (IngestRow row = in.take(); row != END; row = in.take()) {
+            if (!row.isRejected()) {
+                step.apply(row);
+            }
+            out.put(row);
+        }
+        if (running.decrementAndGet() == 0) {
+            for (int i = 0; i < downstreamWorkers; i++) {
+                out.put(END);
+            }
+        }
+        return null;
+    }
+
+    private void resolveAuthors(IngestRow row) throws Exception {
+        for (String[] author : row.getAuthorNames()) {
+            row.getAuthorIds().add(resolver.resolve(author[0], author[1]));
+        }
+    }
+
+    // tampon de réordonnancement : un lot ne contient que des lignes consécutives, l'offset validé est exact.
+    // Pas d'interblocage : la prochaine ligne attendue a toujours été lue, elle a déjà son jeton
+    private Void write(BlockingQueue<IngestRow> in, long offset, Semaphore inFlight) throws Exception {
+        Map<Long, IngestRow> pending = new HashMap<>();
+        long next = offset + 1;
+        List<IngestRow> batch = new ArrayList<>(batchSize);
+        for (IngestRow row = in.take(); row != END; row = in.take()) {
+            pending.put(row.getRowNumber(), row);
+            for (IngestRow ready = pending.remove(next); ready != null; ready = pending.remove(next)) {
+                batch.add(ready);
+                next++;
+                if (batch.size() == batchSize) {
+                    writer.write(batch);
+                    inFlight.release(batch.size());
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            writer.write(batch);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package fr.ensitech.biblio.ingest;
+
+import fr.ensitech.biblio.entity.Book;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ligne en transit dans le pipeline d'import : la notice brute, puis le livre normalisé, puis les ids d'auteurs.
+ * Une ligne en erreur continue jusqu'à l'écriture, où son rejet est commité avec le lot.
+ */
+@Getter @Setter
+public class IngestRow {
+
+    private final long rowNumber;
+    private final CatalogRecord record;
+    private Book book;
+    // [prénom, nom] de chaque auteur, puis leurs ids une fois résolus
+    private List<String[]> authorNames = new ArrayList<>();
+    private List<Long> authorIds = new ArrayList<>();
+    private String error;
+
+    public IngestRow(CatalogRecord record) {
+        this.rowNumber = record.getRowNumber();
+        this.record = record;
+    }
+
+    public boolean isRejected() {
+        return error != null;
+    }
+
+    public void reject(String error) {
+        this.error = error;
+        this.book = null;
+    }
+}
@@ -0,0 +1,177 @@
+package fr.ensitech.biblio.ingest;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Lecteur ONIX 3.0 (balises de référence) en flux StAX : une notice par élément {@code <Product>},
+ * sans construire d'arbre du document. DTD et entités externes désactivées.
+ * ISBN : ProductIDType 15 (ISBN-13), à défaut 02 (ISBN-10). Contributeurs : PersonNameInverted,
+ * sinon KeyNames + NamesBeforeKey, sinon PersonName.
+ */
+public class OnixCatalogReader implements CatalogReader {
+
+    private static final XMLInputFactory FACTORY = XMLInputFactory.newFactory();
+
+    static {
+        FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final InputStream in;
+    private final XMLStreamReader xml;
+    private long rowNumber;
+
+    public OnixCatalogReader(InputStream in) throws IOException {
+        this.in = in;
+        try {
+            xml = FACTORY.createXMLStreamReader(in);
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid ONIX file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public CatalogRecord next() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "Product".equals(xml.getLocalName())) {
+                    return readProduct();
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Invalid ONIX file: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            in.close();
+        }
+    }
+
+    private CatalogRecord readProduct() throws XMLStreamException {
+        CatalogRecord record = new CatalogRecord(++rowNumber);
+        Deque<String> path = new ArrayDeque<>();
+        StringBuilder text = new StringBuilder();
+        Product product = new Product();
+        while (true) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                path.push(xml.getLocalName());
+                text.setLength(0);
+            } else if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) {
+                text.append(xml.getText());
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                if (path.isEmpty()) {
+                    product.fill(record);
+                    return record;
+                }
+                String name = path.pop();
+                product.handle(name, path.isEmpty() ? "Product" : path.peek(), text.toString().strip());
+                text.setLength(0);
+            }
+        }
+    }
+
+    // valeurs d'un Product en cours de lecture ; la première occurrence de chaque champ l'emporte
+    private static final class Product {
+        private String idType;
+        private String idValue;
+        private String isbn13;
+        private String isbn10;
+        private String title;
+        private String inverted;
+        private String keyNames;
+        private String namesBeforeKey;
+        private String personName;
+        private final List<String> authors = new ArrayList<>();
+        private String description;
+        private String editor;
+        private String dateRole;
+        private String dateValue;
+        private String publicationDate;
+        private String category;
+        private String language;
+        private String nbPages;
+
+        void handle(String name, String parent, String value) {
+            switch (parent + "/" + name) {
+                case "ProductIdentifier/ProductIDType" -> idType = value;
+                case "ProductIdentifier/IDValue" -> idValue = value;
+                case "TitleElement/TitleText" -> title = title == null ? value : title;
+                case "Contributor/PersonNameInverted" -> inverted = value;
+                case "Contributor/KeyNames" -> keyNames = value;
+                case "Contributor/NamesBeforeKey" -> namesBeforeKey = value;
+                case "Contributor/PersonName" -> personName = value;
+                case "TextContent/Text" -> description = description == null ? value : description;
+                case "Publisher/PublisherName" -> editor = editor == null ? value : editor;
+                case "PublishingDate/PublishingDateRole" -> dateRole = value;
+                case "PublishingDate/Date" -> dateValue = value;
+                case "Language/LanguageCode" -> language = language == null ? value : language;
+                case "Extent/ExtentValue" -> nbPages = nbPages == null ? value : nbPages;
+                case "Subject/SubjectHeadingText" -> category = category == null ? value : category;
+                default -> endOf(name);
+            }
+        }
+
+        private void endOf(String name) {
+            switch (name) {
+                case "ProductIdentifier" -> {
+                    if ("15".equals(idType)) {
+                        isbn13 = idValue;
+                    } else if ("02".equals(idType)) {
+                        isbn10 = idValue;
+                    }
+                    idType = null;
+                    idValue = null;
+                }
+                case "Contributor" -> {
+                    String author = inverted != null ? inverted
+                            : keyNames != null ? (namesBeforeKey != null ? keyNames + ", " + namesBeforeKey : keyNames)
+                            : personName;
+                    if (author != null && !author.isBlank()) {
+                        authors.add(author);
+                    }
+                    inverted = keyNames = namesBeforeKey = personName = null;
+                }
+                // rôle 01 : date de publication ; sinon la première date rencontrée
+                case "PublishingDate" -> {
+                    if (dateValue != null && (publicationDate == null || "01".equals(dateRole))) {
+                        publicationDate = dateValue;
+                    }
+                    dateRole = null;
+                    dateValue = null;
+                }
+                default -> {
+                }
+            }
+        }
+
+        void fill(CatalogRecord record) {
+            record.setIsbn(isbn13 != null ? isbn13 : isbn10);
+            record.setTitle(title);
+            record.getAuthors().addAll(authors);
+            record.setDescription(description);
+            record.setEditor(editor);
+            record.setPublicationDate(publicationDate);
+            record.setCategory(category);
+            record.setLanguage(language);
+            record.setNbPages(nbPages);
+        }
+    }
+}
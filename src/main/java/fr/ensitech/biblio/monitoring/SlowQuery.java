@@ -0,0 +1,37 @@
+package fr.ensitech.biblio.monitoring;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Requête lente relevée par {@link SlowQueryListener}.
+ * Le plan d'exécution est renseigné plus tard, et seulement pour les requêtes échantillonnées.
+ */
+@Getter
+public class SlowQuery {
+
+    private final Instant executedAt;
+    private final long elapsedMs;
+    private final String caller;
+    private final String sql;
+    private final List<String> parameters;
+    private final int batchSize;
+    private volatile List<Map<String, Object>> plan;
+
+    public SlowQuery(Instant executedAt, long elapsedMs, String caller, String sql,
+                     List<String> parameters, int batchSize) {
+        this.executedAt = executedAt;
+        this.elapsedMs = elapsedMs;
+        this.caller = caller;
+        this.sql = sql;
+        this.parameters = parameters;
+        this.batchSize = batchSize;
+    }
+
+    void setPlan(List<Map<String, Object>> plan) {
+        this.plan = plan;
+    }
+}
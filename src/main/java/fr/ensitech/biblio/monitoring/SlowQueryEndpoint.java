@@ -0,0 +1,38 @@
+package fr.ensitech.biblio.monitoring;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/slowqueries} : dernières requêtes lentes (plus récente en tête) et leurs plans ;
+ * {@code DELETE /actuator/slowqueries} : vide le journal. Réservé au rôle ADMIN (voir SecurityConfig).
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        List<SlowQuery> entries = slowQueryLog.entries();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("total", slowQueryLog.total());
+        body.put("retained", entries.size());
+        body.put("queries", entries);
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
@@ -0,0 +1,92 @@
+package fr.ensitech.biblio.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Relève les exécutions JDBC au-delà du seuil dans le {@link SlowQueryLog}, avec paramètres,
+ * méthode appelante (premier cadre applicatif de la pile) et durée ; échantillonne les EXPLAIN.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+
+    private static final String APPLICATION_PACKAGE = "fr.ensitech.biblio.";
+    private static final String MONITORING_PACKAGE = SlowQueryListener.class.getPackageName() + ".";
+    private static final int MAX_PARAMETER_LENGTH = 100;
+    private static final String MASKED = "******";
+
+    private final DataSource target;
+    private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+    /**
+     * @param target datasource non instrumentée, utilisée pour les EXPLAIN
+     */
+    public SlowQueryListener(DataSource target, ObjectProvider<SlowQueryLog> slowQueryLog) {
+        this.target = target;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SlowQueryLog queries = slowQueryLog.getIfAvailable();
+        if (queries == null || !queries.isSlow(execInfo.getElapsedTime()) || queryInfoList.isEmpty()) {
+            return;
+        }
+        String caller = caller();
+        for (QueryInfo queryInfo : queryInfoList) {
+            // lot : seuls les paramètres du premier jeu sont conservés
+            List<ParameterSetOperation> operations = queryInfo.getParametersList().isEmpty()
+                    ? List.of() : queryInfo.getParametersList().get(0);
+            // e-mails, hash de mots de passe... : les valeurs réelles ne servent qu'à l'EXPLAIN
+            boolean masked = queries.isSensitive(queryInfo.getQuery());
+            List<String> parameters = new ArrayList<>(operations.size());
+            List<Method> setters = new ArrayList<>(operations.size());
+            List<Object[]> args = new ArrayList<>(operations.size());
+            for (ParameterSetOperation operation : operations) {
+                Object[] arguments = operation.getArgs();
+                parameters.add(arguments.length < 2 ? null : masked ? MASKED : abbreviate(String.valueOf(arguments[1])));
+                setters.add(operation.getMethod());
+                args.add(arguments);
+            }
+
+            SlowQuery query = new SlowQuery(Instant.now(), execInfo.getElapsedTime(), caller,
+                    queryInfo.getQuery(), parameters, execInfo.isBatch() ? execInfo.getBatchSize() : 0);
+            queries.record(query);
+            log.warn("Requête lente ({} ms) depuis {} : {} {}", query.getElapsedMs(), caller, query.getSql(), parameters);
+
+            if (queries.shouldExplain(query.getSql())) {
+                queries.explainAsync(query, target, setters, args);
+            }
+        }
+    }
+
+    private static String caller() {
+        return StackWalker.getInstance().walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APPLICATION_PACKAGE)
+                        && !frame.getClassName().startsWith(MONITORING_PACKAGE)
+                        && !frame.getClassName().contains("$$"))
+                .map(frame -> frame.getClassName() + "." + frame.getMethodName())
+                .findFirst()
+                .orElse("unknown"));
+    }
+
+    private static String abbreviate(String value) {
+        return value.length() <= MAX_PARAMETER_LENGTH ? value : value.substring(0, MAX_PARAMETER_LENGTH) + "…";
+    }
+}
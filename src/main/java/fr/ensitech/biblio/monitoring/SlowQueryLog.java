@@ -0,0 +1,122 @@
+package fr.ensitech.biblio.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+/**
+ * Tampon circulaire borné des dernières requêtes lentes, consultable via l'endpoint actuator {@code slowqueries}.
+ * Les EXPLAIN échantillonnés tournent sur un thread dédié, sur la datasource non instrumentée,
+ * pour ne ralentir ni la requête HTTP ni fausser les compteurs.
+ */
+public class SlowQueryLog implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final SlowQueryProperties properties;
+    private final SlowQuery[] buffer;
+    private final Pattern sensitiveTables;
+    private int next;
+    private long total;
+
+    private final ExecutorService explainExecutor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(16), runnable -> {
+                Thread thread = new Thread(runnable, "slow-query-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+    public SlowQueryLog(SlowQueryProperties properties) {
+        this.properties = properties;
+        this.buffer = new SlowQuery[Math.max(1, properties.getCapacity())];
+        List<String> tables = properties.getSensitiveTables().stream().map(Pattern::quote).toList();
+        this.sensitiveTables = tables.isEmpty() ? null
+                : Pattern.compile("\\b(" + String.join("|", tables) + ")\\b", Pattern.CASE_INSENSITIVE);
+    }
+
+    public boolean isSlow(long elapsedMs) {
+        return properties.isEnabled() && elapsedMs >= properties.getThresholdMs();
+    }
+
+    /** Requête portant sur une table sensible : ses paramètres ne sont ni conservés ni journalisés. */
+    public boolean isSensitive(String sql) {
+        return sensitiveTables != null && sensitiveTables.matcher(sql).find();
+    }
+
+    public synchronized void record(SlowQuery query) {
+        buffer[next] = query;
+        next = (next + 1) % buffer.length;
+        total++;
+    }
+
+    /** Requêtes conservées, de la plus récente à la plus ancienne. */
+    public synchronized List<SlowQuery> entries() {
+        List<SlowQuery> entries = new ArrayList<>(buffer.length);
+        for (int i = 1; i <= buffer.length; i++) {
+            SlowQuery query = buffer[Math.floorMod(next - i, buffer.length)];
+            if (query == null) {
+                break;
+            }
+            entries.add(query);
+        }
+        return entries;
+    }
+
+    /** Nombre total de requêtes lentes relevées depuis le démarrage (ou le dernier {@link #clear()}). */
+    public synchronized long total() {
+        return total;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(buffer, null);
+        next = 0;
+        total = 0;
+    }
+
+    public boolean shouldExplain(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "select", 0, 6)
+                && ThreadLocalRandom.current().nextDouble() < properties.getExplainSampleRate();
+    }
+
+    /**
+     * Lance {@code EXPLAIN} sur la requête avec les mêmes paramètres (rejoués sur le PreparedStatement).
+     */
+    public void explainAsync(SlowQuery query, DataSource dataSource, List<Method> setters, List<Object[]> args) {
+        explainExecutor.execute(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query.getSql())) {
+                for (int i = 0; i < setters.size(); i++) {
+                    setters.get(i).invoke(statement, args.get(i));
+                }
+                List<Map<String, Object>> plan = new ArrayList<>();
+                try (ResultSet rs = statement.executeQuery()) {
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    while (rs.next()) {
+                        Map<String, Object> row = new LinkedHashMap<>();
+                        for (int c = 1; c <= metaData.getColumnCount(); c++) {
+                            row.put(metaData.getColumnLabel(c), rs.getObject(c));
+                        }
+                        plan.add(row);
+                    }
+                }
+                query.setPlan(plan);
+            } catch (Exception e) {
+                log.debug("EXPLAIN impossible pour {} : {}", query.getSql(), e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        explainExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,29 @@
+package fr.ensitech.biblio.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.List;
+
+/**
+ * Journal des requêtes lentes (préfixe {@code biblio.sql.slow-query}).
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "biblio.sql.slow-query")
+public class SlowQueryProperties {
+
+    private boolean enabled = true;
+
+    // Durée d'exécution à partir de laquelle une requête est conservée (millisecondes)
+    private long thresholdMs = 200;
+
+    // Nombre de requêtes lentes conservées (les plus anciennes sont écrasées)
+    private int capacity = 200;
+
+    // Proportion des SELECT lents pour lesquels un EXPLAIN est lancé (0 = jamais, 1 = toujours)
+    private double explainSampleRate = 0.1;
+
+    // Tables dont les requêtes sont relevées sans leurs paramètres (journal, endpoint et logs)
+    private List<String> sensitiveTables = List.of("users", "password_history", "security_questions");
+}
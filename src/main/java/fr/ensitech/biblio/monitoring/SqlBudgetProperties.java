@@ -0,0 +1,27 @@
+package fr.ensitech.biblio.monitoring;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Budget de requêtes SQL par requête HTTP (préfixe {@code biblio.sql.budget}).
+ * Les budgets par endpoint sont indexés par pattern Spring MVC, ex. :
+ * {@code biblio.sql.budget.endpoints.[/api/books/all]=1}
+ */
+@Getter @Setter
+@ConfigurationProperties(prefix = "biblio.sql.budget")
+public class SqlBudgetProperties {
+
+    // Budget appliqué aux endpoints sans budget spécifique
+    private int perRequest = 10;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String pattern) {
+        return endpoints.getOrDefault(pattern, perRequest);
+    }
+}
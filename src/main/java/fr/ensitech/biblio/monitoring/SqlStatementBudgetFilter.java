@@ -0,0 +1,60 @@
+package fr.ensitech.biblio.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Compte les requêtes SQL de chaque requête HTTP, publie la métrique {@code biblio.sql.statements}
+ * (tags method / uri) et journalise un avertissement au-delà du budget de l'endpoint.
+ * Le total est aussi déposé dans l'attribut {@link #STATEMENT_COUNT_ATTRIBUTE} pour les tests MockMvc.
+ */
+public class SqlStatementBudgetFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENT_COUNT_ATTRIBUTE = SqlStatementBudgetFilter.class.getName() + ".count";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementBudgetFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final SqlBudgetProperties properties;
+
+    public SqlStatementBudgetFilter(MeterRegistry meterRegistry, SqlBudgetProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.properties = properties;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlStatementCounter.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int count = SqlStatementCounter.stop();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+
+            request.setAttribute(STATEMENT_COUNT_ATTRIBUTE, count);
+            DistributionSummary.builder("biblio.sql.statements")
+                    .description("Requêtes SQL exécutées par requête HTTP")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(count);
+
+            int budget = properties.budgetFor(uri);
+            if (count > budget) {
+                log.warn("{} {} : {} requêtes SQL pour un budget de {} (N+1 ?)", request.getMethod(), uri, count, budget);
+            }
+        }
+    }
+}
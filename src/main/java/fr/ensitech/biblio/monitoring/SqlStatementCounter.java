@@ -0,0 +1,60 @@
+package fr.ensitech.biblio.monitoring;
+
+/**
+ * Compte les requêtes SQL exécutées par le thread courant entre {@link #start()} et {@link #stop()}.
+ * Alimenté par {@link SqlStatementCountListener} ; démarré par requête HTTP
+ * ({@link SqlStatementBudgetFilter}) ou par méthode de test.
+ * Les comptages s'imbriquent : une requête MockMvc dans un test compte aussi pour le test.
+ */
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    public static void start() {
+        CURRENT.set(new Scope(CURRENT.get()));
+    }
+
+    static void increment() {
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.count++;
+        }
+    }
+
+    /** Nombre de requêtes depuis le dernier {@link #start()} ou {@link #reset()} (0 si aucun comptage en cours). */
+    public static int current() {
+        Scope scope = CURRENT.get();
+        return scope == null ? 0 : scope.count;
+    }
+
+    public static void reset() {
+        Scope scope = CURRENT.get();
+        if (scope != null) {
+            scope.count = 0;
+        }
+    }
+
+    public static int stop() {
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return 0;
+        }
+        if (scope.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope.parent);
+        }
+        return scope.count;
+    }
+
+    private static final class Scope {
+        private final Scope parent;
+        private int count;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+    }
+}
@@ -10,8 +10,19 @@ import java.util.List;
 @Repository
 public interface IAuthorRepository extends JpaRepository<Author, Long> {
 
-    List<Author> findByFirstnameIgnoreCase(String firstname);
+    // prénom normalisé par Texts.fold
+    List<Author> findByFirstnameFolded(String firstnameFolded);
+
+    // index (lastname_folded, firstname_folded) : résolution des auteurs à l'import de catalogues
+    List<Author> findByLastnameFoldedAndFirstnameFolded(String lastnameFolded, String firstnameFolded);
 
     @Query ("select a from Author a where a.firstname = ?1 and a.lastname = ?2")
     List<Author> findAuthors(String firstname, String lastName);
+
+    // lignes antérieures aux colonnes normalisées, à compléter au démarrage
+    List<Author> findTop500ByLastnameFoldedIsNull();
+
+    // chargement des index en mémoire : [id, firstname, lastname]
+    @Query("select a.id, a.firstname, a.lastname from Author a")
+    List<Object[]> findAllNames();
 }
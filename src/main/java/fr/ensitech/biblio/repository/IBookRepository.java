@@ -1,38 +1,132 @@
 package fr.ensitech.biblio.repository;
 
+import fr.ensitech.biblio.dto.BookSummary;
 import fr.ensitech.biblio.entity.Book;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface IBookRepository extends JpaRepository<Book, Long> {
+public interface IBookRepository extends JpaRepository<Book, Long>, IBookStockRepository {
+
+    // projection commune des listes : ne lit que les colonnes de BookSummary
+    String SUMMARY = "select new fr.ensitech.biblio.dto.BookSummary(b.id, b.isbn, b.title, b.editor, "
+            + "year(b.publicationDate), b.category, b.language, case when b.stock > 0 then true else false end) "
+            + "from Book b ";
 
     //lister tous les livres publiés 1
     List<Book> findByPublished(boolean published);
 
+    // les recherches sur le titre, la description et l'isbn passent par les colonnes normalisées
+    // (Texts.fold / Isbn.toIsbn13, Texts.normalizeCode pour les codes hors norme) :
+    // paramètres à normaliser de la même façon par l'appelant
+
     //chercher un livre par son titre 2
-    List<Book> findByTitleIgnoreCase(String title);
+    List<Book> findByTitleFolded(String titleFolded);
 
     //afficher tous les livres dont le titre contient une chaîne 3
-    List<Book> findByTitleContainingIgnoreCase(String title);
+    List<Book> findByTitleFoldedContaining(String titleFolded);
 
     //chercher un livre par son isbn 4
-    Book findByIsbnIgnoreCase(String isbn);
+    Book findByIsbn13(long isbn13);
+
+    Book findByIsbnNormalized(String isbnNormalized);
+
+    // même recherche, auteurs chargés dans la même requête
+    @EntityGraph(attributePaths = "authors")
+    Book findWithAuthorsByIsbn13(long isbn13);
+
+    @EntityGraph(attributePaths = "authors")
+    Book findWithAuthorsByIsbnNormalized(String isbnNormalized);
+
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findWithAuthorsByIdIn(Collection<Long> ids);
+
+    // recherche groupée, auteurs chargés dans la même requête
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findWithAuthorsByIsbn13In(Collection<Long> isbn13s);
+
+    @EntityGraph(attributePaths = "authors")
+    List<Book> findWithAuthorsByIsbnNormalizedIn(Collection<String> isbnsNormalized);
+
+    // chargement des index en mémoire : [id, title]
+    @Query("select b.id, b.title from Book b")
+    List<Object[]> findAllTitles();
+
+    // [book id, author id]
+    @Query("select b.id, a.id from Book b join b.authors a")
+    List<Object[]> findAllAuthorLinks();
+
+    @Query("select b.isbn from Book b")
+    List<String> findAllIsbns();
+
+    // [id, publicationDate]
+    @Query("select b.id, b.publicationDate from Book b where b.publicationDate is not null")
+    List<Object[]> findAllPublicationDates();
+
+    // [id, category, language, editor, published, publicationDate]
+    @Query("select b.id, b.category, b.language, b.editor, b.published, b.publicationDate from Book b")
+    List<Object[]> findAllFacetValues();
 
     //Un livre dont le titre ou la description contient un texte précis 5
-    List<Book> findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(String title, String description);
+    List<Book> findByTitleFoldedContainingOrDescriptionFoldedContaining(String titleFolded, String descriptionFolded);
 
     // Recherche tous les livres publiés entre deux dates précise 6
-    List<Book> findByPublicationDateBetween(Date startDate, Date endDate);
+    List<Book> findByPublicationDateBetween(LocalDate startDate, LocalDate endDate);
 
-    Book existsByIsbn(String isbn);
+    boolean existsByIsbn13(long isbn13);
+
+    boolean existsByIsbnNormalized(String isbnNormalized);
+
+    // ISBN déjà présents parmi une liste
+    @Query("select b.isbn13 from Book b where b.isbn13 in ?1")
+    List<Long> findExistingIsbn13s(Collection<Long> isbn13s);
+
+    @Query("select b.isbn from Book b where b.isbnNormalized in ?1")
+    List<String> findExistingIsbns(Collection<String> isbns);
 
     List<Book> findByAuthors_Id(Long authorId);
 
+    // livres d'un auteur par id croissant, à partir d'un id exclu (pagination par clé) :
+    // parcours de l'index (author_id, book_id) de book_author
+    @Query(SUMMARY + "join b.authors a where a.id = ?1 and b.id > ?2 order by b.id")
+    List<BookSummary> findSummariesByAuthorAfter(Long authorId, Long afterId, Limit limit);
+
+    // lignes antérieures aux colonnes normalisées, à compléter au démarrage
+    List<Book> findTop500ByTitleFoldedIsNull();
+
+    // parcours par id : les codes hors norme gardent un isbn13 nul
+    List<Book> findTop500ByIsbn13IsNullAndIdGreaterThanOrderById(Long afterId);
+
+
+
+    @Query(SUMMARY)
+    List<BookSummary> findAllSummaries();
+
+    @Query(SUMMARY + "where b.id in ?1")
+    List<BookSummary> findSummariesByIdIn(Collection<Long> ids);
+
+    @Query(SUMMARY + "where b.published = ?1")
+    List<BookSummary> findSummariesByPublished(boolean published);
+
+    @Query(SUMMARY + "where b.titleFolded = ?1")
+    List<BookSummary> findSummariesByTitle(String title);
+
+    @Query(SUMMARY + "where b.titleFolded like concat('%', ?1, '%')")
+    List<BookSummary> findSummariesByTitleContaining(String text);
+
+    @Query(SUMMARY + "where b.titleFolded like concat('%', ?1, '%') "
+            + "or b.descriptionFolded like concat('%', ?2, '%')")
+    List<BookSummary> findSummariesByTitleOrDescriptionContaining(String title, String description);
 
+    @Query(SUMMARY + "where b.publicationDate between ?1 and ?2")
+    List<BookSummary> findSummariesByPublicationDateBetween(LocalDate startDate, LocalDate endDate);
 
     //@Query("select b from Book b where  ")
     //List<Book> findBooksByAuthor(Author author);
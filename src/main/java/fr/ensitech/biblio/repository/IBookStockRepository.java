@@ -0,0 +1,15 @@
+package fr.ensitech.biblio.repository;
+
+import java.util.Map;
+
+/**
+ * Fragment de {@link IBookRepository} : ajustement des stocks par une seule requête UPDATE.
+ */
+public interface IBookStockRepository {
+
+    /**
+     * Ajoute à chaque livre sa variation de stock, sans descendre sous zéro ;
+     * renvoie le nombre de livres mis à jour (ids inconnus et stocks insuffisants exclus).
+     */
+    int adjustStocks(Map<Long, Integer> deltas);
+}
@@ -0,0 +1,43 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.query.criteria.JpaExpression;
+
+import java.util.Map;
+
+// update books set stock = stock + case id when ? then ? ... end
+// where id in (...) and cast(stock as bigint) + case ... between 0 and 2147483647 :
+// une seule instruction, chaque ligne verrouillée une fois, sans lecture préalable des livres.
+// Un stock qui deviendrait négatif ou dépasserait la colonne exclut la ligne (rejet comme un stock insuffisant) ;
+// le test est fait sur 64 bits pour ne pas déborder lui-même.
+// Hibernate invalide la région Book du cache de second niveau après un UPDATE en masse
+public class IBookStockRepositoryImpl implements IBookStockRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int adjustStocks(Map<Long, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Book> update = cb.createCriteriaUpdate(Book.class);
+        Root<Book> book = update.from(Book.class);
+        CriteriaBuilder.SimpleCase<Long, Integer> delta = cb.selectCase(book.<Long>get("id"));
+        deltas.forEach(delta::when);
+        delta.otherwise(0);
+        Expression<Integer> stock = cb.sum(book.<Integer>get("stock"), delta);
+        update.set(book.<Integer>get("stock"), stock);
+        Expression<Long> wideStock = cb.sum(((JpaExpression<Integer>) book.<Integer>get("stock")).cast(Long.class),
+                ((JpaExpression<Integer>) delta).cast(Long.class));
+        update.where(book.get("id").in(deltas.keySet()), cb.between(wideStock, 0L, (long) Integer.MAX_VALUE));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
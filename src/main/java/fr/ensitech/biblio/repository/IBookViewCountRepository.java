@@ -0,0 +1,9 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.BookViewCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface IBookViewCountRepository extends JpaRepository<BookViewCount, Long> {
+}
@@ -0,0 +1,15 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.CatalogChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ICatalogChangeRepository extends JpaRepository<CatalogChange, Long> {
+
+    // parcours de la clé primaire à partir de since : coût proportionnel au nombre de modifications
+    List<CatalogChange> findByVersionGreaterThanOrderByVersion(long since, Limit limit);
+}
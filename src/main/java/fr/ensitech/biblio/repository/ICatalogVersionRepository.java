@@ -0,0 +1,18 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.CatalogVersion;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ICatalogVersionRepository extends JpaRepository<CatalogVersion, Integer> {
+
+    // SELECT ... FOR UPDATE via EntityManager.find : aucune nouvelle requête si la transaction tient déjà le verrou
+    @Override
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<CatalogVersion> findById(Integer id);
+}
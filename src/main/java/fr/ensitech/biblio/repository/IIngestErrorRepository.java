@@ -0,0 +1,15 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.IngestError;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IIngestErrorRepository extends JpaRepository<IngestError, Long> {
+
+    // parcours de l'index (job_id, row_number) à partir de la ligne after
+    List<IngestError> findByJobIdAndRowNumberGreaterThanOrderByRowNumber(long jobId, long after, Limit limit);
+}
@@ -0,0 +1,18 @@
+package fr.ensitech.biblio.repository;
+
+import fr.ensitech.biblio.entity.IngestJob;
+import fr.ensitech.biblio.entity.IngestJobStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface IIngestJobRepository extends JpaRepository<IngestJob, Long> {
+
+    List<IngestJob> findByStatus(IngestJobStatus status);
+
+    List<IngestJob> findByStatusInAndStoragePathNotNullAndFinishedAtBefore(Collection<IngestJobStatus> statuses, Instant before);
+}
@@ -1,11 +1,14 @@
 package fr.ensitech.biblio.repository;
 
+import fr.ensitech.biblio.dto.BookAvailability;
 import fr.ensitech.biblio.entity.Book;
 import fr.ensitech.biblio.entity.Reservation;
 import fr.ensitech.biblio.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -18,4 +21,18 @@ public interface IReservationRepository extends JpaRepository<Reservation, Long>
     boolean existsByUserAndBookAndActiveTrue(User user, Book book);
 
     long countByBookAndActiveTrue(Book book);
+
+    // popularité des livres, toutes réservations confondues : [book id, count]
+    @Query("select r.book.id, count(r) from Reservation r group by r.book.id")
+    List<Object[]> countAllByBook();
+
+    // historique pour les recommandations : [user id, book id], un couple par livre réservé
+    @Query("select distinct r.user.id, r.book.id from Reservation r")
+    List<Object[]> findAllUserBookPairs();
+
+    // disponibilité de plusieurs livres en une seule requête groupée (livres sans réservation compris)
+    @Query("select new fr.ensitech.biblio.dto.BookAvailability(b.id, b.stock, count(r)) from Book b "
+            + "left join Reservation r on r.book = b and r.active = true "
+            + "where b.id in ?1 group by b.id, b.stock")
+    List<BookAvailability> findAvailabilityByBookIdIn(Collection<Long> bookIds);
 }
@@ -1,20 +1,24 @@
 package fr.ensitech.biblio.repository;
 
 import fr.ensitech.biblio.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface IUserRepository extends JpaRepository<User, Long> {
 
-    List<User> findByBirthdateBetween(Date startDate, Date enDate);
+    List<User> findByBirthdateBetween(LocalDate startDate, LocalDate enDate);
     User findByFirstname(String firstName);
     List<User> findByFirstnameAndLastname(String firstName, String lastName);
-    List<User> findByBirthdate(Date birthdate);
+    List<User> findByBirthdate(LocalDate birthdate);
     User findByEmail(String email);
 
+    @EntityGraph(attributePaths = "securityQuestion")
+    User findWithSecurityQuestionByEmail(String email);
+
 }
@@ -0,0 +1,124 @@
+package fr.ensitech.biblio.search;
+
+import it.unimi.dsi.fastutil.longs.Long2IntMap;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.*;
+
+/**
+ * Matrice creuse de co-occurrence livre × livre : nombre d'utilisateurs ayant réservé les deux livres.
+ * Chaque ligne est une table à clés primitives (pas de Long ni d'Integer alloués par cellule).
+ * Un utilisateur compte une seule fois par paire, quel que soit le nombre de ses réservations d'un même livre.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class CoOccurrenceMatrix {
+
+    private final Long2ObjectOpenHashMap<Long2IntOpenHashMap> rows = new Long2ObjectOpenHashMap<>();
+    private final Long2ObjectOpenHashMap<LongOpenHashSet> booksByUser = new Long2ObjectOpenHashMap<>();
+
+    public record Related(long bookId, int count) {
+    }
+
+    /**
+     * Construction en parallèle depuis l'historique (livres réservés par utilisateur) :
+     * chaque tâche remplit sa propre matrice, les matrices partielles sont ensuite additionnées.
+     */
+    public static CoOccurrenceMatrix build(Map<Long, long[]> booksByUser) {
+        return booksByUser.entrySet().parallelStream().collect(CoOccurrenceMatrix::new,
+                (matrix, entry) -> {
+                    for (long bookId : entry.getValue()) {
+                        matrix.add(entry.getKey(), bookId);
+                    }
+                },
+                CoOccurrenceMatrix::merge);
+    }
+
+    public int size() {
+        return rows.size();
+    }
+
+    /** Enregistre la réservation d'un livre par un utilisateur ; faux si ce couple était déjà compté. */
+    public boolean add(long userId, long bookId) {
+        LongOpenHashSet books = booksByUser.get(userId);
+        if (books == null) {
+            books = new LongOpenHashSet();
+            booksByUser.put(userId, books);
+        }
+        if (!books.add(bookId)) {
+            return false;
+        }
+        LongIterator others = books.iterator();
+        while (others.hasNext()) {
+            long other = others.nextLong();
+            if (other != bookId) {
+                increment(bookId, other, 1);
+                increment(other, bookId, 1);
+            }
+        }
+        return true;
+    }
+
+    /** Retire un livre supprimé du catalogue : sa ligne, sa colonne et les historiques. */
+    public void removeBook(long bookId) {
+        Long2IntOpenHashMap row = rows.remove(bookId);
+        if (row != null) {
+            LongIterator others = row.keySet().iterator();
+            while (others.hasNext()) {
+                long other = others.nextLong();
+                Long2IntOpenHashMap otherRow = rows.get(other);
+                otherRow.remove(bookId);
+                if (otherRow.isEmpty()) {
+                    rows.remove(other);
+                }
+            }
+        }
+        for (LongOpenHashSet books : booksByUser.values()) {
+            books.remove(bookId);
+        }
+    }
+
+    /** Les {@code limit} livres le plus souvent réservés avec celui-ci, par nombre décroissant puis id. */
+    public List<Related> top(long bookId, int limit) {
+        Long2IntOpenHashMap row = rows.get(bookId);
+        if (row == null || limit <= 0) {
+            return List.of();
+        }
+        Comparator<Related> order = Comparator.comparingInt(Related::count).reversed()
+                .thenComparingLong(Related::bookId);
+        // tas borné : le moins bon candidat retenu est en tête
+        PriorityQueue<Related> best = new PriorityQueue<>(limit + 1, order.reversed());
+        for (Long2IntMap.Entry cell : row.long2IntEntrySet()) {
+            best.add(new Related(cell.getLongKey(), cell.getIntValue()));
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<Related> related = new ArrayList<>(best);
+        related.sort(order);
+        return related;
+    }
+
+    // les historiques des deux matrices portent sur des utilisateurs distincts
+    private void merge(CoOccurrenceMatrix other) {
+        for (Long2ObjectMap.Entry<Long2IntOpenHashMap> row : other.rows.long2ObjectEntrySet()) {
+            long bookId = row.getLongKey();
+            for (Long2IntMap.Entry cell : row.getValue().long2IntEntrySet()) {
+                increment(bookId, cell.getLongKey(), cell.getIntValue());
+            }
+        }
+        booksByUser.putAll(other.booksByUser);
+    }
+
+    private void increment(long bookId, long other, int delta) {
+        Long2IntOpenHashMap row = rows.get(bookId);
+        if (row == null) {
+            row = new Long2IntOpenHashMap();
+            rows.put(bookId, row);
+        }
+        row.addTo(other, delta);
+    }
+}
@@ -0,0 +1,79 @@
+package fr.ensitech.biblio.search;
+
+import java.util.Arrays;
+
+/**
+ * Sketch count-min : compteurs approchés par clé dans une empreinte fixe ({@code depth} × {@code width} entiers),
+ * quel que soit le nombre de clés distinctes. L'estimation ne sous-estime jamais ; elle surestime d'au plus
+ * e / width × (somme des poids) avec une probabilité 1 - e^-depth.
+ * Le sketch est linéaire : {@link #subtract(CountMinSketch)} retire exactement ce qu'un autre sketch de même forme a compté.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final int[] counts;
+
+    /** {@code width} est arrondie à la puissance de deux supérieure. */
+    public CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("width and depth must be > 0");
+        }
+        int rounded = Integer.highestOneBit(width) == width ? width : Integer.highestOneBit(width) << 1;
+        this.depth = depth;
+        this.mask = rounded - 1;
+        this.counts = new int[rounded * depth];
+    }
+
+    /** Ajoute {@code delta} au compteur de la clé et renvoie la nouvelle estimation. */
+    public int add(long key, int delta) {
+        long hash = mix(key);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            int cell = cell(row, hash);
+            counts[cell] += delta;
+            min = Math.min(min, counts[cell]);
+        }
+        return min;
+    }
+
+    public int estimate(long key) {
+        long hash = mix(key);
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counts[cell(row, hash)]);
+        }
+        return min;
+    }
+
+    public void subtract(CountMinSketch other) {
+        if (other.counts.length != counts.length || other.depth != depth) {
+            throw new IllegalArgumentException("sketches must have the same shape");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] -= other.counts[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    // double hachage : la ligne i utilise h1 + i × h2, deux moitiés d'un même hachage 64 bits
+    private int cell(int row, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * (mask + 1) + ((h1 + row * h2) & mask);
+    }
+
+    // finaliseur de MurmurHash3 : les ids séquentiels sont bien dispersés
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
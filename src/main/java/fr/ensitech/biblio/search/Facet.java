@@ -0,0 +1,21 @@
+package fr.ensitech.biblio.search;
+
+import java.time.LocalDate;
+import java.util.Locale;
+
+/**
+ * Dimensions de navigation du catalogue. La clé (nom en minuscules) sert de paramètre de requête
+ * et de clé dans les compteurs renvoyés.
+ */
+public enum Facet {
+    CATEGORY, LANGUAGE, EDITOR, PUBLISHED, DECADE;
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    // décennie d'une date de publication : 1987 → "1980"
+    public static String decade(LocalDate date) {
+        return date == null ? null : String.valueOf(Math.floorDiv(date.getYear(), 10) * 10);
+    }
+}
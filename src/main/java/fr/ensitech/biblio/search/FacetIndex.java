@@ -0,0 +1,108 @@
+package fr.ensitech.biblio.search;
+
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+
+/**
+ * Index de facettes : pour chaque valeur de facette, l'ensemble (bitmap Roaring) des identifiants de livres.
+ * Les compteurs sont les cardinalités des bitmaps, donc à jour à chaque ajout ou retrait.
+ * Filtres : valeurs d'une même facette combinées en OU, facettes différentes en ET.
+ * Les identifiants doivent tenir sur un int. Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class FacetIndex {
+
+    private final Map<Facet, Map<String, RoaringBitmap>> postings = new EnumMap<>(Facet.class);
+    private final Map<Integer, Map<Facet, String>> valuesById = new HashMap<>();
+    private final RoaringBitmap all = new RoaringBitmap();
+
+    public FacetIndex() {
+        for (Facet facet : Facet.values()) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+
+    public int size() {
+        return all.getCardinality();
+    }
+
+    /** Indexe (ou réindexe) un livre sous ses valeurs de facettes ; une valeur nulle n'est pas indexée. */
+    public void put(long id, Map<Facet, String> values) {
+        int key = Math.toIntExact(id);
+        remove(key);
+        Map<Facet, String> kept = new EnumMap<>(Facet.class);
+        values.forEach((facet, value) -> {
+            if (value != null) {
+                kept.put(facet, value);
+                postings.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(key);
+            }
+        });
+        valuesById.put(key, kept);
+        all.add(key);
+    }
+
+    public void remove(long id) {
+        int key = Math.toIntExact(id);
+        Map<Facet, String> values = valuesById.remove(key);
+        if (values == null) {
+            return;
+        }
+        values.forEach((facet, value) -> {
+            Map<String, RoaringBitmap> byValue = postings.get(facet);
+            RoaringBitmap ids = byValue.get(value);
+            ids.remove(key);
+            if (ids.isEmpty()) {
+                byValue.remove(value);
+            }
+        });
+        all.remove(key);
+    }
+
+    /** Identifiants des livres satisfaisant tous les filtres (aucun filtre : tout le catalogue). */
+    public RoaringBitmap match(Map<Facet, ? extends Collection<String>> filters) {
+        return matchExcept(filters, null);
+    }
+
+    /**
+     * Compteurs par facette et par valeur, triés par effectif décroissant. Les compteurs d'une facette
+     * ignorent le filtre posé sur cette facette même, pour montrer les autres choix possibles.
+     */
+    public Map<Facet, Map<String, Integer>> counts(Map<Facet, ? extends Collection<String>> filters) {
+        Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+        RoaringBitmap matchingAll = match(filters);
+        for (Facet facet : Facet.values()) {
+            RoaringBitmap scope = filters.containsKey(facet) ? matchExcept(filters, facet) : matchingAll;
+            boolean unfiltered = scope.getCardinality() == all.getCardinality();
+            List<Map.Entry<String, Integer>> entries = new ArrayList<>();
+            postings.get(facet).forEach((value, ids) -> {
+                int count = unfiltered ? ids.getCardinality() : RoaringBitmap.andCardinality(ids, scope);
+                if (count > 0) {
+                    entries.add(Map.entry(value, count));
+                }
+            });
+            entries.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            entries.forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            counts.put(facet, sorted);
+        }
+        return counts;
+    }
+
+    private RoaringBitmap matchExcept(Map<Facet, ? extends Collection<String>> filters, Facet excluded) {
+        RoaringBitmap result = all.clone();
+        filters.forEach((facet, values) -> {
+            if (facet == excluded) {
+                return;
+            }
+            RoaringBitmap union = new RoaringBitmap();
+            for (String value : values) {
+                RoaringBitmap ids = postings.get(facet).get(value);
+                if (ids != null) {
+                    union.or(ids);
+                }
+            }
+            result.and(union);
+        });
+        return result;
+    }
+}
@@ -0,0 +1,112 @@
+package fr.ensitech.biblio.search;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Index trié des livres par date de publication, dans un seul tableau de long :
+ * clé = jour depuis l'epoch × 2^32 + id, de sorte que l'ordre des clés est celui des dates, puis des ids.
+ * Compter ou paginer un intervalle de dates revient à deux recherches dichotomiques.
+ * Les livres sans date ne sont pas indexés ; les ids doivent tenir sur 32 bits.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class PublicationDateIndex {
+
+    private static final long ID_MASK = 0xFFFFFFFFL;
+
+    private long[] keys;
+    private int size;
+
+    public PublicationDateIndex() {
+        keys = new long[16];
+    }
+
+    public static PublicationDateIndex of(Map<Long, LocalDate> datesById) {
+        PublicationDateIndex index = new PublicationDateIndex();
+        index.keys = new long[Math.max(16, datesById.size())];
+        datesById.forEach((id, date) -> {
+            if (date != null) {
+                index.keys[index.size++] = key(date.toEpochDay(), id);
+            }
+        });
+        Arrays.sort(index.keys, 0, index.size);
+        return index;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** Indexe (ou déplace) un livre à sa date de publication ; une date nulle le retire de l'index. */
+    public void put(long id, LocalDate date) {
+        remove(id);
+        if (date == null) {
+            return;
+        }
+        long key = key(date.toEpochDay(), id);
+        int position = -Arrays.binarySearch(keys, 0, size, key) - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+        }
+        System.arraycopy(keys, position, keys, position + 1, size - position);
+        keys[position] = key;
+        size++;
+    }
+
+    // parcours linéaire : l'ancienne date n'est pas connue, les écritures sont rares devant les lectures
+    public void remove(long id) {
+        for (int i = 0; i < size; i++) {
+            if ((keys[i] & ID_MASK) == id) {
+                System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+
+    /** Nombre de livres publiés entre deux dates incluses. */
+    public int count(LocalDate from, LocalDate to) {
+        return Math.max(0, lowerBound(to.toEpochDay() + 1) - lowerBound(from.toEpochDay()));
+    }
+
+    /** Ids des livres publiés entre deux dates incluses, par date puis id, à partir du rang {@code offset}. */
+    public long[] ids(LocalDate from, LocalDate to, int offset, int limit) {
+        int start = lowerBound(from.toEpochDay()) + offset;
+        int end = Math.min(lowerBound(to.toEpochDay() + 1), start + limit);
+        if (start >= end) {
+            return new long[0];
+        }
+        long[] ids = new long[end - start];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = keys[start + i] & ID_MASK;
+        }
+        return ids;
+    }
+
+    /** Nombre de livres publiés chaque année de {@code startYear} à {@code endYear} inclus. */
+    public int[] countsByYear(int startYear, int endYear) {
+        int[] counts = new int[endYear - startYear + 1];
+        int previous = lowerBound(LocalDate.of(startYear, 1, 1).toEpochDay());
+        for (int year = startYear; year <= endYear; year++) {
+            int next = lowerBound(LocalDate.of(year + 1, 1, 1).toEpochDay());
+            counts[year - startYear] = next - previous;
+            previous = next;
+        }
+        return counts;
+    }
+
+    // position de la première clé dont le jour est >= epochDay
+    private int lowerBound(long epochDay) {
+        long key = key(epochDay, 0);
+        int position = Arrays.binarySearch(keys, 0, size, key);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    private static long key(long epochDay, long id) {
+        if (id < 0 || id > ID_MASK) {
+            throw new IllegalArgumentException("id out of range: " + id);
+        }
+        return (epochDay << 32) + id;
+    }
+}
@@ -0,0 +1,274 @@
+package fr.ensitech.biblio.search;
+
+import java.util.*;
+
+/**
+ * Trie compressé (radix) associant des entrées classées par score à des clés textuelles.
+ * Chaque nœud garde le meilleur score de son sous-arbre : la recherche des k meilleures complétions
+ * d'un préfixe parcourt les nœuds par score décroissant et s'arrête dès que k entrées sont trouvées,
+ * sans énumérer tout le sous-arbre.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class RadixTrie<E extends RadixTrie.Scored> {
+
+    public interface Scored {
+        long score();
+    }
+
+    private static final long NO_SCORE = -1;
+
+    private final Node<E> root = new Node<>("", null);
+    private int size;
+
+    /** Nombre de couples (clé, entrée) indexés. */
+    public int size() {
+        return size;
+    }
+
+    public void add(String key, E entry) {
+        Node<E> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<E> child = node.child(key.charAt(i));
+            if (child == null) {
+                child = new Node<>(key.substring(i), node);
+                node.addChild(child);
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, key, i);
+            if (common < child.label.length()) {
+                // découpe de l'arête : le nœud intermédiaire reprend le préfixe commun
+                Node<E> middle = new Node<>(child.label.substring(0, common), node);
+                node.replaceChild(child, middle);
+                child.label = child.label.substring(common);
+                child.parent = middle;
+                middle.addChild(child);
+                middle.maxScore = child.maxScore;
+                child = middle;
+            }
+            node = child;
+            i += common;
+        }
+        if (node.entries == null) {
+            node.entries = new ArrayList<>(1);
+        }
+        node.entries.add(entry);
+        size++;
+        refreshScores(node);
+    }
+
+    public boolean remove(String key, E entry) {
+        Node<E> node = find(key, true);
+        if (node == null || node.entries == null || !removeIdentity(node.entries, entry)) {
+            return false;
+        }
+        size--;
+        if (node.entries.isEmpty()) {
+            node.entries = null;
+        }
+        refreshScores(compact(node));
+        return true;
+    }
+
+    /** À appeler quand le score d'une entrée indexée sous {@code key} a changé. */
+    public void scoreChanged(String key) {
+        Node<E> node = find(key, true);
+        if (node != null) {
+            refreshScores(node);
+        }
+    }
+
+    /**
+     * Les {@code limit} entrées de meilleur score dont une clé commence par {@code prefix}
+     * (une entrée indexée sous plusieurs clés n'est renvoyée qu'une fois).
+     * À score égal, les complétions les plus courtes passent en premier.
+     */
+    public List<E> top(String prefix, int limit) {
+        Node<E> start = find(prefix, false);
+        if (start == null || limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<Candidate<E>> queue = new PriorityQueue<>();
+        queue.add(new Candidate<>(start.maxScore, depthOf(start), start, null));
+        List<E> result = new ArrayList<>(limit);
+        Set<E> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        while (!queue.isEmpty() && result.size() < limit) {
+            Candidate<E> candidate = queue.poll();
+            if (candidate.entry != null) {
+                if (seen.add(candidate.entry)) {
+                    result.add(candidate.entry);
+                }
+                continue;
+            }
+            Node<E> node = candidate.node;
+            if (node.entries != null) {
+                for (E entry : node.entries) {
+                    queue.add(new Candidate<>(entry.score(), candidate.depth, null, entry));
+                }
+            }
+            for (Node<E> child : node.children) {
+                queue.add(new Candidate<>(child.maxScore, candidate.depth + child.label.length(), child, null));
+            }
+        }
+        return result;
+    }
+
+    // exact : le nœud doit correspondre exactement à la clé ; sinon premier nœud couvrant le préfixe
+    private Node<E> find(String key, boolean exact) {
+        Node<E> node = root;
+        int i = 0;
+        while (i < key.length()) {
+            Node<E> child = node.child(key.charAt(i));
+            if (child == null) {
+                return null;
+            }
+            int remaining = key.length() - i;
+            if (child.label.length() > remaining) {
+                return !exact && child.label.startsWith(key.substring(i)) ? child : null;
+            }
+            if (!key.startsWith(child.label, i)) {
+                return null;
+            }
+            node = child;
+            i += child.label.length();
+        }
+        return node;
+    }
+
+    // supprime ou fusionne les nœuds devenus inutiles ; renvoie le nœud à partir duquel recalculer les scores
+    private Node<E> compact(Node<E> node) {
+        if (node == root || node.entries != null) {
+            return node;
+        }
+        if (node.children.isEmpty()) {
+            Node<E> parent = node.parent;
+            parent.removeChild(node);
+            if (parent != root && parent.entries == null && parent.children.size() == 1) {
+                mergeWithOnlyChild(parent);
+            }
+            return parent;
+        }
+        if (node.children.size() == 1) {
+            mergeWithOnlyChild(node);
+        }
+        return node;
+    }
+
+    private void mergeWithOnlyChild(Node<E> node) {
+        Node<E> child = node.children.get(0);
+        node.label = node.label + child.label;
+        node.entries = child.entries;
+        node.children = child.children;
+        for (Node<E> grandChild : node.children) {
+            grandChild.parent = node;
+        }
+    }
+
+    private void refreshScores(Node<E> node) {
+        for (Node<E> current = node; current != null; current = current.parent) {
+            long max = NO_SCORE;
+            if (current.entries != null) {
+                for (E entry : current.entries) {
+                    max = Math.max(max, entry.score());
+                }
+            }
+            for (Node<E> child : current.children) {
+                max = Math.max(max, child.maxScore);
+            }
+            current.maxScore = max;
+        }
+    }
+
+    private static int depthOf(Node<?> node) {
+        int depth = 0;
+        for (Node<?> current = node; current != null; current = current.parent) {
+            depth += current.label.length();
+        }
+        return depth;
+    }
+
+    private static int commonPrefixLength(String label, String key, int offset) {
+        int max = Math.min(label.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static <E> boolean removeIdentity(List<E> entries, E entry) {
+        for (int i = 0; i < entries.size(); i++) {
+            if (entries.get(i) == entry) {
+                entries.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Node<E> {
+        private String label;
+        private Node<E> parent;
+        // enfants triés par premier caractère de leur étiquette
+        private List<Node<E>> children = new ArrayList<>(0);
+        private List<E> entries;
+        private long maxScore = NO_SCORE;
+
+        private Node(String label, Node<E> parent) {
+            this.label = label;
+            this.parent = parent;
+        }
+
+        private int indexOf(char c) {
+            int low = 0;
+            int high = children.size() - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char midChar = children.get(mid).label.charAt(0);
+                if (midChar < c) {
+                    low = mid + 1;
+                } else if (midChar > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        private Node<E> child(char c) {
+            int index = indexOf(c);
+            return index < 0 ? null : children.get(index);
+        }
+
+        private void addChild(Node<E> child) {
+            children.add(-(indexOf(child.label.charAt(0)) + 1), child);
+        }
+
+        private void replaceChild(Node<E> oldChild, Node<E> newChild) {
+            children.set(indexOf(oldChild.label.charAt(0)), newChild);
+        }
+
+        private void removeChild(Node<E> child) {
+            children.remove(indexOf(child.label.charAt(0)));
+        }
+    }
+
+    // file de priorité : score décroissant, puis complétion la plus courte, puis entrées avant nœuds
+    private record Candidate<E>(long score, int depth, Node<E> node, E entry) implements Comparable<Candidate<E>> {
+
+        @Override
+        public int compareTo(Candidate<E> other) {
+            int byScore = Long.compare(other.score, score);
+            if (byScore != 0) {
+                return byScore;
+            }
+            int byDepth = Integer.compare(depth, other.depth);
+            if (byDepth != 0) {
+                return byDepth;
+            }
+            return Boolean.compare(other.entry != null, entry != null);
+        }
+    }
+}
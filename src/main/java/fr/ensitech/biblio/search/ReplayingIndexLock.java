@@ -0,0 +1,78 @@
+package fr.ensitech.biblio.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Verrou lecture/écriture d'un index en mémoire reconstruit depuis la base et tenu à jour par événements.
+ * La lecture en base d'une reconstruction se fait hors verrou ; les événements reçus pendant ce temps sont
+ * appliqués à l'ancien index et mémorisés, puis rejoués sur le nouveau une fois installé.
+ * Rejouer un événement déjà vu par la lecture en base doit donc être sans effet pour {@code apply}.
+ */
+public class ReplayingIndexLock<E> {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Consumer<E> apply;
+    // null hors reconstruction
+    private List<E> receivedDuringRebuild;
+
+    /**
+     * @param apply mise à jour de l'index par un événement, toujours appelée sous le verrou d'écriture
+     */
+    public ReplayingIndexLock(Consumer<E> apply) {
+        this.apply = apply;
+    }
+
+    /**
+     * Reconstruit l'index : {@code load} lit la base hors verrou, {@code install} remplace l'index
+     * sous le verrou d'écriture, juste avant le rejeu des événements reçus entre-temps.
+     */
+    public synchronized <T> void rebuild(Supplier<T> load, Consumer<T> install) {
+        lock.writeLock().lock();
+        try {
+            receivedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        T loaded;
+        try {
+            loaded = load.get();
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                receivedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            install.accept(loaded);
+            receivedDuringRebuild.forEach(apply);
+        } finally {
+            receivedDuringRebuild = null;
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void receive(E event) {
+        lock.writeLock().lock();
+        try {
+            if (receivedDuringRebuild != null) {
+                receivedDuringRebuild.add(event);
+            }
+            apply.accept(event);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Lock readLock() {
+        return lock.readLock();
+    }
+}
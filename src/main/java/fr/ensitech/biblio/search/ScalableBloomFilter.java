@@ -0,0 +1,121 @@
+package fr.ensitech.biblio.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Filtre de Bloom extensible sur des clés long : « absent » est certain, « peut-être présent » ne l'est pas.
+ * Quand l'étage courant atteint sa capacité, un nouvel étage deux fois plus grand est ajouté, avec un taux
+ * de faux positifs divisé par deux : le taux global reste borné par 2 × {@code falsePositiveRate}
+ * quel que soit le nombre de clés. Pas de suppression : une clé retirée reste un faux positif jusqu'à reconstruction.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class ScalableBloomFilter {
+
+    private static final int GROWTH = 2;
+    private static final double TIGHTENING = 0.5;
+
+    private final List<Stage> stages = new ArrayList<>();
+    private long size;
+
+    public ScalableBloomFilter(int initialCapacity, double falsePositiveRate) {
+        if (initialCapacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("initialCapacity must be > 0 and falsePositiveRate in ]0, 1[");
+        }
+        stages.add(new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING)));
+    }
+
+    /** Nombre de clés ajoutées (hors clés déjà signalées présentes). */
+    public long size() {
+        return size;
+    }
+
+    public long bitSize() {
+        long bits = 0;
+        for (Stage stage : stages) {
+            bits += stage.bitCount;
+        }
+        return bits;
+    }
+
+    public void add(long key) {
+        long hash = mix(key);
+        if (containsHash(hash)) {
+            return;
+        }
+        Stage last = stages.get(stages.size() - 1);
+        if (last.count >= last.capacity) {
+            last = new Stage((int) Math.min(Integer.MAX_VALUE, (long) last.capacity * GROWTH),
+                    last.falsePositiveRate * TIGHTENING);
+            stages.add(last);
+        }
+        last.put(hash);
+        size++;
+    }
+
+    public boolean mightContain(long key) {
+        return containsHash(mix(key));
+    }
+
+    private boolean containsHash(long hash) {
+        for (Stage stage : stages) {
+            if (stage.contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // finaliseur de MurmurHash3 : les ISBN consécutifs sont bien dispersés
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static final class Stage {
+
+        private final int capacity;
+        private final double falsePositiveRate;
+        private final long bitCount;
+        private final int hashes;
+        private final long[] words;
+        private int count;
+
+        // m = -n ln p / (ln 2)², k = m / n × ln 2
+        Stage(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new long[(int) ((Math.max(64, bits) + 63) >>> 6)];
+            this.bitCount = (long) words.length << 6;
+            this.hashes = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        // double hachage : la position i vaut h1 + i × h2, deux moitiés d'un même hachage 64 bits
+        void put(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                words[(int) (bit >>> 6)] |= 1L << bit;
+            }
+            count++;
+        }
+
+        boolean contains(long hash) {
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < hashes; i++) {
+                long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+                if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package fr.ensitech.biblio.search;
+
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Clés les plus fréquentes sur une fenêtre glissante, en mémoire bornée.
+ * La fenêtre est découpée en {@code bucketCount} tranches de {@code bucketMillis} : un sketch count-min par tranche,
+ * plus leur somme pour la fenêtre entière. À chaque rotation la tranche expirée est soustraite de la somme puis vidée.
+ * Les {@code capacity} meilleures clés sont suivies dans un tas-min indexé : une clé absente n'y entre qu'en
+ * dépassant la plus faible, et les estimations sont recalculées à chaque rotation.
+ * La fenêtre couvre entre {@code bucketCount - 1} et {@code bucketCount} tranches selon l'avancement de la tranche courante.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class SlidingTopK {
+
+    public record Entry(long key, int count) {
+    }
+
+    private final CountMinSketch[] buckets;
+    private final CountMinSketch window;
+    private final long bucketMillis;
+    private long currentBucket = Long.MIN_VALUE;
+
+    private final long[] heapKeys;
+    private final int[] heapCounts;
+    private int heapSize;
+    private final Long2IntOpenHashMap positions = new Long2IntOpenHashMap();
+
+    public SlidingTopK(int bucketCount, long bucketMillis, int width, int depth, int capacity) {
+        if (bucketCount <= 0 || bucketMillis <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("bucketCount, bucketMillis and capacity must be > 0");
+        }
+        this.buckets = new CountMinSketch[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new CountMinSketch(width, depth);
+        }
+        this.window = new CountMinSketch(width, depth);
+        this.bucketMillis = bucketMillis;
+        this.heapKeys = new long[capacity];
+        this.heapCounts = new int[capacity];
+        positions.defaultReturnValue(-1);
+    }
+
+    public int size() {
+        return heapSize;
+    }
+
+    public void add(long key, int weight, long nowMillis) {
+        advance(nowMillis);
+        buckets[slot(currentBucket)].add(key, weight);
+        int estimate = window.add(key, weight);
+        int position = positions.get(key);
+        if (position >= 0) {
+            heapCounts[position] = estimate;
+            siftDown(position);
+        } else if (heapSize < heapKeys.length) {
+            set(heapSize, key, estimate);
+            siftUp(heapSize++);
+        } else if (estimate > heapCounts[0]) {
+            positions.remove(heapKeys[0]);
+            set(0, key, estimate);
+            siftDown(0);
+        }
+    }
+
+    /** Les {@code limit} clés les plus fréquentes de la fenêtre, par estimation décroissante puis clé. */
+    public List<Entry> top(int limit, long nowMillis) {
+        advance(nowMillis);
+        List<Entry> entries = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            entries.add(new Entry(heapKeys[i], heapCounts[i]));
+        }
+        entries.sort(Comparator.comparingInt(Entry::count).reversed().thenComparingLong(Entry::key));
+        return entries.size() > limit ? entries.subList(0, limit) : entries;
+    }
+
+    /** Retire une clé des candidats (livre supprimé) ; son compte reste dans les sketches jusqu'à expiration. */
+    public void remove(long key) {
+        int position = positions.remove(key);
+        if (position < 0) {
+            return;
+        }
+        heapSize--;
+        if (position < heapSize) {
+            set(position, heapKeys[heapSize], heapCounts[heapSize]);
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    private void advance(long nowMillis) {
+        long bucket = Math.floorDiv(nowMillis, bucketMillis);
+        if (currentBucket == Long.MIN_VALUE) {
+            currentBucket = bucket;
+            return;
+        }
+        if (bucket <= currentBucket) {
+            return;
+        }
+        long expired = Math.min(bucket - currentBucket, buckets.length);
+        for (long b = bucket - expired + 1; b <= bucket; b++) {
+            CountMinSketch sketch = buckets[slot(b)];
+            window.subtract(sketch);
+            sketch.clear();
+        }
+        currentBucket = bucket;
+        refresh();
+    }
+
+    // nouvelles estimations des candidats ; ceux retombés à zéro sortent du tas
+    private void refresh() {
+        int kept = 0;
+        positions.clear();
+        for (int i = 0; i < heapSize; i++) {
+            int estimate = window.estimate(heapKeys[i]);
+            if (estimate > 0) {
+                set(kept++, heapKeys[i], estimate);
+            }
+        }
+        heapSize = kept;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private int slot(long bucket) {
+        return (int) Math.floorMod(bucket, (long) buckets.length);
+    }
+
+    private void set(int position, long key, int count) {
+        heapKeys[position] = key;
+        heapCounts[position] = count;
+        positions.put(key, position);
+    }
+
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (heapCounts[parent] <= heapCounts[position]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < heapSize && heapCounts[left] < heapCounts[smallest]) {
+                smallest = left;
+            }
+            if (right < heapSize && heapCounts[right] < heapCounts[smallest]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long key = heapKeys[a];
+        int count = heapCounts[a];
+        set(a, heapKeys[b], heapCounts[b]);
+        set(b, key, count);
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ensitech.biblio.search;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Fenêtres des livres en vogue : découpage en tranches qui fixe la granularité du glissement.
+ */
+public enum TrendingPeriod {
+    HOUR(12, Duration.ofMinutes(5)),
+    DAY(24, Duration.ofHours(1));
+
+    private final int buckets;
+    private final Duration bucketLength;
+
+    TrendingPeriod(int buckets, Duration bucketLength) {
+        this.buckets = buckets;
+        this.bucketLength = bucketLength;
+    }
+
+    public int buckets() {
+        return buckets;
+    }
+
+    public Duration bucketLength() {
+        return bucketLength;
+    }
+
+    public String key() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    public static TrendingPeriod of(String key) {
+        for (TrendingPeriod period : values()) {
+            if (period.key().equalsIgnoreCase(key)) {
+                return period;
+            }
+        }
+        throw new IllegalArgumentException("Unknown trending period: " + key);
+    }
+}
@@ -0,0 +1,157 @@
+package fr.ensitech.biblio.search;
+
+import java.util.*;
+
+/**
+ * Index de trigrammes sur les mots de textes normalisés, pour une recherche tolérante aux fautes de frappe.
+ * Chaque mot de la requête est rapproché des mots du vocabulaire partageant assez de trigrammes
+ * (une faute détruit au plus 4 trigrammes, inversion comprise), puis vérifié par {@link EditDistance} ;
+ * les entrées sont classées par similarité moyenne des mots de la requête.
+ * Non thread-safe : la synchronisation est à la charge de l'appelant.
+ */
+public class TrigramIndex<E> {
+
+    private final Map<String, Term<E>> vocabulary = new HashMap<>();
+    private final Map<String, Set<Term<E>>> postings = new HashMap<>();
+    private final Map<E, Set<String>> wordsByEntry = new IdentityHashMap<>();
+
+    public record Match<E>(E entry, double similarity) {
+    }
+
+    public int vocabularySize() {
+        return vocabulary.size();
+    }
+
+    /** Indexe (ou réindexe) une entrée sous les mots d'un texte déjà normalisé. */
+    public void add(E entry, String folded) {
+        remove(entry);
+        Set<String> words = new HashSet<>(Arrays.asList(folded.split(" ")));
+        words.remove("");
+        wordsByEntry.put(entry, words);
+        for (String word : words) {
+            vocabulary.computeIfAbsent(word, this::newTerm).entries.add(entry);
+        }
+    }
+
+    public void remove(E entry) {
+        Set<String> words = wordsByEntry.remove(entry);
+        if (words == null) {
+            return;
+        }
+        for (String word : words) {
+            Term<E> term = vocabulary.get(word);
+            term.entries.remove(entry);
+            if (term.entries.isEmpty()) {
+                vocabulary.remove(word);
+                for (String trigram : term.trigrams) {
+                    Set<Term<E>> terms = postings.get(trigram);
+                    terms.remove(term);
+                    if (terms.isEmpty()) {
+                        postings.remove(trigram);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Entrées dont les mots ressemblent à ceux de la requête normalisée, par similarité décroissante.
+     * Similarité d'un mot : 1 - distance / longueur ; celle d'une entrée est la moyenne sur les mots de la requête.
+     */
+    public List<Match<E>> search(String foldedQuery, int limit) {
+        List<String> queryWords = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(foldedQuery.split(" "))));
+        queryWords.remove("");
+        if (queryWords.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        Map<E, Double> scores = new IdentityHashMap<>();
+        for (String word : queryWords) {
+            Map<E, Double> best = new IdentityHashMap<>();
+            for (Map.Entry<Term<E>, Integer> distance : similarTerms(word).entrySet()) {
+                Term<E> term = distance.getKey();
+                double similarity = 1.0 - (double) distance.getValue() / Math.max(word.length(), term.word.length());
+                for (E entry : term.entries) {
+                    best.merge(entry, similarity, Math::max);
+                }
+            }
+            best.forEach((entry, similarity) -> scores.merge(entry, similarity, Double::sum));
+        }
+
+        List<Match<E>> matches = new ArrayList<>(scores.size());
+        scores.forEach((entry, score) -> matches.add(new Match<>(entry, score / queryWords.size())));
+        matches.sort(Comparator.comparingDouble((Match<E> match) -> match.similarity).reversed());
+        return matches.size() > limit ? new ArrayList<>(matches.subList(0, limit)) : matches;
+    }
+
+    // mots du vocabulaire à distance bornée du mot recherché, avec leur distance
+    private Map<Term<E>, Integer> similarTerms(String word) {
+        int maxEdits = maxEdits(word);
+        Map<Term<E>, Integer> result = new HashMap<>();
+        Term<E> exact = vocabulary.get(word);
+        if (exact != null) {
+            result.put(exact, 0);
+        }
+        if (maxEdits == 0) {
+            return result;
+        }
+
+        List<String> trigrams = trigrams(word);
+        Map<Term<E>, Integer> shared = new HashMap<>();
+        for (String trigram : trigrams) {
+            for (Term<E> term : postings.getOrDefault(trigram, Set.of())) {
+                shared.merge(term, 1, Integer::sum);
+            }
+        }
+        // filtre par comptage : à distance k, au moins |trigrammes| - 4k trigrammes restent communs
+        int minShared = Math.max(1, trigrams.size() - 4 * maxEdits);
+        for (Map.Entry<Term<E>, Integer> candidate : shared.entrySet()) {
+            Term<E> term = candidate.getKey();
+            if (candidate.getValue() < minShared || term == exact) {
+                continue;
+            }
+            int distance = EditDistance.bounded(word, term.word, maxEdits);
+            if (distance <= maxEdits) {
+                result.put(term, distance);
+            }
+        }
+        return result;
+    }
+
+    // pas de tolérance sur les mots très courts : trop de faux positifs
+    static int maxEdits(String word) {
+        if (word.length() <= 3) {
+            return 0;
+        }
+        return word.length() <= 6 ? 1 : 2;
+    }
+
+    // trigrammes du mot encadré ("java" → "$ja", "jav", "ava", "va$")
+    static List<String> trigrams(String word) {
+        String padded = "$" + word + "$";
+        List<String> trigrams = new ArrayList<>(Math.max(1, padded.length() - 2));
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+
+    private Term<E> newTerm(String word) {
+        Term<E> term = new Term<>(word, new HashSet<>(trigrams(word)));
+        for (String trigram : term.trigrams) {
+            postings.computeIfAbsent(trigram, key -> new HashSet<>()).add(term);
+        }
+        return term;
+    }
+
+    private static final class Term<E> {
+        private final String word;
+        private final Set<String> trigrams;
+        private final Set<E> entries = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        private Term(String word, Set<String> trigrams) {
+            this.word = word;
+            this.trigrams = trigrams;
+        }
+    }
+}
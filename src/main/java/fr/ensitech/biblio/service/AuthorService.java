@@ -1,9 +1,14 @@
 package fr.ensitech.biblio.service;
 
 import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
 import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.utils.Texts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -13,18 +18,26 @@ public class AuthorService implements IAuthorService {
     @Autowired
     private IAuthorRepository authorRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
 
     @Override
+    @Transactional(readOnly = true)
     public List<Author> getAuthors(String firstname, String lastname) throws Exception {
         return authorRepository.findAuthors(firstname, lastname);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Author> getAuthors(String firstname) throws Exception {
-        return authorRepository.findByFirstnameIgnoreCase(firstname);
+        return authorRepository.findByFirstnameFolded(Texts.fold(firstname));
     }
 
+    @Transactional
     public void createAuthor(Author author)throws Exception{
-        authorRepository.save(author);
+        ChangeOperation operation = author.getId() == null || author.getId() == 0
+                ? ChangeOperation.INSERT : ChangeOperation.UPDATE;
+        eventPublisher.publishEvent(new AuthorChangedEvent(authorRepository.save(author), operation));
     }
 }
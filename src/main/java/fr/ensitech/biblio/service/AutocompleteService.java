@@ -0,0 +1,244 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import fr.ensitech.biblio.search.RadixTrie;
+import fr.ensitech.biblio.search.ReplayingIndexLock;
+import fr.ensitech.biblio.utils.Texts;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Autocomplétion sur les titres et les noms d'auteurs, servie par un trie en mémoire.
+ * Chaque mot d'un titre ou d'un nom peut commencer la saisie ("prince" trouve "Le Petit Prince").
+ * Popularité : nombre de réservations du livre ; pour un auteur, somme des réservations de ses livres.
+ * L'index est construit au démarrage puis tenu à jour par les événements du catalogue, après commit.
+ */
+@Service
+public class AutocompleteService implements IAutocompleteService {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private IReservationRepository reservationRepository;
+
+    // événements commités pendant une reconstruction : ceux qui suivent les lectures en base seraient sinon écrasés.
+    // Une réservation commitée pendant les lectures peut être comptée deux fois
+    private final ReplayingIndexLock<Object> lock = new ReplayingIndexLock<>(this::apply);
+    private RadixTrie<Suggestion> trie = new RadixTrie<>();
+    private final Map<Long, Suggestion> books = new HashMap<>();
+    private final Map<Long, Suggestion> authors = new HashMap<>();
+    private final Map<Long, Set<Long>> authorsByBook = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.rebuild(() -> new Snapshot(bookRepository.findAllTitles(), authorRepository.findAllNames(),
+                bookRepository.findAllAuthorLinks(), reservationRepository.countAllByBook()), this::install);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void install(Snapshot snapshot) {
+        trie = new RadixTrie<>();
+        books.clear();
+        authors.clear();
+        authorsByBook.clear();
+        for (Object[] row : snapshot.titles()) {
+            indexBook((Long) row[0], (String) row[1]);
+        }
+        for (Object[] row : snapshot.names()) {
+            indexAuthor((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        for (Object[] row : snapshot.reservations()) {
+            Suggestion book = books.get((Long) row[0]);
+            if (book != null) {
+                addScore(book, (Long) row[1]);
+            }
+        }
+        // liens posés après les scores des livres : chaque auteur cumule la popularité de ses livres
+        Map<Long, Set<Long>> authorIdsByBook = new HashMap<>();
+        for (Object[] row : snapshot.links()) {
+            authorIdsByBook.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+        authorIdsByBook.forEach(this::linkAuthors);
+    }
+
+    @Override
+    public List<SearchHit> suggest(String text, int limit) throws Exception {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String prefix = Texts.fold(text);
+        if (prefix.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<SearchHit> hits = new ArrayList<>(limit);
+            for (Suggestion suggestion : trie.top(prefix, limit)) {
+                hits.add(new SearchHit(suggestion.type, suggestion.id, suggestion.text, suggestion.score));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.receive(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        lock.receive(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookReserved(BookReservedEvent event) {
+        lock.receive(event);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void apply(Object event) {
+        switch (event) {
+            case BookChangedEvent changed -> applyBookChanged(changed);
+            case AuthorChangedEvent changed -> indexAuthor(changed.getAuthor().getId(),
+                    changed.getAuthor().getFirstname(), changed.getAuthor().getLastname());
+            case BookReservedEvent reserved -> applyBookReserved(reserved);
+            default -> throw new IllegalArgumentException("Unexpected event: " + event);
+        }
+    }
+
+    private void applyBookChanged(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (event.getOperation() == ChangeOperation.DELETE) {
+            removeBook(book.getId());
+            return;
+        }
+        indexBook(book.getId(), book.getTitle());
+        // une mise à jour ne touche pas aux auteurs : collection non chargée, liens inchangés
+        if (Hibernate.isInitialized(book.getAuthors())) {
+            Set<Long> authorIds = new HashSet<>();
+            for (Author author : book.getAuthors()) {
+                authorIds.add(author.getId());
+            }
+            linkAuthors(book.getId(), authorIds);
+        }
+    }
+
+    private void applyBookReserved(BookReservedEvent event) {
+        Suggestion book = books.get(event.getBookId());
+        if (book == null) {
+            return;
+        }
+        addScore(book, 1);
+        for (Long authorId : authorsByBook.getOrDefault(book.id, Set.of())) {
+            addScore(authors.get(authorId), 1);
+        }
+    }
+
+    private void indexBook(Long id, String title) {
+        Suggestion book = books.computeIfAbsent(id, key -> new Suggestion(CatalogEntityType.BOOK, key));
+        reindex(book, title);
+    }
+
+    private void indexAuthor(Long id, String firstname, String lastname) {
+        Suggestion author = authors.computeIfAbsent(id, key -> new Suggestion(CatalogEntityType.AUTHOR, key));
+        reindex(author, firstname + " " + lastname);
+    }
+
+    private void removeBook(Long id) {
+        Suggestion book = books.remove(id);
+        if (book == null) {
+            return;
+        }
+        for (String key : book.keys) {
+            trie.remove(key, book);
+        }
+        for (Long authorId : authorsByBook.getOrDefault(id, Set.of())) {
+            addScore(authors.get(authorId), -book.score);
+        }
+        authorsByBook.remove(id);
+    }
+
+    // la popularité d'un livre est reportée sur ses auteurs : liens retirés puis ajoutés
+    private void linkAuthors(Long bookId, Set<Long> authorIds) {
+        Suggestion book = books.get(bookId);
+        long score = book == null ? 0 : book.score;
+        Set<Long> previous = authorsByBook.put(bookId, authorIds);
+        for (Long authorId : previous == null ? Set.<Long>of() : previous) {
+            if (!authorIds.contains(authorId)) {
+                addScore(authors.get(authorId), -score);
+            }
+        }
+        for (Long authorId : authorIds) {
+            if (previous == null || !previous.contains(authorId)) {
+                addScore(authors.get(authorId), score);
+            }
+        }
+    }
+
+    private void reindex(Suggestion suggestion, String text) {
+        for (String key : suggestion.keys) {
+            trie.remove(key, suggestion);
+        }
+        suggestion.text = text;
+        suggestion.keys = Texts.wordSuffixes(Texts.fold(text));
+        for (String key : suggestion.keys) {
+            trie.add(key, suggestion);
+        }
+    }
+
+    private void addScore(Suggestion suggestion, long delta) {
+        if (suggestion == null || delta == 0) {
+            return;
+        }
+        suggestion.score += delta;
+        for (String key : suggestion.keys) {
+            trie.scoreChanged(key);
+        }
+    }
+
+    private record Snapshot(List<Object[]> titles, List<Object[]> names, List<Object[]> links,
+                            List<Object[]> reservations) {
+    }
+
+    private static final class Suggestion implements RadixTrie.Scored {
+        private final CatalogEntityType type;
+        private final Long id;
+        private String text;
+        private List<String> keys = List.of();
+        private long score;
+
+        private Suggestion(CatalogEntityType type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+
+        @Override
+        public long score() {
+            return score;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookAvailability;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Stock, réservations actives et exemplaires restants de plusieurs livres à la fois :
+ * une requête groupée par tranche de 500 ids au lieu d'un countByBookAndActiveTrue par livre.
+ */
+@Service
+public class AvailabilityService implements IAvailabilityService {
+
+    public static final int MAX_IDS = 1000;
+
+    // taille maximale des listes passées dans une clause IN
+    private static final int CHUNK_SIZE = 500;
+
+    @Autowired
+    private IReservationRepository reservationRepository;
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookAvailability> getAvailability(Collection<Long> bookIds) throws Exception {
+        if (bookIds.size() > MAX_IDS) {
+            throw new IllegalArgumentException("At most " + MAX_IDS + " book ids per request");
+        }
+        // ordre de la demande ; les ids inconnus sont ignorés
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(bookIds));
+        Map<Long, BookAvailability> byId = load(ids);
+        List<BookAvailability> availability = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            if (byId.containsKey(id)) {
+                availability.add(byId.get(id));
+            }
+        }
+        return availability;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> withAvailability(List<BookSummary> books) throws Exception {
+        List<Long> ids = new ArrayList<>(books.size());
+        for (BookSummary book : books) {
+            ids.add(book.getId());
+        }
+        Map<Long, BookAvailability> byId = load(ids);
+        for (BookSummary book : books) {
+            book.setAvailability(byId.get(book.getId()));
+        }
+        return books;
+    }
+
+    private Map<Long, BookAvailability> load(List<Long> ids) {
+        Map<Long, BookAvailability> byId = new HashMap<>();
+        for (int i = 0; i < ids.size(); i += CHUNK_SIZE) {
+            for (BookAvailability availability : reservationRepository.findAvailabilityByBookIdIn(
+                    ids.subList(i, Math.min(i + CHUNK_SIZE, ids.size())))) {
+                byId.put(availability.getBookId(), availability);
+            }
+        }
+        return byId;
+    }
+}
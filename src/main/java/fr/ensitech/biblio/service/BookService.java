@@ -1,16 +1,29 @@
 package fr.ensitech.biblio.service;
 
+import fr.ensitech.biblio.dto.AuthorBooksPage;
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.IsbnLookup;
+import fr.ensitech.biblio.dto.StockAdjustment;
 import fr.ensitech.biblio.entity.Author;
 import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.StockAdjustedEvent;
 import fr.ensitech.biblio.repository.IAuthorRepository;
 import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.utils.Isbn;
+import fr.ensitech.biblio.utils.Texts;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Calendar;
-import java.util.Date;
-import java.util.List;
-import java.util.Optional;
+import java.time.LocalDate;
+import java.util.*;
 
 @Service
 public class BookService implements IBookService {
@@ -21,19 +34,40 @@ public class BookService implements IBookService {
     @Autowired
     private IAuthorRepository authorRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private IKnownIsbnService knownIsbnService;
+
+    // taille maximale des listes passées dans une clause IN
+    private static final int ISBN_CHUNK_SIZE = 500;
+
+    // nombre maximal d'ISBN par recherche groupée
+    public static final int MAX_ISBN_LOOKUP = 1000;
+
+    // taille maximale d'une page de livres d'un auteur
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // nombre maximal de livres par modification ou ajustement de stock groupé
+    public static final int MAX_BULK_UPDATE = 1000;
+
     @Override
+    @Transactional
     public Book addOrUpdateBook(Book book) throws Exception {
         if (book.getId() != null && book.getId() < 0){
             throw new Exception("Book id must be greater than 0");
         }
 
         if(book.getId() == null || book.getId() == 0) {
-            Book _book = bookRepository.findByIsbnIgnoreCase(book.getIsbn());
-            if (_book != null) {
+            if (isbnExists(book.getIsbn())) {
                 throw new IllegalArgumentException("Book with same ISBN already exists");
             }
-            book.getAuthors().forEach(a -> authorRepository.save(a));
+            book.setAuthors(saveAuthors(book.getAuthors()));
             bookRepository.save(book);
+            eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.INSERT));
+            // livre créé : inutile de le recharger dans la même transaction
+            return book;
         }
 
         if (book.getId() > 0) {
@@ -49,13 +83,86 @@ public class BookService implements IBookService {
             _book.setCategory(book.getCategory());
             _book.setLanguage(book.getLanguage());
             _book.setNbPages(book.getNbPages());
+            if (book.getStock() != null) {
+                _book.setStock(book.getStock());
+            }
             //_book.setPublished(book.getpublished());
             bookRepository.save(_book);
+            eventPublisher.publishEvent(new BookChangedEvent(_book, ChangeOperation.UPDATE));
         }
         return book;
     }
 
     @Override
+    @Transactional
+    public List<Book> addBooks(List<Book> books) throws Exception {
+        Set<Long> isbn13s = new HashSet<>();
+        Set<String> codes = new HashSet<>();
+        for (Book book : books) {
+            if (book.getId() != null && book.getId() != 0) {
+                throw new IllegalArgumentException("Bulk creation only accepts new books");
+            }
+            Long isbn13 = Isbn.toIsbn13(book.getIsbn());
+            if (isbn13 != null ? !isbn13s.add(isbn13) : !codes.add(Texts.normalizeCode(book.getIsbn()))) {
+                throw new IllegalArgumentException("Duplicate ISBN in request: " + book.getIsbn());
+            }
+        }
+
+        // seuls les ISBN que le filtre de Bloom ne déclare pas absents sont vérifiés en base
+        isbn13s.removeIf(isbn13 -> !knownIsbnService.mightExist(Isbn.format(isbn13)));
+        codes.removeIf(code -> !knownIsbnService.mightExist(code));
+        List<String> existing = new ArrayList<>();
+        List<Long> numbersToCheck = new ArrayList<>(isbn13s);
+        for (int i = 0; i < numbersToCheck.size(); i += ISBN_CHUNK_SIZE) {
+            for (Long isbn13 : bookRepository.findExistingIsbn13s(
+                    numbersToCheck.subList(i, Math.min(i + ISBN_CHUNK_SIZE, numbersToCheck.size())))) {
+                existing.add(Isbn.format(isbn13));
+            }
+        }
+        List<String> codesToCheck = new ArrayList<>(codes);
+        for (int i = 0; i < codesToCheck.size(); i += ISBN_CHUNK_SIZE) {
+            existing.addAll(bookRepository.findExistingIsbns(codesToCheck.subList(i, Math.min(i + ISBN_CHUNK_SIZE, codesToCheck.size()))));
+        }
+        if (!existing.isEmpty()) {
+            throw new IllegalArgumentException("Books with same ISBN already exist: " + existing);
+        }
+
+        // ids alloués par blocs : les INSERT livres, auteurs et book_author partent en batch au flush
+        for (Book book : books) {
+            book.setAuthors(saveAuthors(book.getAuthors()));
+        }
+        List<Book> saved = bookRepository.saveAll(books);
+        for (Book book : saved) {
+            eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.INSERT));
+        }
+        return saved;
+    }
+
+    // absent du filtre de Bloom : aucune requête. Sinon ISBN valide : clé numérique ISBN-13, toutes formes
+    // confondues ; code hors norme : colonne normalisée
+    private boolean isbnExists(String isbn) {
+        if (!knownIsbnService.mightExist(isbn)) {
+            return false;
+        }
+        Long isbn13 = Isbn.toIsbn13(isbn);
+        return isbn13 != null ? bookRepository.existsByIsbn13(isbn13) : bookRepository.existsByIsbnNormalized(Texts.normalizeCode(isbn));
+    }
+
+    // remplace les auteurs par leurs instances gérées (nouveaux auteurs persistés, existants fusionnés)
+    private Set<Author> saveAuthors(Set<Author> authors) {
+        List<ChangeOperation> operations = new ArrayList<>(authors.size());
+        for (Author author : authors) {
+            operations.add(author.getId() == null || author.getId() == 0 ? ChangeOperation.INSERT : ChangeOperation.UPDATE);
+        }
+        List<Author> saved = authorRepository.saveAll(authors);
+        for (int i = 0; i < saved.size(); i++) {
+            eventPublisher.publishEvent(new AuthorChangedEvent(saved.get(i), operations.get(i)));
+        }
+        return new LinkedHashSet<>(saved);
+    }
+
+    @Override
+    @Transactional
     public void deleteBook(long id) throws Exception {
         //bookRepository.deleteById(id);
 
@@ -67,6 +174,171 @@ public class BookService implements IBookService {
             throw new IllegalArgumentException("Book not found !");
         }
         bookRepository.deleteById(id);
+        eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.DELETE));
+    }
+
+    // @DynamicUpdate : l'UPDATE ne porte que sur les colonnes dont la valeur change, aucun si rien ne change
+    @Override
+    @Transactional
+    public BookDetail patchBook(long id, BookPatch patch) throws Exception {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Book id must be > 0");
+        }
+        Book book = bookRepository.findById(id).orElse(null);
+        if (book == null) {
+            return null;
+        }
+        if (applyPatch(book, patch)) {
+            eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.UPDATE));
+        }
+        return BookDetail.from(book);
+    }
+
+    @Override
+    @Transactional
+    public int patchBooks(List<BookPatch> patches) throws Exception {
+        if (patches.size() > MAX_BULK_UPDATE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATE + " books per bulk update");
+        }
+        Map<Long, BookPatch> byId = new LinkedHashMap<>();
+        for (BookPatch patch : patches) {
+            if (patch.getId() == null || patch.getId() <= 0) {
+                throw new IllegalArgumentException("Book id must be > 0");
+            }
+            if (byId.put(patch.getId(), patch) != null) {
+                throw new IllegalArgumentException("Duplicate book id in request: " + patch.getId());
+            }
+        }
+        // chargement par tranches ; les UPDATE partent en batch au flush
+        Map<Long, Book> books = new HashMap<>();
+        List<Long> ids = new ArrayList<>(byId.keySet());
+        for (int i = 0; i < ids.size(); i += ISBN_CHUNK_SIZE) {
+            for (Book book : bookRepository.findAllById(ids.subList(i, Math.min(i + ISBN_CHUNK_SIZE, ids.size())))) {
+                books.put(book.getId(), book);
+            }
+        }
+        List<Long> missing = new ArrayList<>(byId.keySet());
+        missing.removeAll(books.keySet());
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("Books not found: " + missing);
+        }
+        int changed = 0;
+        for (Map.Entry<Long, BookPatch> entry : byId.entrySet()) {
+            Book book = books.get(entry.getKey());
+            if (applyPatch(book, entry.getValue())) {
+                eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.UPDATE));
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    @Override
+    @Transactional
+    public int adjustStocks(List<StockAdjustment> adjustments) throws Exception {
+        if (adjustments.size() > MAX_BULK_UPDATE) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_UPDATE + " books per stock adjustment");
+        }
+        // plusieurs variations d'un même livre sont cumulées
+        Map<Long, Integer> deltas = new LinkedHashMap<>();
+        for (StockAdjustment adjustment : adjustments) {
+            if (adjustment.getBookId() == null || adjustment.getBookId() <= 0) {
+                throw new IllegalArgumentException("Book id must be > 0");
+            }
+            try {
+                deltas.merge(adjustment.getBookId(), adjustment.getDelta(), Math::addExact);
+            } catch (ArithmeticException e) {
+                throw new IllegalArgumentException("Stock adjustment out of range for book " + adjustment.getBookId());
+            }
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        // journal d'abord : comme les autres écritures du catalogue, le compteur de versions est verrouillé
+        // avant les lignes de livres (même ordre de verrous, pas d'interblocage avec un PATCH concurrent)
+        if (!deltas.isEmpty()) {
+            eventPublisher.publishEvent(new StockAdjustedEvent(List.copyOf(deltas.keySet())));
+        }
+        int updated = bookRepository.adjustStocks(deltas);
+        // tout ou rien : l'exception annule la transaction, donc les lignes déjà modifiées et le journal
+        if (updated != deltas.size()) {
+            throw new IllegalArgumentException("Unknown book or insufficient stock: "
+                    + (deltas.size() - updated) + " of " + deltas.size() + " adjustments rejected");
+        }
+        return updated;
+    }
+
+    // n'affecte que les champs renseignés et réellement différents ; vrai si le livre a changé
+    private boolean applyPatch(Book book, BookPatch patch) {
+        boolean changed = false;
+        if (patch.getIsbn() != null && !Objects.equals(Texts.normalizeCode(patch.getIsbn()), Texts.normalizeCode(book.getIsbn()))) {
+            if (patch.getIsbn().isBlank()) {
+                throw new IllegalArgumentException("ISBN must not be blank");
+            }
+            checkLength(patch.getIsbn(), "isbn", 32);
+            Long isbn13 = Isbn.toIsbn13(patch.getIsbn());
+            // même ISBN sous une autre forme (tirets, ISBN-10) : pas de conflit avec le livre lui-même
+            if ((isbn13 == null || !isbn13.equals(book.getIsbn13())) && isbnExists(patch.getIsbn())) {
+                throw new IllegalArgumentException("Book with same ISBN already exists: " + patch.getIsbn());
+            }
+            book.setIsbn(patch.getIsbn());
+            changed = true;
+        }
+        if (patch.getTitle() != null && !patch.getTitle().equals(book.getTitle())) {
+            if (patch.getTitle().isBlank()) {
+                throw new IllegalArgumentException("Title must not be blank");
+            }
+            checkLength(patch.getTitle(), "title", 128);
+            book.setTitle(patch.getTitle());
+            changed = true;
+        }
+        if (patch.getDescription() != null && !patch.getDescription().equals(book.getDescription())) {
+            checkLength(patch.getDescription(), "description", 1024);
+            book.setDescription(patch.getDescription());
+            changed = true;
+        }
+        if (patch.getEditor() != null && !patch.getEditor().equals(book.getEditor())) {
+            checkLength(patch.getEditor(), "editor", 128);
+            book.setEditor(patch.getEditor());
+            changed = true;
+        }
+        if (patch.getPublicationDate() != null && !patch.getPublicationDate().equals(book.getPublicationDate())) {
+            book.setPublicationDate(patch.getPublicationDate());
+            changed = true;
+        }
+        if (patch.getCategory() != null && !patch.getCategory().equals(book.getCategory())) {
+            checkLength(patch.getCategory(), "category", 64);
+            book.setCategory(patch.getCategory());
+            changed = true;
+        }
+        if (patch.getLanguage() != null && !patch.getLanguage().equals(book.getLanguage())) {
+            checkLength(patch.getLanguage(), "language", 64);
+            book.setLanguage(patch.getLanguage());
+            changed = true;
+        }
+        if (patch.getNbPages() != null && patch.getNbPages() != book.getNbPages()) {
+            if (patch.getNbPages() < 0) {
+                throw new IllegalArgumentException("nbPages must be >= 0");
+            }
+            book.setNbPages(patch.getNbPages());
+            changed = true;
+        }
+        if (patch.getStock() != null && !patch.getStock().equals(book.getStock())) {
+            if (patch.getStock() < 0) {
+                throw new IllegalArgumentException("stock must be >= 0");
+            }
+            book.setStock(patch.getStock());
+            changed = true;
+        }
+        if (patch.getPublished() != null && patch.getPublished() != book.isPublished()) {
+            book.setPublished(patch.getPublished());
+            changed = true;
+        }
+        return changed;
+    }
+
+    private static void checkLength(String value, String field, int maxLength) {
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " longer than " + maxLength + " characters");
+        }
     }
 
     /*@Override
@@ -89,11 +361,13 @@ public class BookService implements IBookService {
     }*/
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooks() throws Exception {
         return bookRepository.findAll();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Book getBook(long id) throws Exception {
         if (id <= 0) {
             throw new IllegalArgumentException("Book id must be > 0");
@@ -103,53 +377,198 @@ public class BookService implements IBookService {
 
     // 1
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByPublished(boolean published) throws Exception {
         return bookRepository.findByPublished(published);
     }
 
     // 2
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByTitle(String title) throws Exception {
-        return bookRepository.findByTitleIgnoreCase(title);
+        return bookRepository.findByTitleFolded(Texts.fold(title));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByAuthor(Author author) throws Exception {
-        return null;
+        if (author == null || author.getId() == null) {
+            throw new IllegalArgumentException("Author id is required");
+        }
+        return bookRepository.findByAuthors_Id(author.getId());
     }
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByTitleContains(String text) throws Exception {
-        return bookRepository.findByTitleContainingIgnoreCase(text);
+        String folded = Texts.fold(text);
+        // ponctuation seule : like '%%' renverrait tout le catalogue
+        return folded.isEmpty() ? List.of() : bookRepository.findByTitleFoldedContaining(folded);
     }
 
     // 4
     @Override
+    @Transactional(readOnly = true)
     public Book getBookByIsbn(String isbn) throws Exception {
-        return bookRepository.findByIsbnIgnoreCase(isbn);
+        Long isbn13 = Isbn.toIsbn13(isbn);
+        return isbn13 != null ? bookRepository.findByIsbn13(isbn13) : bookRepository.findByIsbnNormalized(Texts.normalizeCode(isbn));
     }
 
     // 5
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksByTitleOrDescription(String title, String description) throws Exception {
-        return bookRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase(title, description);
+        String foldedTitle = Texts.fold(title);
+        String foldedDescription = Texts.fold(description);
+        if (foldedTitle.isEmpty() || foldedDescription.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findByTitleFoldedContainingOrDescriptionFoldedContaining(foldedTitle, foldedDescription);
     }
 
     // 6
     @Override
+    @Transactional(readOnly = true)
     public List<Book> getBooksBetweenYears(int startYear, int endYear) throws Exception {
-        Calendar startCalendar = Calendar.getInstance();
-        startCalendar.set(Calendar.YEAR, startYear);
-        startCalendar.set(Calendar.MONTH, Calendar.JANUARY);
-        startCalendar.set(Calendar.DAY_OF_MONTH, 1);
-        Date startDate = startCalendar.getTime();
-
-        Calendar endCalendar = Calendar.getInstance();
-        endCalendar.set(Calendar.YEAR, endYear);
-        endCalendar.set(Calendar.MONTH, Calendar.DECEMBER);
-        endCalendar.set(Calendar.DAY_OF_MONTH, 31);
-        Date endDate = endCalendar.getTime();
-
+        LocalDate startDate = LocalDate.of(startYear, 1, 1);
+        LocalDate endDate = LocalDate.of(endYear, 12, 31);
         return bookRepository.findByPublicationDateBetween(startDate, endDate);
     }
-}
 
+    @Override
+    @Transactional(readOnly = true)
+    public BookDetail getBookDetail(long id) throws Exception {
+        if (id <= 0) {
+            throw new IllegalArgumentException("Book id must be > 0");
+        }
+        // findById et la collection authors sont servis par le cache de second niveau
+        return bookRepository.findById(id).map(BookDetail::from).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public BookDetail getBookDetailByIsbn(String isbn) throws Exception {
+        Long isbn13 = Isbn.toIsbn13(isbn);
+        Book book = isbn13 != null ? bookRepository.findWithAuthorsByIsbn13(isbn13)
+                : bookRepository.findWithAuthorsByIsbnNormalized(Texts.normalizeCode(isbn));
+        return book == null ? null : BookDetail.from(book);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IsbnLookup getBookDetailsByIsbns(List<String> isbns) throws Exception {
+        if (isbns.size() > MAX_ISBN_LOOKUP) {
+            throw new IllegalArgumentException("At most " + MAX_ISBN_LOOKUP + " ISBNs per lookup");
+        }
+        // clé (ISBN-13 canonique, ou code normalisé s'il ne s'agit pas d'un ISBN valide) -> ISBN tel que reçu,
+        // premier exemplaire des doublons
+        Map<String, String> requested = new LinkedHashMap<>();
+        List<Long> isbn13s = new ArrayList<>();
+        List<String> codes = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        for (String isbn : isbns) {
+            Long isbn13 = Isbn.toIsbn13(isbn);
+            String normalized = Texts.normalizeCode(isbn);
+            if (isbn13 != null) {
+                if (requested.putIfAbsent(Isbn.format(isbn13), isbn) == null) {
+                    isbn13s.add(isbn13);
+                }
+            } else if (normalized == null || normalized.isEmpty()) {
+                missing.add(isbn);
+            } else if (requested.putIfAbsent(normalized, isbn) == null) {
+                codes.add(normalized);
+            }
+        }
+
+        // une requête par tranche, auteurs compris
+        Map<String, Book> byIsbn = new HashMap<>();
+        for (int i = 0; i < isbn13s.size(); i += ISBN_CHUNK_SIZE) {
+            for (Book book : bookRepository.findWithAuthorsByIsbn13In(
+                    isbn13s.subList(i, Math.min(i + ISBN_CHUNK_SIZE, isbn13s.size())))) {
+                byIsbn.put(Isbn.format(book.getIsbn13()), book);
+            }
+        }
+        for (int i = 0; i < codes.size(); i += ISBN_CHUNK_SIZE) {
+            for (Book book : bookRepository.findWithAuthorsByIsbnNormalizedIn(
+                    codes.subList(i, Math.min(i + ISBN_CHUNK_SIZE, codes.size())))) {
+                byIsbn.put(book.getIsbnNormalized(), book);
+            }
+        }
+
+        List<BookDetail> found = new ArrayList<>(byIsbn.size());
+        requested.forEach((normalized, isbn) -> {
+            Book book = byIsbn.get(normalized);
+            if (book == null) {
+                missing.add(isbn);
+            } else {
+                found.add(BookDetail.from(book));
+            }
+        });
+        return new IsbnLookup(found, missing);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummaries() throws Exception {
+        return bookRepository.findAllSummaries();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesByPublished(boolean published) throws Exception {
+        return bookRepository.findSummariesByPublished(published);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesByTitle(String title) throws Exception {
+        return bookRepository.findSummariesByTitle(Texts.fold(title));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesByTitleContains(String text) throws Exception {
+        String folded = Texts.fold(text);
+        // ponctuation seule : like '%%' renverrait tout le catalogue, sans pagination
+        return folded.isEmpty() ? List.of() : bookRepository.findSummariesByTitleContaining(folded);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesByTitleOrDescription(String title, String description) throws Exception {
+        String foldedTitle = Texts.fold(title);
+        String foldedDescription = Texts.fold(description);
+        // un critère vide une fois normalisé (ponctuation seule) correspondrait à tout le catalogue
+        if (foldedTitle.isEmpty() || foldedDescription.isEmpty()) {
+            return List.of();
+        }
+        return bookRepository.findSummariesByTitleOrDescriptionContaining(foldedTitle, foldedDescription);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<BookSummary> getBookSummariesBetweenYears(int startYear, int endYear) throws Exception {
+        return bookRepository.findSummariesByPublicationDateBetween(LocalDate.of(startYear, 1, 1), LocalDate.of(endYear, 12, 31));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public AuthorBooksPage getBookSummariesByAuthor(long authorId, long after, int size) throws Exception {
+        if (authorId <= 0) {
+            throw new IllegalArgumentException("Author id must be > 0");
+        }
+        if (after < 0) {
+            throw new IllegalArgumentException("after must be >= 0");
+        }
+        if (size <= 0 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        // une ligne de plus que demandé : indique s'il reste une page, sans requête de comptage
+        List<BookSummary> books = new ArrayList<>(bookRepository.findSummariesByAuthorAfter(authorId, after, Limit.of(size + 1)));
+        boolean hasMore = books.size() > size;
+        if (hasMore) {
+            books.remove(size);
+        }
+        long nextAfter = books.isEmpty() ? after : books.get(books.size() - 1).getId();
+        return new AuthorBooksPage(authorId, after, nextAfter, hasMore, books);
+    }
+}
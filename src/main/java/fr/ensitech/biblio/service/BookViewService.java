@@ -0,0 +1,127 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.BookViewCount;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookViewedEvent;
+import fr.ensitech.biblio.repository.IBookViewCountRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compteurs de consultations par livre en écriture différée : chaque consultation incrémente un LongAdder
+ * en mémoire (aucune écriture pendant la lecture), les compteurs sont reportés en base périodiquement
+ * par un seul upsert groupé. Un arrêt brutal perd au plus les consultations d'un intervalle de report.
+ */
+@Service
+public class BookViewService implements IBookViewService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookViewService.class);
+
+    // insert ... values : regroupé en un seul insert multi-lignes par le pilote (rewriteBatchedStatements)
+    private static final String UPSERT = "insert into biblio_database.book_view_counts (book_id, views) values (?, ?) as new "
+            + "on duplicate key update views = book_view_counts.views + new.views";
+
+    // un report concurrent d'une suppression peut recréer le compteur d'un livre supprimé : il est retiré aussitôt
+    private static final String DELETE_ORPHANS = "delete from biblio_database.book_view_counts c where c.book_id in (%s) "
+            + "and not exists (select 1 from biblio_database.books b where b.id = c.book_id)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private IBookViewCountRepository bookViewCountRepository;
+
+    // une entrée par livre consulté depuis le démarrage : bornée par la taille du catalogue
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onBookViewed(BookViewedEvent event) {
+        pending.computeIfAbsent(event.getBookId(), id -> new LongAdder()).increment();
+    }
+
+    // après commit seulement : une suppression annulée garde ses consultations. Transaction propre,
+    // celle de la suppression est déjà validée ; un report concurrent est rattrapé par DELETE_ORPHANS
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getOperation() == ChangeOperation.DELETE) {
+            pending.remove(event.getBook().getId());
+            bookViewCountRepository.deleteById(event.getBook().getId());
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getViews(long bookId) throws Exception {
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book id must be > 0");
+        }
+        long persisted = bookViewCountRepository.findById(bookId).map(BookViewCount::getViews).orElse(0L);
+        LongAdder unflushed = pending.get(bookId);
+        return persisted + (unflushed == null ? 0 : unflushed.sum());
+    }
+
+    /** Reporte en base les consultations accumulées ; renvoie le nombre de livres mis à jour. */
+    @Override
+    @Scheduled(fixedDelayString = "${biblio.views.flush-interval-ms:5000}")
+    public synchronized int flush() {
+        List<Object[]> rows = new ArrayList<>();
+        List<LongAdder> adders = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            // on retranche ce qui est reporté plutôt que de remettre à zéro : un incrément concurrent n'est pas perdu
+            long views = entry.getValue().sum();
+            if (views > 0) {
+                entry.getValue().add(-views);
+                rows.add(new Object[]{entry.getKey(), views});
+                adders.add(entry.getValue());
+            }
+        }
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        try {
+            jdbcTemplate.batchUpdate(UPSERT, rows);
+        } catch (RuntimeException e) {
+            // base indisponible : les comptes reviennent en mémoire pour le prochain report
+            for (int i = 0; i < rows.size(); i++) {
+                adders.get(i).add((Long) rows.get(i)[1]);
+            }
+            log.warn("Report des consultations impossible ({} livres) : {}", rows.size(), e.getMessage());
+            return 0;
+        }
+        deleteOrphans(rows);
+        return rows.size();
+    }
+
+    // limité aux livres du report : pas de parcours de toute la table à chaque intervalle
+    private void deleteOrphans(List<Object[]> rows) {
+        Object[] ids = rows.stream().map(row -> row[0]).toArray();
+        try {
+            jdbcTemplate.update(DELETE_ORPHANS.formatted(String.join(", ", Collections.nCopies(ids.length, "?"))), ids);
+        } catch (RuntimeException e) {
+            log.warn("Suppression des compteurs orphelins impossible : {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
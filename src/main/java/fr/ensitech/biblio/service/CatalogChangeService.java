@@ -0,0 +1,133 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.AuthorDto;
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.CatalogChangeDto;
+import fr.ensitech.biblio.dto.CatalogChangePage;
+import fr.ensitech.biblio.entity.*;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.StockAdjustedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.ICatalogChangeRepository;
+import fr.ensitech.biblio.repository.ICatalogVersionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class CatalogChangeService implements ICatalogChangeService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private ICatalogChangeRepository catalogChangeRepository;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private ICatalogVersionRepository catalogVersionRepository;
+
+    // écouteurs synchrones : le journal est écrit dans la transaction de la modification
+    @EventListener
+    @Transactional
+    public void onBookChanged(BookChangedEvent event) {
+        record(CatalogEntityType.BOOK, event.getBook().getId(), event.getOperation());
+    }
+
+    @EventListener
+    @Transactional
+    public void onStockAdjusted(StockAdjustedEvent event) {
+        for (Long bookId : event.getBookIds()) {
+            record(CatalogEntityType.BOOK, bookId, ChangeOperation.UPDATE);
+        }
+    }
+
+    @EventListener
+    @Transactional
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        record(CatalogEntityType.AUTHOR, event.getAuthor().getId(), event.getOperation());
+    }
+
+    // le compteur reste verrouillé jusqu'au commit : les écritures du catalogue sont sérialisées
+    // à partir de leur première entrée de journal, et les versions sont visibles dans l'ordre, sans trou
+    private void record(CatalogEntityType type, Long id, ChangeOperation operation) {
+        CatalogVersion counter = catalogVersionRepository.findById(CatalogVersion.ID)
+                .orElseThrow(() -> new IllegalStateException("Catalog version counter is not initialised"));
+        counter.setLastVersion(counter.getLastVersion() + 1);
+        catalogChangeRepository.save(new CatalogChange(counter.getLastVersion(), type, id, operation, Instant.now()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CatalogChangePage getChanges(long since, int limit) throws Exception {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must be >= 0");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<CatalogChange> rows = catalogChangeRepository.findByVersionGreaterThanOrderByVersion(since, Limit.of(limit + 1));
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = rows.subList(0, limit);
+        }
+        long nextSince = rows.isEmpty() ? since : rows.get(rows.size() - 1).getVersion();
+
+        // une seule entrée par entité : la plus récente de la page
+        Map<String, CatalogChange> latest = new LinkedHashMap<>();
+        for (CatalogChange row : rows) {
+            String key = row.getEntityType() + ":" + row.getEntityId();
+            latest.remove(key);
+            latest.put(key, row);
+        }
+
+        Set<Long> bookIds = idsToLoad(latest.values(), CatalogEntityType.BOOK);
+        Set<Long> authorIds = idsToLoad(latest.values(), CatalogEntityType.AUTHOR);
+        Map<Long, Book> books = (bookIds.isEmpty() ? List.<Book>of() : bookRepository.findWithAuthorsByIdIn(bookIds))
+                .stream().collect(Collectors.toMap(Book::getId, Function.identity()));
+        Map<Long, Author> authors = (authorIds.isEmpty() ? List.<Author>of() : authorRepository.findAllById(authorIds))
+                .stream().collect(Collectors.toMap(Author::getId, Function.identity()));
+
+        List<CatalogChangeDto> changes = new ArrayList<>(latest.size());
+        for (CatalogChange row : latest.values()) {
+            CatalogChangeDto change = new CatalogChangeDto(row.getVersion(), row.getEntityType(), row.getEntityId(),
+                    row.getOperation(), null, null);
+            if (row.getOperation() != ChangeOperation.DELETE) {
+                if (row.getEntityType() == CatalogEntityType.BOOK && books.containsKey(row.getEntityId())) {
+                    change.setBook(BookDetail.from(books.get(row.getEntityId())));
+                } else if (row.getEntityType() == CatalogEntityType.AUTHOR && authors.containsKey(row.getEntityId())) {
+                    change.setAuthor(AuthorDto.from(authors.get(row.getEntityId())));
+                } else {
+                    // supprimée depuis : la suppression arrivera dans une page suivante
+                    change.setOperation(ChangeOperation.DELETE);
+                }
+            }
+            changes.add(change);
+        }
+        return new CatalogChangePage(since, nextSince, hasMore, changes);
+    }
+
+    private static Set<Long> idsToLoad(Collection<CatalogChange> changes, CatalogEntityType type) {
+        Set<Long> ids = new HashSet<>();
+        for (CatalogChange change : changes) {
+            if (change.getEntityType() == type && change.getOperation() != ChangeOperation.DELETE) {
+                ids.add(change.getEntityId());
+            }
+        }
+        return ids;
+    }
+}
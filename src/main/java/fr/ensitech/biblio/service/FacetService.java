@@ -0,0 +1,115 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.FacetPage;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.Facet;
+import fr.ensitech.biblio.search.FacetIndex;
+import fr.ensitech.biblio.search.ReplayingIndexLock;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Navigation par catégorie, langue, éditeur, statut de publication et décennie, avec compteurs.
+ * Filtres et compteurs sont calculés sur l'index de facettes en mémoire ; seule la page de livres
+ * affichée est lue en base (par clé primaire).
+ * L'index est construit au démarrage puis tenu à jour par les événements du catalogue, après commit.
+ */
+@Service
+public class FacetService implements IFacetService {
+
+    public static final int MAX_SIZE = 100;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    private final ReplayingIndexLock<BookChangedEvent> lock = new ReplayingIndexLock<>(this::apply);
+    private FacetIndex index = new FacetIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.rebuild(() -> {
+            FacetIndex rebuilt = new FacetIndex();
+            for (Object[] row : bookRepository.findAllFacetValues()) {
+                rebuilt.put((Long) row[0], values((String) row[1], (String) row[2], (String) row[3],
+                        (Boolean) row[4], (LocalDate) row[5]));
+            }
+            return rebuilt;
+        }, rebuilt -> index = rebuilt);
+    }
+
+    @Override
+    public FacetPage browse(Map<Facet, Set<String>> filters, int page, int size) throws Exception {
+        if (page < 0) {
+            throw new IllegalArgumentException("page must be >= 0");
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+        long total;
+        Map<Facet, Map<String, Integer>> counts;
+        List<Long> ids = new ArrayList<>(size);
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matching = index.match(filters);
+            total = matching.getCardinality();
+            counts = index.counts(filters);
+            long offset = (long) page * size;
+            if (offset < total) {
+                PeekableIntIterator iterator = matching.getIntIterator();
+                iterator.advanceIfNeeded(matching.select((int) offset));
+                while (iterator.hasNext() && ids.size() < size) {
+                    ids.add((long) iterator.next());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<BookSummary> books = new ArrayList<>();
+        if (!ids.isEmpty()) {
+            books.addAll(BookSummary.inOrder(ids, bookRepository.findSummariesByIdIn(ids)).values());
+        }
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        counts.forEach((facet, byValue) -> facets.put(facet.key(), byValue));
+        return new FacetPage(total, page, size, facets, books);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.receive(event);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (event.getOperation() == ChangeOperation.DELETE) {
+            index.remove(book.getId());
+        } else {
+            index.put(book.getId(), values(book.getCategory(), book.getLanguage(), book.getEditor(),
+                    book.isPublished(), book.getPublicationDate()));
+        }
+    }
+
+    private static Map<Facet, String> values(String category, String language, String editor,
+                                             Boolean published, LocalDate publicationDate) {
+        Map<Facet, String> values = new EnumMap<>(Facet.class);
+        values.put(Facet.CATEGORY, category);
+        values.put(Facet.LANGUAGE, language);
+        values.put(Facet.EDITOR, editor);
+        values.put(Facet.PUBLISHED, published == null ? null : published.toString());
+        values.put(Facet.DECADE, Facet.decade(publicationDate));
+        return values;
+    }
+}
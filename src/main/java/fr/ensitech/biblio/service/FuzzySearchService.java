@@ -0,0 +1,135 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.ReplayingIndexLock;
+import fr.ensitech.biblio.search.TrigramIndex;
+import fr.ensitech.biblio.utils.Texts;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Recherche tolérante aux fautes de frappe sur les titres et les noms d'auteurs (index de trigrammes en mémoire).
+ * Construit au démarrage puis tenu à jour par les événements du catalogue, après commit.
+ */
+@Service
+public class FuzzySearchService implements IFuzzySearchService {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    // rejouer une création ou une suppression déjà lue en base est sans effet
+    private final ReplayingIndexLock<Object> lock = new ReplayingIndexLock<>(this::apply);
+    private TrigramIndex<Target> index = new TrigramIndex<>();
+    private final Map<Long, Target> books = new HashMap<>();
+    private final Map<Long, Target> authors = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.rebuild(() -> new Snapshot(bookRepository.findAllTitles(), authorRepository.findAllNames()), this::install);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void install(Snapshot snapshot) {
+        index = new TrigramIndex<>();
+        books.clear();
+        authors.clear();
+        for (Object[] row : snapshot.titles()) {
+            put(books, CatalogEntityType.BOOK, (Long) row[0], (String) row[1]);
+        }
+        for (Object[] row : snapshot.names()) {
+            put(authors, CatalogEntityType.AUTHOR, (Long) row[0], row[1] + " " + row[2]);
+        }
+    }
+
+    @Override
+    public List<SearchHit> search(String text, int limit) throws Exception {
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        String query = Texts.fold(text);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            List<SearchHit> hits = new ArrayList<>(limit);
+            for (TrigramIndex.Match<Target> match : index.search(query, limit)) {
+                Target target = match.entry();
+                hits.add(new SearchHit(target.type, target.id, target.text, match.similarity()));
+            }
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.receive(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAuthorChanged(AuthorChangedEvent event) {
+        lock.receive(event);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void apply(Object event) {
+        switch (event) {
+            case BookChangedEvent changed -> {
+                Book book = changed.getBook();
+                if (changed.getOperation() == ChangeOperation.DELETE) {
+                    Target target = books.remove(book.getId());
+                    if (target != null) {
+                        index.remove(target);
+                    }
+                } else {
+                    put(books, CatalogEntityType.BOOK, book.getId(), book.getTitle());
+                }
+            }
+            case AuthorChangedEvent changed -> {
+                Author author = changed.getAuthor();
+                put(authors, CatalogEntityType.AUTHOR, author.getId(), author.getFirstname() + " " + author.getLastname());
+            }
+            default -> throw new IllegalArgumentException("Unexpected event: " + event);
+        }
+    }
+
+    private void put(Map<Long, Target> targets, CatalogEntityType type, Long id, String text) {
+        Target target = targets.computeIfAbsent(id, key -> new Target(type, key));
+        target.text = text;
+        index.add(target, Texts.fold(text));
+    }
+
+    private record Snapshot(List<Object[]> titles, List<Object[]> names) {
+    }
+
+    private static final class Target {
+        private final CatalogEntityType type;
+        private final Long id;
+        private String text;
+
+        private Target(CatalogEntityType type, Long id) {
+            this.type = type;
+            this.id = id;
+        }
+    }
+}
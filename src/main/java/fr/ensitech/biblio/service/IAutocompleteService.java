@@ -0,0 +1,10 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+
+import java.util.List;
+
+public interface IAutocompleteService {
+
+    List<SearchHit> suggest(String text, int limit) throws Exception;
+}
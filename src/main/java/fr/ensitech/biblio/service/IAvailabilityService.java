@@ -0,0 +1,14 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookAvailability;
+import fr.ensitech.biblio.dto.BookSummary;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IAvailabilityService {
+
+    List<BookAvailability> getAvailability(Collection<Long> bookIds) throws Exception;
+
+    List<BookSummary> withAvailability(List<BookSummary> books) throws Exception;
+}
@@ -1,5 +1,11 @@
 package fr.ensitech.biblio.service;
 
+import fr.ensitech.biblio.dto.AuthorBooksPage;
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.IsbnLookup;
+import fr.ensitech.biblio.dto.StockAdjustment;
 import fr.ensitech.biblio.entity.Author;
 import fr.ensitech.biblio.entity.Book;
 
@@ -8,7 +14,13 @@ import java.util.List;
 public interface IBookService {
 
     Book addOrUpdateBook(Book book) throws Exception;
+    List<Book> addBooks(List<Book> books) throws Exception;
     void deleteBook(long id) throws Exception;
+
+    // modifications partielles : seuls les champs fournis sont écrits
+    BookDetail patchBook(long id, BookPatch patch) throws Exception;
+    int patchBooks(List<BookPatch> patches) throws Exception;
+    int adjustStocks(List<StockAdjustment> adjustments) throws Exception;
     List<Book> getBooks() throws Exception;
     Book getBook(long id) throws Exception;
     List<Book> getBooksByTitle(String title) throws Exception;
@@ -18,4 +30,18 @@ public interface IBookService {
     Book getBookByIsbn(String isbn) throws Exception;
     List<Book> getBooksByTitleOrDescription(String title, String description) throws Exception;
     List<Book> getBooksByTitleContains(String text) throws Exception;
+
+    // fiches complètes (avec auteurs) construites dans la transaction
+    BookDetail getBookDetail(long id) throws Exception;
+    BookDetail getBookDetailByIsbn(String isbn) throws Exception;
+    IsbnLookup getBookDetailsByIsbns(List<String> isbns) throws Exception;
+
+    // vues allégées pour les listes
+    List<BookSummary> getBookSummaries() throws Exception;
+    List<BookSummary> getBookSummariesByPublished(boolean published) throws Exception;
+    List<BookSummary> getBookSummariesByTitle(String title) throws Exception;
+    List<BookSummary> getBookSummariesByTitleContains(String text) throws Exception;
+    List<BookSummary> getBookSummariesByTitleOrDescription(String title, String description) throws Exception;
+    List<BookSummary> getBookSummariesBetweenYears(int startYear, int endYear) throws Exception;
+    AuthorBooksPage getBookSummariesByAuthor(long authorId, long after, int size) throws Exception;
 }
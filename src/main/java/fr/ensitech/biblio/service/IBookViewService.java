@@ -0,0 +1,7 @@
+package fr.ensitech.biblio.service;
+
+public interface IBookViewService {
+
+    long getViews(long bookId) throws Exception;
+    int flush();
+}
@@ -0,0 +1,8 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.CatalogChangePage;
+
+public interface ICatalogChangeService {
+
+    CatalogChangePage getChanges(long since, int limit) throws Exception;
+}
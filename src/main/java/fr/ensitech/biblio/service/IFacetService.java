@@ -0,0 +1,12 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.FacetPage;
+import fr.ensitech.biblio.search.Facet;
+
+import java.util.Map;
+import java.util.Set;
+
+public interface IFacetService {
+
+    FacetPage browse(Map<Facet, Set<String>> filters, int page, int size) throws Exception;
+}
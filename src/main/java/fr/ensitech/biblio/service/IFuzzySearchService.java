@@ -0,0 +1,10 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+
+import java.util.List;
+
+public interface IFuzzySearchService {
+
+    List<SearchHit> search(String text, int limit) throws Exception;
+}
@@ -0,0 +1,17 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.IngestError;
+import fr.ensitech.biblio.entity.IngestFormat;
+import fr.ensitech.biblio.entity.IngestJob;
+
+import java.io.InputStream;
+import java.util.List;
+
+public interface IIngestService {
+
+    IngestJob startJob(IngestFormat format, String fileName, InputStream content) throws Exception;
+    IngestJob resumeJob(long id) throws Exception;
+    IngestJob getJob(long id) throws Exception;
+    List<IngestError> getErrors(long jobId, long after, int limit) throws Exception;
+    int purgeExpiredFiles();
+}
@@ -0,0 +1,7 @@
+package fr.ensitech.biblio.service;
+
+public interface IKnownIsbnService {
+
+    /** Faux : aucun livre n'a cet ISBN (certain). Vrai : il faut vérifier en base. */
+    boolean mightExist(String isbn);
+}
@@ -0,0 +1,12 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.PublicationRangePage;
+
+import java.util.Map;
+
+public interface IPublicationDateService {
+
+    PublicationRangePage getBooksBetweenYears(int startYear, int endYear, int page, int size) throws Exception;
+
+    Map<Integer, Integer> getHistogram(int startYear, int endYear) throws Exception;
+}
@@ -0,0 +1,10 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.RelatedBook;
+
+import java.util.List;
+
+public interface IRecommendationService {
+
+    List<RelatedBook> getRelatedBooks(long bookId, int limit) throws Exception;
+}
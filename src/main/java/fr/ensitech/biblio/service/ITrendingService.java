@@ -0,0 +1,11 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.TrendingBook;
+import fr.ensitech.biblio.search.TrendingPeriod;
+
+import java.util.List;
+
+public interface ITrendingService {
+
+    List<TrendingBook> getTrending(TrendingPeriod period, int limit) throws Exception;
+}
@@ -2,7 +2,7 @@ package fr.ensitech.biblio.service;
 
 import fr.ensitech.biblio.entity.User;
 
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 
@@ -10,7 +10,7 @@ public interface IUserService {
 
     void createUser(User user) throws Exception;
     User getUserById(long id)throws Exception;
-    List<User> getUserByBirthdate(Date dateInf, Date dateSup) throws Exception;
+    List<User> getUserByBirthdate(LocalDate dateInf, LocalDate dateSup) throws Exception;
     void register(User user) throws Exception;
     void activateAccount(String email) throws Exception;
     User login(String email, String password) throws Exception;
@@ -0,0 +1,367 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.*;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.ingest.CatalogReader;
+import fr.ensitech.biblio.ingest.IngestPipeline;
+import fr.ensitech.biblio.ingest.IngestRow;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IIngestErrorRepository;
+import fr.ensitech.biblio.repository.IIngestJobRepository;
+import fr.ensitech.biblio.utils.Isbn;
+import fr.ensitech.biblio.utils.Texts;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Import de catalogues fournisseurs (CSV, ONIX) en tâche de fond, via {@link IngestPipeline}.
+ * Le fichier reçu est d'abord copié sur disque : l'import se relit depuis cette copie, et une reprise
+ * (après un arrêt du serveur ou une erreur) repart de la ligne qui suit le dernier lot commité.
+ * Chaque lot écrit ses livres, ses lignes rejetées et le nouvel offset dans une seule transaction.
+ * La copie est supprimée dès que l'import se termine ; celle d'un import en échec ou interrompu est gardée
+ * pour une reprise pendant {@code biblio.ingest.retention}, puis supprimée par {@link #purgeExpiredFiles()}.
+ */
+@Service
+public class IngestService implements IIngestService {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestService.class);
+
+    public static final int MAX_ERRORS_LIMIT = 1000;
+    private static final int MAX_MESSAGE_LENGTH = 512;
+
+    @Autowired
+    private IIngestJobRepository ingestJobRepository;
+
+    @Autowired
+    private IIngestErrorRepository ingestErrorRepository;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    @Autowired
+    private IAuthorRepository authorRepository;
+
+    @Autowired
+    private IAuthorService authorService;
+
+    @Autowired
+    private IKnownIsbnService knownIsbnService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${biblio.ingest.directory:${java.io.tmpdir}/biblio-ingest}")
+    private String directory;
+
+    @Value("${biblio.ingest.retention:7d}")
+    private Duration retention;
+
+    @Value("${biblio.ingest.workers:4}")
+    private int workers;
+
+    @Value("${biblio.ingest.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${biblio.ingest.batch-size:500}")
+    private int batchSize;
+
+    // un thread par import en cours ; chaque import crée le pool de ses étapes
+    private final ExecutorService jobs = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("ingest-job-", 0).daemon().factory());
+    private final Map<Long, Future<?>> running = new ConcurrentHashMap<>();
+
+    // un import RUNNING au démarrage a été coupé par l'arrêt précédent
+    @EventListener(ApplicationReadyEvent.class)
+    public void markInterruptedJobs() {
+        List<IngestJob> interrupted = ingestJobRepository.findByStatus(IngestJobStatus.RUNNING);
+        for (IngestJob job : interrupted) {
+            job.setStatus(IngestJobStatus.INTERRUPTED);
+            job.setMessage("Interrupted by a server restart");
+            job.setFinishedAt(Instant.now());
+        }
+        ingestJobRepository.saveAll(interrupted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.shutdownNow();
+    }
+
+    @Override
+    public IngestJob startJob(IngestFormat format, String fileName, InputStream content) throws Exception {
+        IngestJob job = new IngestJob();
+        job.setFileName(fileName);
+        job.setFormat(format);
+        job.setStatus(IngestJobStatus.RUNNING);
+        job.setStartedAt(Instant.now());
+        job = ingestJobRepository.save(job);
+        try {
+            Path path = Files.createDirectories(Path.of(directory)).resolve(job.getId() + "." + format.extension());
+            Files.copy(content, path, StandardCopyOption.REPLACE_EXISTING);
+            job.setStoragePath(path.toString());
+            job = ingestJobRepository.save(job);
+        } catch (Exception e) {
+            finish(job.getId(), IngestJobStatus.FAILED, message(e));
+            throw e;
+        }
+        launch(job.getId());
+        return job;
+    }
+
+    @Override
+    public synchronized IngestJob resumeJob(long id) throws Exception {
+        IngestJob job = ingestJobRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ingest job: " + id));
+        if (running.containsKey(id)) {
+            throw new IllegalArgumentException("Ingest job already running: " + id);
+        }
+        if (job.getStatus() == IngestJobStatus.COMPLETED) {
+            throw new IllegalArgumentException("Ingest job already completed: " + id);
+        }
+        if (job.getStoragePath() == null) {
+            throw new IllegalArgumentException("Ingest file no longer available: " + id);
+        }
+        job.setStatus(IngestJobStatus.RUNNING);
+        job.setMessage(null);
+        job.setFinishedAt(null);
+        job = ingestJobRepository.save(job);
+        launch(id);
+        return job;
+    }
+
+    // synchronized comme resumeJob : un fichier n'est jamais supprimé sous un import qui reprend
+    @Override
+    @Scheduled(fixedDelayString = "${biblio.ingest.purge-interval-ms:3600000}")
+    public synchronized int purgeExpiredFiles() {
+        List<IngestJob> expired = ingestJobRepository.findByStatusInAndStoragePathNotNullAndFinishedAtBefore(
+                List.of(IngestJobStatus.FAILED, IngestJobStatus.INTERRUPTED), Instant.now().minus(retention));
+        int purged = 0;
+        for (IngestJob job : expired) {
+            if (!running.containsKey(job.getId()) && deleteFile(job)) {
+                ingestJobRepository.save(job);
+                purged++;
+            }
+        }
+        return purged;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public IngestJob getJob(long id) throws Exception {
+        return ingestJobRepository.findById(id).orElse(null);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IngestError> getErrors(long jobId, long after, int limit) throws Exception {
+        if (limit <= 0 || limit > MAX_ERRORS_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_ERRORS_LIMIT);
+        }
+        return ingestErrorRepository.findByJobIdAndRowNumberGreaterThanOrderByRowNumber(jobId, after, Limit.of(limit));
+    }
+
+    // enregistré avant de démarrer : un import très court ne peut pas se retirer avant d'être inscrit
+    private void launch(long jobId) {
+        FutureTask<Void> task = new FutureTask<>(() -> execute(jobId), null);
+        running.put(jobId, task);
+        jobs.execute(task);
+    }
+
+    private void execute(long jobId) {
+        try {
+            IngestJob job = ingestJobRepository.findById(jobId).orElseThrow();
+            // un auteur n'est cherché (ou créé) qu'une fois par import
+            Map<String, Long> authors = new ConcurrentHashMap<>();
+            IngestPipeline pipeline = new IngestPipeline("ingest-" + jobId, workers, queueCapacity, batchSize,
+                    (firstname, lastname) -> resolveAuthor(authors, firstname, lastname),
+                    rows -> writeBatch(jobId, rows));
+            try (CatalogReader reader = CatalogReader.open(job.getFormat(), Files.newInputStream(Path.of(job.getStoragePath())))) {
+                pipeline.run(reader, job.getCommittedOffset());
+            }
+            finish(jobId, IngestJobStatus.COMPLETED, null);
+        } catch (InterruptedException e) {
+            finish(jobId, IngestJobStatus.INTERRUPTED, "Interrupted by a server shutdown");
+        } catch (Exception e) {
+            log.warn("Ingest job {} failed", jobId, e);
+            finish(jobId, IngestJobStatus.FAILED, message(e));
+        } finally {
+            running.remove(jobId);
+        }
+    }
+
+    private void finish(long jobId, IngestJobStatus status, String message) {
+        ingestJobRepository.findById(jobId).ifPresent(job -> {
+            job.setStatus(status);
+            job.setFinishedAt(Instant.now());
+            job.setMessage(message == null ? null : truncate(message));
+            if (status == IngestJobStatus.COMPLETED) {
+                deleteFile(job);
+            }
+            ingestJobRepository.save(job);
+        });
+    }
+
+    // copie locale qui ne servira plus à aucune reprise ; false si elle n'a pas pu être supprimée
+    private static boolean deleteFile(IngestJob job) {
+        if (job.getStoragePath() == null) {
+            return true;
+        }
+        try {
+            Files.deleteIfExists(Path.of(job.getStoragePath()));
+        } catch (Exception e) {
+            log.warn("Suppression impossible du fichier de l'import {} ({}) : {}", job.getId(), job.getStoragePath(), e.getMessage());
+            return false;
+        }
+        job.setStoragePath(null);
+        return true;
+    }
+
+    private long resolveAuthor(Map<String, Long> cache, String firstname, String lastname) {
+        return cache.computeIfAbsent(Texts.fold(lastname) + '|' + Texts.fold(firstname), key -> {
+            List<Author> found = authorRepository.findByLastnameFoldedAndFirstnameFolded(Texts.fold(lastname), Texts.fold(firstname));
+            if (!found.isEmpty()) {
+                return found.get(0).getId();
+            }
+            Author author = new Author();
+            author.setFirstname(firstname);
+            author.setLastname(lastname);
+            try {
+                authorService.createAuthor(author);
+            } catch (Exception e) {
+                throw new IllegalStateException("Cannot create author " + firstname + " " + lastname, e);
+            }
+            return author.getId();
+        });
+    }
+
+    // un conflit d'unicité (ISBN inséré entre la vérification et l'écriture) annule tout le lot :
+    // on le rejoue ligne par ligne pour ne rejeter que la ligne fautive
+    private void writeBatch(long jobId, List<IngestRow> rows) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        try {
+            transaction.executeWithoutResult(status -> commit(jobId, rows));
+        } catch (DataIntegrityViolationException e) {
+            for (IngestRow row : rows) {
+                try {
+                    transaction.executeWithoutResult(status -> commit(jobId, List.of(row)));
+                } catch (DataIntegrityViolationException conflict) {
+                    row.reject("Rejected by the database: " + conflict.getMostSpecificCause().getMessage());
+                    transaction.executeWithoutResult(status -> commit(jobId, List.of(row)));
+                }
+            }
+        }
+    }
+
+    private void commit(long jobId, List<IngestRow> rows) {
+        IngestJob job = ingestJobRepository.findById(jobId).orElseThrow();
+
+        // doublons dans le lot, puis en base pour les seuls ISBN que le filtre de Bloom ne déclare pas absents
+        Map<Long, IngestRow> byIsbn13 = new LinkedHashMap<>();
+        for (IngestRow row : rows) {
+            if (!row.isRejected() && byIsbn13.putIfAbsent(Isbn.toIsbn13(row.getBook().getIsbn()), row) != null) {
+                row.reject("Duplicate ISBN in file: " + row.getBook().getIsbn());
+            }
+        }
+        List<Long> toCheck = new ArrayList<>();
+        for (Long isbn13 : byIsbn13.keySet()) {
+            if (knownIsbnService.mightExist(Isbn.format(isbn13))) {
+                toCheck.add(isbn13);
+            }
+        }
+        if (!toCheck.isEmpty()) {
+            for (Long existing : bookRepository.findExistingIsbn13s(toCheck)) {
+                byIsbn13.get(existing).reject("Book with same ISBN already exists: " + Isbn.format(existing));
+            }
+        }
+
+        Set<Long> authorIds = new HashSet<>();
+        for (IngestRow row : rows) {
+            if (!row.isRejected()) {
+                authorIds.addAll(row.getAuthorIds());
+            }
+        }
+        Map<Long, Author> authors = new HashMap<>();
+        if (!authorIds.isEmpty()) {
+            for (Author author : authorRepository.findAllById(authorIds)) {
+                authors.put(author.getId(), author);
+            }
+        }
+
+        List<Book> books = new ArrayList<>();
+        List<IngestError> errors = new ArrayList<>();
+        for (IngestRow row : rows) {
+            if (!row.isRejected() && !authors.keySet().containsAll(row.getAuthorIds())) {
+                row.reject("Author deleted during the import");
+            }
+            if (row.isRejected()) {
+                errors.add(error(jobId, row));
+                continue;
+            }
+            Book book = row.getBook();
+            // id alloué lors d'une tentative annulée : le livre reste à créer
+            book.setId(null);
+            Set<Author> bookAuthors = new LinkedHashSet<>();
+            for (Long authorId : row.getAuthorIds()) {
+                bookAuthors.add(authors.get(authorId));
+            }
+            book.setAuthors(bookAuthors);
+            books.add(book);
+        }
+
+        List<Book> saved = bookRepository.saveAll(books);
+        for (Book book : saved) {
+            eventPublisher.publishEvent(new BookChangedEvent(book, ChangeOperation.INSERT));
+        }
+        ingestErrorRepository.saveAll(errors);
+        bookRepository.flush();
+
+        job.setCommittedOffset(rows.get(rows.size() - 1).getRowNumber());
+        job.setRowsWritten(job.getRowsWritten() + saved.size());
+        job.setRowsRejected(job.getRowsRejected() + errors.size());
+        ingestJobRepository.save(job);
+    }
+
+    private static IngestError error(long jobId, IngestRow row) {
+        IngestError error = new IngestError();
+        error.setJobId(jobId);
+        error.setRowNumber(row.getRowNumber());
+        String isbn = row.getRecord().getIsbn();
+        error.setIsbn(isbn == null || isbn.length() <= 32 ? isbn : isbn.substring(0, 32));
+        error.setMessage(truncate(row.getError()));
+        return error;
+    }
+
+    private static String message(Exception e) {
+        return e.getMessage() != null ? e.getMessage() : e.toString();
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= MAX_MESSAGE_LENGTH ? message : message.substring(0, MAX_MESSAGE_LENGTH);
+    }
+}
@@ -0,0 +1,154 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.ScalableBloomFilter;
+import fr.ensitech.biblio.utils.Isbn;
+import fr.ensitech.biblio.utils.Texts;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * ISBN connus du catalogue dans un filtre de Bloom : un ISBN absent du filtre n'existe pas en base,
+ * et la vérification de doublon avant insertion est évitée. La contrainte d'unicité reste la garantie finale.
+ * Le filtre est construit au démarrage puis tenu à jour par les événements du catalogue ;
+ * avant sa première construction, tout ISBN est considéré comme possiblement présent.
+ * Un ISBN est ajouté avant le commit (visible de la transaction qui l'insère, un rollback ne laisse
+ * qu'un faux positif) puis de nouveau après : une transaction validée pendant une reconstruction
+ * est ainsi rejouée dans le nouveau filtre. Les suppressions sont reportées jusqu'à la reconstruction suivante,
+ * lancée en tâche de fond : le commit qui franchit le seuil n'attend pas la relecture des ISBN.
+ */
+@Service
+public class KnownIsbnService implements IKnownIsbnService {
+
+    private static final int INITIAL_CAPACITY = 100_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    // suppressions tolérées (faux positifs supplémentaires) avant reconstruction, en part des clés du filtre
+    private static final double MAX_STALE_RATIO = 0.25;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private ScalableBloomFilter filter;
+    private long stale;
+    // clés ajoutées pendant une reconstruction, rejouées dans le nouveau filtre ; la première
+    // construction couvre tout ce qui précède le démarrage
+    private List<Long> addedDuringRebuild = new ArrayList<>();
+
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("known-isbn-rebuild").daemon().factory());
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    // synchronized : une reconstruction à la fois ; celle qui finit la première ne vide pas le tampon de l'autre
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (addedDuringRebuild == null) {
+                addedDuringRebuild = new ArrayList<>();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<String> isbns = bookRepository.findAllIsbns();
+        ScalableBloomFilter rebuilt = new ScalableBloomFilter(Math.max(INITIAL_CAPACITY, 2 * isbns.size()), FALSE_POSITIVE_RATE);
+        for (String isbn : isbns) {
+            rebuilt.add(key(isbn));
+        }
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild.forEach(rebuilt::add);
+            addedDuringRebuild = null;
+            filter = rebuilt;
+            stale = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean mightExist(String isbn) {
+        if (isbn == null) {
+            return true;
+        }
+        long key = key(isbn);
+        lock.readLock().lock();
+        try {
+            return filter == null || filter.mightContain(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // écouteur synchrone : dans la transaction d'écriture
+    @EventListener
+    public void onBookWritten(BookChangedEvent event) {
+        if (event.getOperation() != ChangeOperation.DELETE && event.getBook().getIsbn() != null) {
+            add(key(event.getBook().getIsbn()));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookCommitted(BookChangedEvent event) {
+        if (event.getOperation() != ChangeOperation.DELETE) {
+            onBookWritten(event);
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            stale++;
+            if (filter == null || addedDuringRebuild != null || stale <= Math.max(1000, filter.size() * MAX_STALE_RATIO)) {
+                return;
+            }
+            // tampon réservé sous le verrou qui teste le seuil : une seule reconstruction par franchissement
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuildExecutor.execute(this::rebuild);
+    }
+
+    private void add(long key) {
+        lock.writeLock().lock();
+        try {
+            if (addedDuringRebuild != null) {
+                addedDuringRebuild.add(key);
+            }
+            if (filter != null) {
+                filter.add(key);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ISBN valide : son ISBN-13 ; code hors norme : hachage du code normalisé (une collision ne donne qu'un faux positif)
+    static long key(String isbn) {
+        Long isbn13 = Isbn.toIsbn13(isbn);
+        if (isbn13 != null) {
+            return isbn13;
+        }
+        String code = Texts.normalizeCode(isbn);
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < code.length(); i++) {
+            hash = (hash ^ code.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,119 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.PublicationRangePage;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.PublicationDateIndex;
+import fr.ensitech.biblio.search.ReplayingIndexLock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Recherches par années de publication servies par un index trié en mémoire :
+ * comptages et histogrammes sans requête SQL, seule la page de livres affichée est lue (par clé primaire).
+ * L'index est construit au démarrage puis tenu à jour par les événements du catalogue, après commit.
+ */
+@Service
+public class PublicationDateService implements IPublicationDateService {
+
+    public static final int MAX_SIZE = 100;
+    public static final int MAX_HISTOGRAM_YEARS = 1000;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    private final ReplayingIndexLock<BookChangedEvent> lock = new ReplayingIndexLock<>(this::apply);
+    private PublicationDateIndex index = new PublicationDateIndex();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.rebuild(() -> {
+            Map<Long, LocalDate> dates = new HashMap<>();
+            for (Object[] row : bookRepository.findAllPublicationDates()) {
+                dates.put((Long) row[0], (LocalDate) row[1]);
+            }
+            return PublicationDateIndex.of(dates);
+        }, rebuilt -> index = rebuilt);
+    }
+
+    @Override
+    public PublicationRangePage getBooksBetweenYears(int startYear, int endYear, int page, int size) throws Exception {
+        checkYears(startYear, endYear);
+        if (page < 0) {
+            throw new IllegalArgumentException("page must be >= 0");
+        }
+        if (size <= 0 || size > MAX_SIZE) {
+            throw new IllegalArgumentException("size must be between 1 and " + MAX_SIZE);
+        }
+        LocalDate from = LocalDate.of(startYear, 1, 1);
+        LocalDate to = LocalDate.of(endYear, 12, 31);
+        int total;
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            total = index.count(from, to);
+            long offset = (long) page * size;
+            ids = offset < total ? index.ids(from, to, (int) offset, size) : new long[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<BookSummary> books = new ArrayList<>(ids.length);
+        if (ids.length > 0) {
+            // ordre de l'index : date puis id
+            List<Long> pageIds = Arrays.stream(ids).boxed().toList();
+            books.addAll(BookSummary.inOrder(pageIds, bookRepository.findSummariesByIdIn(pageIds)).values());
+        }
+        return new PublicationRangePage(startYear, endYear, total, page, size, books);
+    }
+
+    @Override
+    public Map<Integer, Integer> getHistogram(int startYear, int endYear) throws Exception {
+        checkYears(startYear, endYear);
+        if (endYear - startYear >= MAX_HISTOGRAM_YEARS) {
+            throw new IllegalArgumentException("histogram is limited to " + MAX_HISTOGRAM_YEARS + " years");
+        }
+        int[] counts;
+        lock.readLock().lock();
+        try {
+            counts = index.countsByYear(startYear, endYear);
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<Integer, Integer> histogram = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            histogram.put(startYear + i, counts[i]);
+        }
+        return histogram;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        lock.receive(event);
+    }
+
+    // appelé sous le verrou d'écriture
+    private void apply(BookChangedEvent event) {
+        Book book = event.getBook();
+        if (event.getOperation() == ChangeOperation.DELETE) {
+            index.remove(book.getId());
+        } else {
+            index.put(book.getId(), book.getPublicationDate());
+        }
+    }
+
+    private static void checkYears(int startYear, int endYear) {
+        if (startYear <= 0 || endYear <= 0 || startYear > endYear || endYear > 9999) {
+            throw new IllegalArgumentException("Years must satisfy 0 < startYear <= endYear <= 9999");
+        }
+    }
+}
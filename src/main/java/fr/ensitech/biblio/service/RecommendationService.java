@@ -0,0 +1,108 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.RelatedBook;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import fr.ensitech.biblio.search.CoOccurrenceMatrix;
+import fr.ensitech.biblio.search.ReplayingIndexLock;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * "Les utilisateurs ayant réservé ce livre ont aussi réservé..." : matrice de co-occurrence en mémoire,
+ * construite en parallèle au démarrage depuis l'historique des réservations puis tenue à jour
+ * à chaque réservation, après commit. Seule la fiche des livres recommandés est lue en base.
+ */
+@Service
+public class RecommendationService implements IRecommendationService {
+
+    public static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private IReservationRepository reservationRepository;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    // une réservation déjà lue en base n'est pas recomptée au rejeu (un couple compte une fois)
+    private final ReplayingIndexLock<Object> lock = new ReplayingIndexLock<>(this::apply);
+    private CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.rebuild(() -> {
+            Map<Long, LongArrayList> grouped = new HashMap<>();
+            for (Object[] row : reservationRepository.findAllUserBookPairs()) {
+                grouped.computeIfAbsent((Long) row[0], id -> new LongArrayList()).add((long) (Long) row[1]);
+            }
+            Map<Long, long[]> booksByUser = new HashMap<>(grouped.size());
+            grouped.forEach((userId, books) -> booksByUser.put(userId, books.toLongArray()));
+            return CoOccurrenceMatrix.build(booksByUser);
+        }, rebuilt -> matrix = rebuilt);
+    }
+
+    @Override
+    public List<RelatedBook> getRelatedBooks(long bookId, int limit) throws Exception {
+        if (bookId <= 0) {
+            throw new IllegalArgumentException("Book id must be > 0");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        List<CoOccurrenceMatrix.Related> top;
+        lock.readLock().lock();
+        try {
+            top = matrix.top(bookId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        for (CoOccurrenceMatrix.Related related : top) {
+            ids.add(related.bookId());
+        }
+        Map<Long, BookSummary> byId = BookSummary.inOrder(ids, bookRepository.findSummariesByIdIn(ids));
+        List<RelatedBook> books = new ArrayList<>(top.size());
+        for (CoOccurrenceMatrix.Related related : top) {
+            BookSummary summary = byId.get(related.bookId());
+            if (summary != null) {
+                books.add(new RelatedBook(summary, related.count()));
+            }
+        }
+        return books;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookReserved(BookReservedEvent event) {
+        lock.receive(event);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getOperation() == ChangeOperation.DELETE) {
+            lock.receive(event);
+        }
+    }
+
+    // appelé sous le verrou d'écriture
+    private void apply(Object event) {
+        switch (event) {
+            case BookReservedEvent reserved -> matrix.add(reserved.getUserId(), reserved.getBookId());
+            case BookChangedEvent changed -> matrix.removeBook(changed.getBook().getId());
+            default -> throw new IllegalArgumentException("Unexpected event: " + event);
+        }
+    }
+}
@@ -3,13 +3,15 @@ package fr.ensitech.biblio.service;
 import fr.ensitech.biblio.entity.Book;
 import fr.ensitech.biblio.entity.Reservation;
 import fr.ensitech.biblio.entity.User;
+import fr.ensitech.biblio.event.BookReservedEvent;
 import fr.ensitech.biblio.repository.IBookRepository;
 import fr.ensitech.biblio.repository.IReservationRepository;
 import fr.ensitech.biblio.repository.IUserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.util.Date;
+import java.time.Instant;
 import java.util.List;
 
 @Service
@@ -24,6 +26,9 @@ public class ReservationService implements IReservationService {
     @Autowired
     private IBookRepository bookRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public void reserveBook(Long bookId, String userEmail) throws Exception {
 
@@ -53,8 +58,9 @@ public class ReservationService implements IReservationService {
         Reservation reservation = new Reservation();
         reservation.setUser(user);
         reservation.setBook(book);
-        reservation.setReservationDate(new Date());
+        reservation.setReservationDate(Instant.now());
         reservation.setActive(true);
         reservationRepository.save(reservation);
+        eventPublisher.publishEvent(new BookReservedEvent(book.getId(), user.getId()));
     }
 }
@@ -0,0 +1,115 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.TrendingBook;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.event.BookViewedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.SlidingTopK;
+import fr.ensitech.biblio.search.TrendingPeriod;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+
+/**
+ * Livres en vogue sur la dernière heure et le dernier jour, d'après les consultations de fiches et les réservations.
+ * Les compteurs sont approchés (sketches count-min par tranche de temps) : l'empreinte mémoire est fixe
+ * quelle que soit la taille du catalogue. Rien n'est écrit en base ; seule la fiche des livres affichés y est lue.
+ */
+@Service
+public class TrendingService implements ITrendingService {
+
+    public static final int MAX_LIMIT = 50;
+
+    // 4 × 2048 compteurs par tranche : surestimation d'au plus ~0,13 % des événements de la fenêtre
+    private static final int SKETCH_WIDTH = 2048;
+    private static final int SKETCH_DEPTH = 4;
+    // marge de candidats au-delà de la limite affichable
+    private static final int CANDIDATES = 4 * MAX_LIMIT;
+
+    @Autowired
+    private IBookRepository bookRepository;
+
+    // une réservation pèse plus qu'une simple consultation
+    @Value("${biblio.trending.reservation-weight:5}")
+    private int reservationWeight;
+
+    private final Map<TrendingPeriod, SlidingTopK> counters = new EnumMap<>(TrendingPeriod.class);
+
+    public TrendingService() {
+        for (TrendingPeriod period : TrendingPeriod.values()) {
+            counters.put(period, new SlidingTopK(period.buckets(), period.bucketLength().toMillis(),
+                    SKETCH_WIDTH, SKETCH_DEPTH, CANDIDATES));
+        }
+    }
+
+    @Override
+    public List<TrendingBook> getTrending(TrendingPeriod period, int limit) throws Exception {
+        if (period == null) {
+            throw new IllegalArgumentException("period is required");
+        }
+        if (limit <= 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        SlidingTopK counter = counters.get(period);
+        List<SlidingTopK.Entry> top;
+        synchronized (counter) {
+            top = counter.top(limit, System.currentTimeMillis());
+        }
+        if (top.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = new ArrayList<>(top.size());
+        for (SlidingTopK.Entry entry : top) {
+            ids.add(entry.key());
+        }
+        Map<Long, BookSummary> byId = BookSummary.inOrder(ids, bookRepository.findSummariesByIdIn(ids));
+        List<TrendingBook> books = new ArrayList<>(top.size());
+        for (SlidingTopK.Entry entry : top) {
+            BookSummary summary = byId.get(entry.key());
+            if (summary != null) {
+                books.add(new TrendingBook(summary, entry.count()));
+            }
+        }
+        return books;
+    }
+
+    @EventListener
+    public void onBookViewed(BookViewedEvent event) {
+        record(event.getBookId(), 1);
+    }
+
+    // une réservation annulée par rollback ne compte pas
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookReserved(BookReservedEvent event) {
+        record(event.getBookId(), reservationWeight);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookChanged(BookChangedEvent event) {
+        if (event.getOperation() != ChangeOperation.DELETE) {
+            return;
+        }
+        for (SlidingTopK counter : counters.values()) {
+            synchronized (counter) {
+                counter.remove(event.getBook().getId());
+            }
+        }
+    }
+
+    private void record(Long bookId, int weight) {
+        long now = System.currentTimeMillis();
+        for (SlidingTopK counter : counters.values()) {
+            synchronized (counter) {
+                counter.add(bookId, weight, now);
+            }
+        }
+    }
+}
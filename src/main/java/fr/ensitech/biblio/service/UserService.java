@@ -10,11 +10,17 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.*;
 
 @Service
 public class UserService implements IUserService {
 
+    // Durée de validité d'un mot de passe : 12 semaines
+    private static final Duration PASSWORD_VALIDITY = Duration.ofDays(12 * 7);
+
     @Autowired
     private IUserRepository userRepository;
 
@@ -39,7 +45,7 @@ public class UserService implements IUserService {
     }
 
     @Override
-    public List<User> getUserByBirthdate(Date dateInf, Date dateSup) throws Exception {
+    public List<User> getUserByBirthdate(LocalDate dateInf, LocalDate dateSup) throws Exception {
         return userRepository.findByBirthdateBetween(dateInf, dateSup);
     }
 
@@ -75,7 +81,7 @@ public class UserService implements IUserService {
 
         user.setSecurityQuestion(question);
         user.setActive(false);
-        user.setLastPasswordChange(new Date());
+        user.setLastPasswordChange(Instant.now());
 
         // On ne stocke pas les champs transient
         user.setSecurityQuestionId(null);
@@ -102,7 +108,8 @@ public class UserService implements IUserService {
     // ==========================
     @Override
     public User login(String email, String password) throws Exception {
-        User user = userRepository.findByEmail(email);
+        // la question secrète est renvoyée par le controller : chargée ici avec l'utilisateur
+        User user = userRepository.findWithSecurityQuestionByEmail(email);
 
         if (user == null) {
             throw new Exception("Identifiants invalides");
@@ -189,7 +196,7 @@ public class UserService implements IUserService {
         // Nouveau hash
         String hashedNewPwd = passwordEncoder.encode(newPassword);
         user.setPassword(hashedNewPwd);
-        user.setLastPasswordChange(new Date());
+        user.setLastPasswordChange(Instant.now());
 
         userRepository.save(user);
     }
@@ -268,7 +275,7 @@ public class UserService implements IUserService {
         // hash nouveau
         String hashedNewPwd = passwordEncoder.encode(newPassword);
         user.setPassword(hashedNewPwd);
-        user.setLastPasswordChange(new Date());
+        user.setLastPasswordChange(Instant.now());
 
         userRepository.save(user);
     }
@@ -276,16 +283,11 @@ public class UserService implements IUserService {
     // ==========================
     //  PRIVATE HELPERS
     // ==========================
-    private boolean isPasswordExpired(Date lastChange) {
+    private boolean isPasswordExpired(Instant lastChange) {
         if (lastChange == null) {
             return true; // on force le renouvellement si aucune date
         }
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(lastChange);
-        cal.add(Calendar.WEEK_OF_YEAR, 12); // +12 semaines
-
-        Date expiry = cal.getTime();
-        return new Date().after(expiry);
+        return Instant.now().isAfter(lastChange.plus(PASSWORD_VALIDITY));
     }
 
     private String normalizeSecurityAnswer(String answer) {
@@ -296,7 +298,7 @@ public class UserService implements IUserService {
         PasswordHistory ph = new PasswordHistory();
         ph.setUser(user);
         ph.setPasswordHash(passwordHash);
-        ph.setChangeDate(new Date());
+        ph.setChangeDate(Instant.now());
         passwordHistoryRepository.save(ph);
 
         // ne garder que les 5 derniers
@@ -1,20 +1,24 @@
 package fr.ensitech.biblio.utils;
 
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
 
 public final class Dates {
 
     private Dates() {
     }
 
-    private static final String formatDate = "dd/MM/yyyy";
+    // DateTimeFormatter est immuable et thread-safe : une seule instance partagée
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("dd/MM/uuuu")
+            .withResolverStyle(ResolverStyle.STRICT);
 
-    public static final java.util.Date convertStringToDate(String dateStr) throws Exception {
-        return (new SimpleDateFormat(formatDate)).parse(dateStr);
+    public static LocalDate convertStringToDate(String dateStr) {
+        return LocalDate.parse(dateStr, FORMATTER);
     }
 
-    public static final String convertDateToString(java.util.Date date) throws Exception {
-        return (new SimpleDateFormat(formatDate)).format(date);
+    public static String convertDateToString(LocalDate date) {
+        return FORMATTER.format(date);
     }
 
 }
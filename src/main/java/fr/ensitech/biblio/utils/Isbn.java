@@ -0,0 +1,84 @@
+package fr.ensitech.biblio.utils;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class Isbn {
+
+    private Isbn() {
+    }
+
+    // préfixe facultatif "ISBN", "ISBN-10:", "ISBN-13 " ; séparateurs tolérés : tirets et espaces
+    private static final Pattern PREFIX = Pattern.compile("^ISBN(-?1[03])?:?");
+    private static final Pattern SEPARATORS = Pattern.compile("[\\s-]+");
+
+    /**
+     * ISBN-13 canonique, sous forme de nombre, d'un ISBN-10 ou ISBN-13 ("2-07-036024-8", "978 2 07 036024 6"...).
+     * Renvoie null si le code n'est pas un ISBN valide (longueur, caractères, préfixe EAN ou clé de contrôle).
+     */
+    public static Long toIsbn13(String code) {
+        if (code == null) {
+            return null;
+        }
+        String digits = SEPARATORS.matcher(code.strip().toUpperCase(Locale.ROOT)).replaceAll("");
+        digits = PREFIX.matcher(digits).replaceFirst("");
+        if (digits.length() == 10) {
+            if (!isValid10(digits)) {
+                return null;
+            }
+            String first12 = "978" + digits.substring(0, 9);
+            return Long.parseLong(first12 + checkDigit13(first12));
+        }
+        if (digits.length() == 13) {
+            return isValid13(digits) ? Long.parseLong(digits) : null;
+        }
+        return null;
+    }
+
+    public static boolean isValid(String code) {
+        return toIsbn13(code) != null;
+    }
+
+    /** Forme affichable sur 13 chiffres d'un ISBN-13 canonique. */
+    public static String format(long isbn13) {
+        return String.format("%013d", isbn13);
+    }
+
+    private static boolean isValid10(String digits) {
+        int sum = 0;
+        for (int i = 0; i < 10; i++) {
+            char c = digits.charAt(i);
+            int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c == 'X' && i == 9) {
+                value = 10;
+            } else {
+                return false;
+            }
+            sum += (10 - i) * value;
+        }
+        return sum % 11 == 0;
+    }
+
+    private static boolean isValid13(String digits) {
+        for (int i = 0; i < 13; i++) {
+            if (digits.charAt(i) < '0' || digits.charAt(i) > '9') {
+                return false;
+            }
+        }
+        if (!digits.startsWith("978") && !digits.startsWith("979")) {
+            return false;
+        }
+        return checkDigit13(digits.substring(0, 12)) == digits.charAt(12) - '0';
+    }
+
+    // clé EAN-13 : poids alternés 1 et 3 sur les 12 premiers chiffres
+    private static int checkDigit13(String first12) {
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (first12.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return (10 - sum % 10) % 10;
+    }
+}
@@ -0,0 +1,50 @@
+package fr.ensitech.biblio.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class Texts {
+
+    private Texts() {
+    }
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Forme normalisée pour l'indexation et la recherche : minuscules, sans accents,
+     * ponctuation remplacée par un espace simple ("L'Étranger" → "l etranger").
+     */
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String withoutDiacritics = DIACRITICS.matcher(decomposed).replaceAll("");
+        return SEPARATORS.matcher(withoutDiacritics.toLowerCase(Locale.ROOT)).replaceAll(" ").strip();
+    }
+
+    /** Forme normalisée d'un code (ISBN...) : sans espaces autour, en majuscules. */
+    public static String normalizeCode(String code) {
+        return code == null ? null : code.strip().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Suffixes d'un texte normalisé commençant à chaque mot :
+     * "le petit prince" → ["le petit prince", "petit prince", "prince"].
+     */
+    public static List<String> wordSuffixes(String folded) {
+        List<String> suffixes = new ArrayList<>();
+        if (folded.isEmpty()) {
+            return suffixes;
+        }
+        suffixes.add(folded);
+        for (int i = folded.indexOf(' '); i >= 0; i = folded.indexOf(' ', i + 1)) {
+            suffixes.add(folded.substring(i + 1));
+        }
+        return suffixes;
+    }
+}
@@ -0,0 +1,73 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.service.AutocompleteService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Suggestions d'autocomplétion (top 10) sur un catalogue synthétique de 100 000 livres
+ * et 20 000 auteurs, pour des préfixes de 1 à 6 caractères.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AutocompleteBenchmark {
+
+    private static final String[] WORDS = {"le", "la", "petit", "prince", "histoire", "java", "programmation",
+            "voyage", "nuit", "guerre", "paix", "misérables", "étranger", "peste", "château", "mer", "roman",
+            "secret", "jardin", "lumière", "ombre", "temps", "mémoire", "révolution", "cuisine", "science"};
+
+    @Param({"p", "pro", "progra", "histoire d"})
+    private String prefix;
+
+    private AutocompleteService autocompleteService;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<Long, Author> authors = new HashMap<>();
+        for (long id = 1; id <= 20_000; id++) {
+            authors.put(id, Author.builder().id(id).firstname("Prenom" + id).lastname("Nom" + (id * 7919 % 20_000)).build());
+        }
+        Map<Long, Book> books = new HashMap<>();
+        for (long id = 1; id <= 100_000; id++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0, n = 2 + random.nextInt(4); w < n; w++) {
+                title.append(w == 0 ? "" : " ").append(WORDS[random.nextInt(WORDS.length)]);
+            }
+            books.put(id, Book.builder().id(id).title(title + " " + id)
+                    .author(authors.get(1 + random.nextLong(20_000))).build());
+        }
+
+        autocompleteService = new AutocompleteService();
+        ReflectionTestUtils.setField(autocompleteService, "bookRepository", InMemoryRepositories.books(books));
+        ReflectionTestUtils.setField(autocompleteService, "authorRepository", InMemoryRepositories.authors(authors));
+        ReflectionTestUtils.setField(autocompleteService, "reservationRepository",
+                InMemoryRepositories.reservations(new AtomicLong()));
+        autocompleteService.rebuild();
+        // popularité non uniforme : quelques livres très réservés
+        for (int i = 0; i < 200_000; i++) {
+            long bookId = 1 + (long) (Math.pow(random.nextDouble(), 4) * 100_000);
+            autocompleteService.onBookReserved(new BookReservedEvent(Math.min(bookId, 100_000), 1L));
+        }
+    }
+
+    @Benchmark
+    public List<SearchHit> suggest() throws Exception {
+        return autocompleteService.suggest(prefix, 10);
+    }
+}
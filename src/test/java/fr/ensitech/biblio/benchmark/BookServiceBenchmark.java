@@ -0,0 +1,36 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.service.BookService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure la construction des bornes de dates de getBooksBetweenYears,
+ * le repository renvoyant une liste vide.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookServiceBenchmark {
+
+    private BookService bookService;
+
+    @Setup
+    public void setUp() {
+        bookService = new BookService();
+        ReflectionTestUtils.setField(bookService, "bookRepository", InMemoryRepositories.books(new HashMap<>()));
+    }
+
+    @Benchmark
+    public List<Book> getBooksBetweenYears() throws Exception {
+        return bookService.getBooksBetweenYears(1990, 2010);
+    }
+}
@@ -0,0 +1,55 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.utils.Dates;
+import org.openjdk.jmh.annotations.*;
+
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversions de dates. Le profil Maven "benchmark" active "-prof gc" :
+ * gc.alloc.rate.norm donne les octets alloués par conversion.
+ * Les variantes legacy* reproduisent l'ancienne implémentation (SimpleDateFormat par appel)
+ * pour servir de point de comparaison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DatesBenchmark {
+
+    private String dateStr;
+    private LocalDate date;
+    private Date legacyDate;
+
+    @Setup
+    public void setUp() throws Exception {
+        dateStr = "15/03/2000";
+        date = Dates.convertStringToDate(dateStr);
+        legacyDate = new SimpleDateFormat("dd/MM/yyyy").parse(dateStr);
+    }
+
+    @Benchmark
+    public LocalDate convertStringToDate() {
+        return Dates.convertStringToDate(dateStr);
+    }
+
+    @Benchmark
+    public String convertDateToString() {
+        return Dates.convertDateToString(date);
+    }
+
+    @Benchmark
+    public Date legacyConvertStringToDate() throws Exception {
+        return new SimpleDateFormat("dd/MM/yyyy").parse(dateStr);
+    }
+
+    @Benchmark
+    public String legacyConvertDateToString() {
+        return new SimpleDateFormat("dd/MM/yyyy").format(legacyDate);
+    }
+}
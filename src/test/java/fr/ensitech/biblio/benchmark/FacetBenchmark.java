@@ -0,0 +1,68 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.dto.FacetPage;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.search.Facet;
+import fr.ensitech.biblio.service.FacetService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Navigation par facettes (page de 20 livres et compteurs de toutes les facettes) sur un catalogue
+ * synthétique de 100 000 livres, sans filtre, avec un filtre, et avec trois filtres combinés.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FacetBenchmark {
+
+    private static final String[] CATEGORIES = {"roman", "essai", "poésie", "théâtre", "bd", "jeunesse",
+            "histoire", "science", "informatique", "cuisine", "voyage", "policier"};
+    private static final String[] LANGUAGES = {"fr", "en", "es", "de", "it"};
+
+    @Param({"none", "category", "category+language+decade"})
+    private String filter;
+
+    private FacetService facetService;
+    private Map<Facet, Set<String>> filters;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        Map<Long, Book> books = new HashMap<>();
+        for (long id = 1; id <= 100_000; id++) {
+            books.put(id, Book.builder().id(id).title("Livre " + id).isbn("isbn" + id)
+                    .category(CATEGORIES[random.nextInt(CATEGORIES.length)])
+                    .language(LANGUAGES[Math.min(random.nextInt(8), LANGUAGES.length - 1)])
+                    .editor("Editeur" + random.nextInt(500))
+                    .published(random.nextInt(10) > 0)
+                    .publicationDate(LocalDate.of(1900 + random.nextInt(125), 1 + random.nextInt(12), 1))
+                    .build());
+        }
+        facetService = new FacetService();
+        ReflectionTestUtils.setField(facetService, "bookRepository", InMemoryRepositories.books(books));
+        facetService.rebuild();
+
+        filters = switch (filter) {
+            case "category" -> Map.of(Facet.CATEGORY, Set.of("roman"));
+            case "category+language+decade" -> Map.of(Facet.CATEGORY, Set.of("roman", "policier"),
+                    Facet.LANGUAGE, Set.of("fr"), Facet.DECADE, Set.of("1990", "2000"));
+            default -> Map.of();
+        };
+    }
+
+    @Benchmark
+    public FacetPage browse() throws Exception {
+        return facetService.browse(filters, 3, 20);
+    }
+}
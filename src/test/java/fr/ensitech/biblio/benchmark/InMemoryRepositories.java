@@ -0,0 +1,100 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.User;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import fr.ensitech.biblio.repository.IUserRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implémentations en mémoire (via {@link Proxy}) des repositories utilisés par les benchmarks.
+ * Seules les méthodes appelées par les services mesurés sont supportées.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static IUserRepository users(Map<String, User> usersByEmail) {
+        return proxy(IUserRepository.class, (name, args) -> switch (name) {
+            case "findByEmail" -> usersByEmail.get((String) args[0]);
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static IBookRepository books(Map<Long, Book> booksById) {
+        return proxy(IBookRepository.class, (name, args) -> switch (name) {
+            case "findById" -> Optional.ofNullable(booksById.get((Long) args[0]));
+            case "findByPublicationDateBetween" -> List.of();
+            case "findAllTitles" -> booksById.values().stream()
+                    .map(book -> new Object[]{book.getId(), book.getTitle()}).toList();
+            case "findAllAuthorLinks" -> booksById.values().stream()
+                    .flatMap(book -> book.getAuthors().stream().map(author -> new Object[]{book.getId(), author.getId()}))
+                    .toList();
+            case "findAllFacetValues" -> booksById.values().stream()
+                    .map(book -> new Object[]{book.getId(), book.getCategory(), book.getLanguage(), book.getEditor(),
+                            book.isPublished(), book.getPublicationDate()})
+                    .toList();
+            case "findSummariesByIdIn" -> ((Collection<?>) args[0]).stream()
+                    .map(booksById::get)
+                    .map(book -> new BookSummary(book.getId(), book.getIsbn(), book.getTitle(), book.getEditor(),
+                            null, book.getCategory(), book.getLanguage(), true))
+                    .toList();
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    static IAuthorRepository authors(Map<Long, Author> authorsById) {
+        return proxy(IAuthorRepository.class, (name, args) -> switch (name) {
+            case "findAllNames" -> authorsById.values().stream()
+                    .map(author -> new Object[]{author.getId(), author.getFirstname(), author.getLastname()}).toList();
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    /**
+     * Les réservations ne sont pas conservées : chaque appel de reserveBook doit
+     * parcourir le chemin nominal complet, quel que soit le nombre d'itérations.
+     */
+    static IReservationRepository reservations(AtomicLong saved) {
+        return proxy(IReservationRepository.class, (name, args) -> switch (name) {
+            case "existsByUserAndBookAndActiveTrue" -> false;
+            case "findByUserAndActiveTrue" -> List.of();
+            case "countByBookAndActiveTrue" -> 0L;
+            case "countAllByBook" -> List.of();
+            case "save" -> {
+                saved.incrementAndGet();
+                yield args[0];
+            }
+            default -> throw new UnsupportedOperationException(name);
+        });
+    }
+
+    private interface Handler {
+        Object handle(String methodName, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "InMemory";
+                };
+            }
+            return handler.handle(method.getName(), args);
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package fr.ensitech.biblio.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût de BCrypt (encode / matches) selon le facteur de travail.
+ * La valeur 10 correspond au BCryptPasswordEncoder par défaut de SecurityConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"4", "8", "10", "12"})
+    private int strength;
+
+    private BCryptPasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        encoder = new BCryptPasswordEncoder(strength);
+        hash = encoder.encode("Secret2025!");
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Secret2025!");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("Secret2025!", hash);
+    }
+}
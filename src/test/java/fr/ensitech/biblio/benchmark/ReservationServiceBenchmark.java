@@ -0,0 +1,55 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.User;
+import fr.ensitech.biblio.service.ReservationService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chemin nominal de reserveBook sur des repositories en mémoire :
+ * mesure le coût propre du service (contrôles + construction de la réservation).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationServiceBenchmark {
+
+    private ReservationService reservationService;
+    private final AtomicLong saved = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        User user = new User();
+        user.setId(1L);
+        user.setEmail("lucas@test.com");
+
+        Book book = new Book();
+        book.setId(10L);
+        book.setTitle("Java");
+        book.setStock(5);
+
+        reservationService = new ReservationService();
+        ReflectionTestUtils.setField(reservationService, "userRepository",
+                InMemoryRepositories.users(Map.of(user.getEmail(), user)));
+        ReflectionTestUtils.setField(reservationService, "bookRepository",
+                InMemoryRepositories.books(Map.of(book.getId(), book)));
+        ReflectionTestUtils.setField(reservationService, "reservationRepository",
+                InMemoryRepositories.reservations(saved));
+        ReflectionTestUtils.setField(reservationService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+    }
+
+    @Benchmark
+    public long reserveBook() throws Exception {
+        reservationService.reserveBook(10L, "lucas@test.com");
+        return saved.get();
+    }
+}
@@ -0,0 +1,43 @@
+package fr.ensitech.biblio.benchmark;
+
+import fr.ensitech.biblio.controller.UserController;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mesure la sérialisation manuelle de la réponse de login (UserController.toJson, privée).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserControllerBenchmark {
+
+    private UserController controller;
+    private MethodHandle toJson;
+    private Map<String, String> body;
+
+    @Setup
+    public void setUp() throws Exception {
+        controller = new UserController();
+        toJson = MethodHandles.privateLookupIn(UserController.class, MethodHandles.lookup())
+                .findVirtual(UserController.class, "toJson", MethodType.methodType(String.class, Map.class));
+
+        body = new HashMap<>();
+        body.put("email", "lucas@test.com");
+        body.put("securityQuestion", "Quel est le nom de votre premier animal ?");
+    }
+
+    @Benchmark
+    public String toJson() throws Throwable {
+        return (String) toJson.invokeExact(controller, body);
+    }
+}
@@ -0,0 +1,80 @@
+package fr.ensitech.biblio.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaHealth replicaHealth;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        replicaHealth = new ReplicaHealth();
+        replicaHealth.update("replica-0", true);
+        replicaHealth.update("replica-1", true);
+        routing = new ReplicaRoutingDataSource(List.of("replica-0", "replica-1"), replicaHealth);
+        ReadYourWritesContext.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        ReadYourWritesContext.clear();
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    @Test
+    @DisplayName("Une transaction read-only est envoyée aux réplicas en round-robin")
+    void shouldRouteReadOnlyToReplicas() {
+        beginTransaction(true);
+
+        assertThat(List.of(routing.determineCurrentLookupKey(), routing.determineCurrentLookupKey()))
+                .containsExactlyInAnyOrder("replica-0", "replica-1");
+    }
+
+    @Test
+    @DisplayName("Une transaction en écriture va au primaire, et les lectures suivantes aussi")
+    void shouldStickToPrimaryAfterWrite() {
+        beginTransaction(false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        beginTransaction(true);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+
+        ReadYourWritesContext.clear();
+        assertThat((String) routing.determineCurrentLookupKey()).startsWith("replica-");
+    }
+
+    @Test
+    @DisplayName("Les réplicas en retard sont ignorés, repli sur le primaire si aucun n'est sain")
+    void shouldSkipUnhealthyReplicas() {
+        beginTransaction(true);
+        replicaHealth.update("replica-0", false);
+
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo("replica-1");
+
+        replicaHealth.update("replica-1", false);
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+    }
+
+    @Test
+    @DisplayName("Hors transaction, le primaire est utilisé sans rendre le contexte collant")
+    void shouldUsePrimaryOutsideTransaction() {
+        assertThat(routing.determineCurrentLookupKey()).isEqualTo(ReplicaRoutingDataSource.PRIMARY);
+        assertThat(ReadYourWritesContext.isPrimarySticky()).isFalse();
+    }
+}
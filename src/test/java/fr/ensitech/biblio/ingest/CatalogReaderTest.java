@@ -0,0 +1,143 @@
+package fr.ensitech.biblio.ingest;
+
+import fr.ensitech.biblio.entity.IngestFormat;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CatalogReaderTest {
+
+    @Test
+    @SneakyThrows
+    @DisplayName("CSV : colonnes par nom, guillemets doublés, retour à la ligne dans un champ, plusieurs auteurs")
+    void shouldReadQuotedCsv() {
+        String csv = """
+                title,isbn,authors,description,unknown,stock
+                "L'Étranger",978-2-07-036024-6,Albert Camus,"Roman, 1942",x,3
+                "Le ""Petit"" Prince",9782900000014,"Saint-Exupéry, Antoine; Jean Dupont","ligne 1
+                ligne 2",,
+                """;
+
+        List<CatalogRecord> records = readAll(IngestFormat.CSV, csv);
+
+        assertThat(records).hasSize(2);
+        assertThat(records.get(0).getRowNumber()).isEqualTo(1);
+        assertThat(records.get(0).getTitle()).isEqualTo("L'Étranger");
+        assertThat(records.get(0).getDescription()).isEqualTo("Roman, 1942");
+        assertThat(records.get(0).getStock()).isEqualTo("3");
+        assertThat(records.get(1).getTitle()).isEqualTo("Le \"Petit\" Prince");
+        assertThat(records.get(1).getAuthors()).containsExactly("Saint-Exupéry, Antoine", "Jean Dupont");
+        assertThat(records.get(1).getDescription()).isEqualTo("ligne 1\nligne 2");
+        assertThat(records.get(1).getRowNumber()).isEqualTo(2);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("CSV : séparateur point-virgule déduit de l'en-tête, BOM ignoré, ligne mal formée signalée sans arrêter la lecture")
+    void shouldDetectSemicolonAndReportBadRows() {
+        String csv = "\uFEFFISBN;Title;Publication date\r\n"
+                + "9782900000021;Un;2001-02-03\r\n"
+                + "\r\n"
+                + "9782900000038;Deux;2002;en trop\r\n"
+                + "9782900000045;Trois;\r\n";
+
+        List<CatalogRecord> records = readAll(IngestFormat.CSV, csv);
+
+        assertThat(records).extracting(CatalogRecord::getRowNumber).containsExactly(1L, 2L, 3L);
+        assertThat(records.get(0).getPublicationDate()).isEqualTo("2001-02-03");
+        assertThat(records.get(1).getError()).isEqualTo("Expected 3 columns, found 4");
+        assertThat(records.get(2).getTitle()).isEqualTo("Trois");
+    }
+
+    @Test
+    @DisplayName("CSV sans colonne isbn ou title refusé")
+    void shouldRejectCsvWithoutRequiredColumns() {
+        assertThatThrownBy(() -> readAll(IngestFormat.CSV, "isbn,auteur\n1,2\n"))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("ONIX 3.0 : ISBN-13, titre, contributeurs, éditeur, date de publication, langue, pages")
+    void shouldReadOnixProducts() {
+        String onix = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <ONIXMessage release="3.0" xmlns="http://ns.editeur.org/onix/3.0/reference">
+                  <Header><Sender><SenderName>Distributeur</SenderName></Sender></Header>
+                  <Product>
+                    <RecordReference>ref-1</RecordReference>
+                    <ProductIdentifier><ProductIDType>01</ProductIDType><IDValue>interne-1</IDValue></ProductIdentifier>
+                    <ProductIdentifier><ProductIDType>15</ProductIDType><IDValue>9782070360246</IDValue></ProductIdentifier>
+                    <DescriptiveDetail>
+                      <TitleDetail><TitleType>01</TitleType>
+                        <TitleElement><TitleElementLevel>01</TitleElementLevel><TitleText>L'Étranger</TitleText></TitleElement>
+                      </TitleDetail>
+                      <Contributor><ContributorRole>A01</ContributorRole><PersonNameInverted>Camus, Albert</PersonNameInverted></Contributor>
+                      <Contributor><ContributorRole>A12</ContributorRole>
+                        <NamesBeforeKey>Antoine</NamesBeforeKey><KeyNames>de Saint-Exupéry</KeyNames>
+                      </Contributor>
+                      <Language><LanguageRole>01</LanguageRole><LanguageCode>fre</LanguageCode></Language>
+                      <Extent><ExtentType>00</ExtentType><ExtentValue>184</ExtentValue><ExtentUnit>03</ExtentUnit></Extent>
+                      <Subject><SubjectSchemeIdentifier>10</SubjectSchemeIdentifier><SubjectHeadingText>Roman</SubjectHeadingText></Subject>
+                    </DescriptiveDetail>
+                    <CollateralDetail><TextContent><TextType>03</TextType><Text><![CDATA[Aujourd'hui, maman est morte.]]></Text></TextContent></CollateralDetail>
+                    <PublishingDetail>
+                      <Publisher><PublishingRole>01</PublishingRole><PublisherName>Gallimard</PublisherName></Publisher>
+                      <PublishingDate><PublishingDateRole>11</PublishingDateRole><Date>19400101</Date></PublishingDate>
+                      <PublishingDate><PublishingDateRole>01</PublishingDateRole><Date>19420519</Date></PublishingDate>
+                    </PublishingDetail>
+                  </Product>
+                  <Product>
+                    <ProductIdentifier><ProductIDType>02</ProductIDType><IDValue>2070360245</IDValue></ProductIdentifier>
+                  </Product>
+                </ONIXMessage>
+                """;
+
+        List<CatalogRecord> records = readAll(IngestFormat.ONIX, onix);
+
+        assertThat(records).hasSize(2);
+        CatalogRecord first = records.get(0);
+        assertThat(first.getIsbn()).isEqualTo("9782070360246");
+        assertThat(first.getTitle()).isEqualTo("L'Étranger");
+        assertThat(first.getAuthors()).containsExactly("Camus, Albert", "de Saint-Exupéry, Antoine");
+        assertThat(first.getEditor()).isEqualTo("Gallimard");
+        assertThat(first.getPublicationDate()).isEqualTo("19420519");
+        assertThat(first.getLanguage()).isEqualTo("fre");
+        assertThat(first.getNbPages()).isEqualTo("184");
+        assertThat(first.getCategory()).isEqualTo("Roman");
+        assertThat(first.getDescription()).isEqualTo("Aujourd'hui, maman est morte.");
+        assertThat(records.get(1).getIsbn()).isEqualTo("2070360245");
+        assertThat(records.get(1).getRowNumber()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("ONIX : les entités externes ne sont pas résolues")
+    void shouldNotResolveExternalEntities() {
+        String onix = """
+                <?xml version="1.0"?>
+                <!DOCTYPE ONIXMessage [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+                <ONIXMessage><Product><DescriptiveDetail><TitleDetail><TitleElement>
+                <TitleText>&secret;</TitleText></TitleElement></TitleDetail></DescriptiveDetail></Product></ONIXMessage>
+                """;
+
+        assertThatThrownBy(() -> readAll(IngestFormat.ONIX, onix)).isInstanceOf(IOException.class);
+    }
+
+    private static List<CatalogRecord> readAll(IngestFormat format, String content) throws IOException {
+        List<CatalogRecord> records = new ArrayList<>();
+        try (CatalogReader reader = CatalogReader.open(format, new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)))) {
+            for (CatalogRecord record = reader.next(); record != null; record = reader.next()) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,169 @@
+package fr.ensitech.biblio.ingest;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Timeout(30)
+class IngestPipelineTest {
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Étapes parallèles, écriture dans l'ordre du fichier par lots de lignes consécutives")
+    void shouldWriteRowsInOrder() {
+        List<List<IngestRow>> batches = Collections.synchronizedList(new ArrayList<>());
+        IngestPipeline pipeline = new IngestPipeline("test", 4, 16, 100,
+                (firstname, lastname) -> {
+                    // résolutions de durées inégales : les lignes sortent de l'étape dans le désordre
+                    if (lastname.hashCode() % 7 == 0) {
+                        Thread.sleep(1);
+                    }
+                    return lastname.length();
+                },
+                rows -> batches.add(List.copyOf(rows)));
+
+        pipeline.run(reader(2_000), 0);
+
+        List<Long> rowNumbers = batches.stream().flatMap(List::stream).map(IngestRow::getRowNumber).toList();
+        assertThat(rowNumbers).hasSize(2_000);
+        assertThat(rowNumbers).isSorted().startsWith(1L).endsWith(2_000L);
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(100));
+        IngestRow first = batches.get(0).get(0);
+        assertThat(first.getBook().getIsbn()).isEqualTo(isbn(1));
+        assertThat(first.getAuthorIds()).containsExactly((long) "Nom1".length());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Reprise : les lignes jusqu'à l'offset validé ne sont pas réécrites")
+    void shouldSkipCommittedRows() {
+        List<Long> written = Collections.synchronizedList(new ArrayList<>());
+        IngestPipeline pipeline = new IngestPipeline("test", 2, 8, 50, (firstname, lastname) -> 1L,
+                rows -> rows.forEach(row -> written.add(row.getRowNumber())));
+
+        pipeline.run(reader(300), 250);
+
+        assertThat(written).hasSize(50).startsWith(251L).endsWith(300L).isSorted();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une ligne invalide va jusqu'à l'écriture avec sa raison, sans résolution d'auteurs")
+    void shouldCarryRejectedRows() {
+        AtomicInteger resolutions = new AtomicInteger();
+        List<IngestRow> written = Collections.synchronizedList(new ArrayList<>());
+        IngestPipeline pipeline = new IngestPipeline("test", 2, 8, 10,
+                (firstname, lastname) -> resolutions.incrementAndGet(), written::addAll);
+        CatalogRecord invalid = record(2);
+        invalid.setIsbn("123");
+
+        pipeline.run(reader(List.of(record(1), invalid, record(3))), 0);
+
+        assertThat(written).extracting(IngestRow::getRowNumber).containsExactly(1L, 2L, 3L);
+        assertThat(written.get(1).getError()).isEqualTo("Invalid ISBN: 123");
+        assertThat(written.get(1).getBook()).isNull();
+        assertThat(resolutions).hasValue(2);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Écriture lente : les files bornées freinent la lecture")
+    void shouldApplyBackpressure() {
+        AtomicInteger read = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        IngestPipeline pipeline = new IngestPipeline("test", 4, 16, 100, (firstname, lastname) -> 1L,
+                rows -> release.await());
+        CatalogReader reader = new CatalogReader() {
+            @Override
+            public CatalogRecord next() {
+                int row = read.incrementAndGet();
+                return row <= 100_000 ? record(row) : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> run = executor.submit(() -> {
+                pipeline.run(reader, 0);
+                return null;
+            });
+            Thread.sleep(300);
+
+            // lignes en vol bornées à un lot + trois files, plus la ligne lue en attente de jeton
+            assertThat(read.get()).isLessThanOrEqualTo(100 + 3 * 16 + 1);
+            release.countDown();
+            run.get();
+            assertThat(read.get()).isEqualTo(100_001);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("La première erreur d'une étape arrête le pipeline et remonte à l'appelant")
+    void shouldStopOnFailure() {
+        IngestPipeline pipeline = new IngestPipeline("test", 4, 16, 100, (firstname, lastname) -> 1L,
+                rows -> {
+                    if (rows.get(0).getRowNumber() > 100) {
+                        throw new IllegalStateException("database down");
+                    }
+                });
+
+        assertThatThrownBy(() -> pipeline.run(reader(100_000), 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("database down");
+    }
+
+    private static CatalogReader reader(int rows) {
+        List<CatalogRecord> records = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            records.add(record(i));
+        }
+        return reader(records);
+    }
+
+    private static CatalogReader reader(List<CatalogRecord> records) {
+        return new CatalogReader() {
+            private int next;
+
+            @Override
+            public CatalogRecord next() {
+                return next < records.size() ? records.get(next++) : null;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private static CatalogRecord record(int row) {
+        CatalogRecord record = new CatalogRecord(row);
+        record.setIsbn(isbn(row));
+        record.setTitle("Titre " + row);
+        record.getAuthors().add("Prénom Nom" + row);
+        return record;
+    }
+
+    // ISBN-13 valide 97829xxxxxxx + clé
+    private static String isbn(int row) {
+        String digits = String.format("97829%07d", row);
+        int sum = 0;
+        for (int i = 0; i < 12; i++) {
+            sum += (digits.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return digits + (10 - sum % 10) % 10;
+    }
+}
@@ -1,15 +1,21 @@
 package fr.ensitech.biblio.integration;
 
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
 import fr.ensitech.biblio.entity.Author;
 import fr.ensitech.biblio.entity.Book;
 import fr.ensitech.biblio.repository.IBookRepository;
 import fr.ensitech.biblio.service.BookService;
 import fr.ensitech.biblio.utils.Dates;
+import jakarta.persistence.EntityManager;
 import jakarta.transaction.Transactional;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.util.List;
@@ -27,6 +33,24 @@ class BookServiceIntegrationTest {
     @Autowired
     private BookService bookService;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    @Qualifier("seedIdGenerators")
+    private CommandLineRunner seedIdGenerators;
+
+    @Autowired
+    @Qualifier("backfillFoldedColumns")
+    private CommandLineRunner backfillFoldedColumns;
+
+    @Autowired
+    @Qualifier("backfillIsbn13")
+    private CommandLineRunner backfillIsbn13;
+
     private Book book;
     private Author author1;
     private Author author2;
@@ -55,6 +79,7 @@ class BookServiceIntegrationTest {
                 .editor("JAVAX")
                 .nbPages((short) 155)
                 .language("EN")
+                .stock(3)
                 .author(author1)
                 .author(author2)
                 .build();
@@ -200,6 +225,19 @@ class BookServiceIntegrationTest {
         assertThat(outRange).isEmpty();
     }
 
+    @Test
+    @DisplayName("getBookSummariesBetweenYears(start, end) doit retourner des résumés sans charger les entités")
+    void shouldGetBookSummariesBetweenYears() throws Exception {
+        bookService.addOrUpdateBook(book); // 2000
+
+        List<BookSummary> inRange = bookService.getBookSummariesBetweenYears(1999, 2001);
+
+        assertThat(inRange).singleElement()
+                .extracting(BookSummary::getIsbn, BookSummary::getYear, BookSummary::isAvailable)
+                .containsExactly("1234567890", 2000, true);
+        assertThat(bookService.getBookSummariesBetweenYears(2010, 2012)).isEmpty();
+    }
+
     @Test
     @DisplayName("deleteBook(id) doit supprimer")
     void shouldDeleteExistingBook() throws Exception {
@@ -209,4 +247,64 @@ class BookServiceIntegrationTest {
 
         assertThat(bookRepository.findById(saved.getId())).isEmpty();
     }
+
+    @Test
+    @DisplayName("seedIdGenerators : le compteur de id_generators repasse au-dessus des ids déjà en base")
+    void shouldSeedIdGeneratorsAboveExistingIds() throws Exception {
+        // ligne créée sous IDENTITY, hors du compteur
+        jdbcTemplate.update("insert into biblio_database.books (id, title, isbn, published, nb_pages, stock) "
+                + "values (900000, 'Ancien id', 'ancien-id-900000', true, 10, 1)");
+
+        seedIdGenerators.run();
+
+        Long nextId = jdbcTemplate.queryForObject(
+                "select next_id from biblio_database.id_generators where entity = 'books'", Long.class);
+        assertThat(nextId).isEqualTo(900050L);
+    }
+
+    @Test
+    @DisplayName("backfillFoldedColumns : deux ISBN ne différant que par la casse ne bloquent pas le démarrage")
+    void shouldBackfillFoldedColumnsDespiteDuplicateIsbns() throws Exception {
+        // lignes antérieures aux colonnes normalisées
+        jdbcTemplate.update("insert into biblio_database.books (id, title, isbn, published, nb_pages, stock) "
+                + "values (900001, 'Doublon Été', 'DUP-0038', true, 10, 1), (900002, 'Doublon bis', ' dup-0038', true, 10, 1)");
+
+        backfillFoldedColumns.run();
+
+        assertThat(jdbcTemplate.queryForList("select isbn_normalized from biblio_database.books where id in (900001, 900002) "
+                + "order by id", String.class)).containsExactly("DUP-0038", null);
+        assertThat(jdbcTemplate.queryForList("select title_folded from biblio_database.books where id in (900001, 900002) "
+                + "order by id", String.class)).containsExactly("doublon ete", "doublon bis");
+    }
+
+    @Test
+    @DisplayName("backfillIsbn13 : l'ISBN-10 et l'ISBN-13 d'un même livre ne bloquent pas le démarrage")
+    void shouldBackfillIsbn13DespiteDuplicateIsbns() throws Exception {
+        jdbcTemplate.update("insert into biblio_database.books (id, title, isbn, published, nb_pages, stock) "
+                + "values (900003, 'Doublon dix', '2-07-036024-5', true, 10, 1), "
+                + "(900004, 'Doublon treize', '978 2 07 036024 6', true, 10, 1)");
+        // reprise déjà faite au démarrage du contexte de test : on la relance
+        jdbcTemplate.update("delete from biblio_database.data_migrations where name = 'books.isbn13'");
+
+        backfillIsbn13.run();
+        bookRepository.flush();
+        Integer done = jdbcTemplate.queryForObject(
+                "select count(*) from biblio_database.data_migrations where name = 'books.isbn13'", Integer.class);
+        assertThat(done).isEqualTo(1);
+
+        assertThat(jdbcTemplate.queryForList("select isbn13 from biblio_database.books where id in (900003, 900004) "
+                + "order by id", Long.class)).containsExactly(9782070360246L, null);
+        assertThat(jdbcTemplate.queryForList("select title_folded from biblio_database.books where id in (900003, 900004) "
+                + "order by id", String.class)).containsExactly("doublon dix", "doublon treize");
+
+        // le doublon sans clé reste modifiable : ses clés ne sont recalculées que si son ISBN change
+        entityManager.clear();
+        BookPatch patch = new BookPatch();
+        patch.setStock(7);
+        patch.setTitle("Doublon treize modifié");
+        bookService.patchBook(900004L, patch);
+        bookRepository.flush();
+        assertThat(jdbcTemplate.queryForMap("select stock, title_folded, isbn13 from biblio_database.books where id = 900004"))
+                .containsEntry("stock", 7).containsEntry("title_folded", "doublon treize modifie").containsEntry("isbn13", null);
+    }
 }
@@ -0,0 +1,68 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.dto.CatalogChangeDto;
+import fr.ensitech.biblio.dto.CatalogChangePage;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.service.BookService;
+import fr.ensitech.biblio.service.CatalogChangeService;
+import fr.ensitech.biblio.utils.Dates;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Pas de @Transactional : le journal est lu comme un client le ferait, après commit
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogChangeIntegrationTest {
+
+    @Autowired private BookService bookService;
+    @Autowired private CatalogChangeService catalogChangeService;
+
+    @Test
+    @DisplayName("Le flux ne renvoie que les modifications postérieures à la version, suppression comprise")
+    void shouldReturnOnlyChangesSinceVersion() throws Exception {
+        // rattrapage des modifications laissées par les autres tests
+        long since = 0;
+        CatalogChangePage catchUp;
+        do {
+            catchUp = catalogChangeService.getChanges(since, CatalogChangeService.MAX_LIMIT);
+            since = catchUp.getNextSince();
+        } while (catchUp.isHasMore());
+
+        Book book = bookService.addOrUpdateBook(Book.builder()
+                .title("Flux")
+                .description("Synchronisation incrémentale")
+                .isbn("CHANGES-0001")
+                .category("Informatique")
+                .published(true)
+                .publicationDate(Dates.convertStringToDate("01/01/2021"))
+                .editor("ENI")
+                .nbPages((short) 120)
+                .language("FR")
+                .stock(1)
+                .author(Author.builder().firstname("Anne").lastname("Delta").build())
+                .build());
+
+        CatalogChangePage page = catalogChangeService.getChanges(since, 10);
+        assertThat(page.getChanges()).extracting(CatalogChangeDto::getEntityType, CatalogChangeDto::getOperation)
+                .containsExactly(tuple(CatalogEntityType.AUTHOR, ChangeOperation.INSERT),
+                        tuple(CatalogEntityType.BOOK, ChangeOperation.INSERT));
+        assertThat(page.getChanges().get(1).getBook().getAuthors()).hasSize(1);
+
+        long afterInsert = page.getNextSince();
+        bookService.deleteBook(book.getId());
+
+        CatalogChangePage delta = catalogChangeService.getChanges(afterInsert, 10);
+        assertThat(delta.getChanges()).hasSize(1);
+        assertThat(delta.getChanges().get(0).getEntityId()).isEqualTo(book.getId());
+        assertThat(delta.getChanges().get(0).getOperation()).isEqualTo(ChangeOperation.DELETE);
+        assertThat(catalogChangeService.getChanges(delta.getNextSince(), 10).getChanges()).isEmpty();
+    }
+}
@@ -0,0 +1,140 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.IngestError;
+import fr.ensitech.biblio.entity.IngestFormat;
+import fr.ensitech.biblio.entity.IngestJob;
+import fr.ensitech.biblio.entity.IngestJobStatus;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IIngestJobRepository;
+import fr.ensitech.biblio.service.IIngestService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Pas de @Transactional : l'import écrit dans ses propres transactions, sur un autre thread
+@SpringBootTest(properties = {"biblio.ingest.batch-size=2", "biblio.ingest.directory=target/ingest-test"})
+@ActiveProfiles("test")
+class IngestIntegrationTest {
+
+    @Autowired private IIngestService ingestService;
+    @Autowired private IIngestJobRepository ingestJobRepository;
+    @Autowired private IBookRepository bookRepository;
+    @Autowired private IAuthorRepository authorRepository;
+
+    @Test
+    @DisplayName("Import CSV : livres et auteurs créés, lignes invalides et doublons rejetés avec leur numéro")
+    void shouldImportCsvAndReportRejectedRows() throws Exception {
+        String csv = """
+                isbn,title,authors,publication_date,stock
+                9782900070017,Import un,Ingrid Importe,2001-01-01,2
+                978-2-900070-02-4,Import deux,"Importe, Ingrid; Paul Lot",,
+                pas-un-isbn,Import trois,,,
+                9782900070017,Import quatre,,,
+                9782900070031,Import cinq,,31/12/2003,x
+                """;
+
+        IngestJob job = ingestService.startJob(IngestFormat.CSV, "catalogue.csv",
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+        job = awaitEnd(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(IngestJobStatus.COMPLETED);
+        assertThat(job.getStoragePath()).isNull();
+        assertThat(Path.of("target/ingest-test/" + job.getId() + ".csv")).doesNotExist();
+        assertThat(job.getCommittedOffset()).isEqualTo(5);
+        assertThat(job.getRowsWritten()).isEqualTo(2);
+        assertThat(job.getRowsRejected()).isEqualTo(3);
+        assertThat(ingestService.getErrors(job.getId(), 0, 10))
+                .extracting(IngestError::getRowNumber, IngestError::getMessage)
+                .containsExactly(tuple(3L, "Invalid ISBN: pas-un-isbn"),
+                        tuple(4L, "Book with same ISBN already exists: 9782900070017"),
+                        tuple(5L, "Invalid stock: x"));
+
+        Book second = bookRepository.findWithAuthorsByIsbn13(9782900070024L);
+        assertThat(second.getIsbn()).isEqualTo("9782900070024");
+        assertThat(second.getAuthors()).extracting(Author::getLastname).containsExactlyInAnyOrder("Importe", "Lot");
+        // "Ingrid Importe" et "Importe, Ingrid" : un seul auteur
+        assertThat(authorRepository.findByLastnameFoldedAndFirstnameFolded("importe", "ingrid")).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Reprise d'un import interrompu : seules les lignes après l'offset commité sont importées")
+    void shouldResumeFromCommittedOffset() throws Exception {
+        Path file = Files.createDirectories(Path.of("target/ingest-test")).resolve("reprise.csv");
+        Files.writeString(file, """
+                isbn,title
+                9782900090008,Reprise un
+                9782900090015,Reprise deux
+                9782900090022,Reprise trois
+                """);
+        IngestJob interrupted = new IngestJob();
+        interrupted.setFileName("reprise.csv");
+        interrupted.setFormat(IngestFormat.CSV);
+        interrupted.setStatus(IngestJobStatus.INTERRUPTED);
+        interrupted.setStoragePath(file.toString());
+        interrupted.setCommittedOffset(2);
+        interrupted.setStartedAt(Instant.now());
+        interrupted = ingestJobRepository.save(interrupted);
+
+        IngestJob job = awaitEnd(ingestService.resumeJob(interrupted.getId()).getId());
+
+        assertThat(job.getStatus()).isEqualTo(IngestJobStatus.COMPLETED);
+        assertThat(job.getCommittedOffset()).isEqualTo(3);
+        assertThat(bookRepository.findByIsbn13(9782900090008L)).isNull();
+        assertThat(bookRepository.findByIsbn13(9782900090022L)).isNotNull();
+        assertThatThrownBy(() -> ingestService.resumeJob(job.getId())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Le fichier d'un import en échec est gardé pour la reprise, puis supprimé après la rétention")
+    void shouldPurgeFilesOfExpiredFailedJobs() throws Exception {
+        Path directory = Files.createDirectories(Path.of("target/ingest-test"));
+        IngestJob expired = failedJob(Files.writeString(directory.resolve("expire.csv"), "isbn,title\n"),
+                Instant.now().minus(Duration.ofDays(30)));
+        IngestJob recent = failedJob(Files.writeString(directory.resolve("recent.csv"), "isbn,title\n"), Instant.now());
+
+        ingestService.purgeExpiredFiles();
+
+        assertThat(directory.resolve("expire.csv")).doesNotExist();
+        assertThat(ingestJobRepository.findById(expired.getId()).orElseThrow().getStoragePath()).isNull();
+        assertThatThrownBy(() -> ingestService.resumeJob(expired.getId())).isInstanceOf(IllegalArgumentException.class);
+        assertThat(directory.resolve("recent.csv")).exists();
+        assertThat(ingestJobRepository.findById(recent.getId()).orElseThrow().getStoragePath()).isNotNull();
+    }
+
+    private IngestJob failedJob(Path file, Instant finishedAt) {
+        IngestJob job = new IngestJob();
+        job.setFileName(file.getFileName().toString());
+        job.setFormat(IngestFormat.CSV);
+        job.setStatus(IngestJobStatus.FAILED);
+        job.setStoragePath(file.toString());
+        job.setStartedAt(finishedAt);
+        job.setFinishedAt(finishedAt);
+        return ingestJobRepository.save(job);
+    }
+
+    private IngestJob awaitEnd(long id) throws Exception {
+        for (int i = 0; i < 200; i++) {
+            IngestJob job = ingestService.getJob(id);
+            if (job.getStatus() != IngestJobStatus.RUNNING) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        return fail("Ingest job " + id + " still running");
+    }
+}
@@ -0,0 +1,72 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.service.BookService;
+import fr.ensitech.biblio.utils.Dates;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.*;
+
+// Pas de @Transactional : le cache de second niveau n'est alimenté qu'au commit
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SecondLevelCacheIntegrationTest {
+
+    @Autowired private BookService bookService;
+    @Autowired private IBookRepository bookRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private TransactionTemplate transactionTemplate;
+
+    private Statistics statistics;
+    private Book book;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        book = Book.builder()
+                .title("Cache L2")
+                .description("Livre mis en cache")
+                .isbn("CACHE-L2-0001")
+                .category("Informatique")
+                .published(true)
+                .publicationDate(Dates.convertStringToDate("01/01/2020"))
+                .editor("ENI")
+                .nbPages((short) 100)
+                .language("FR")
+                .stock(1)
+                .author(Author.builder().firstname("Anne").lastname("Cache").build())
+                .build();
+        bookService.addOrUpdateBook(book);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        bookService.deleteBook(book.getId());
+    }
+
+    @Test
+    @DisplayName("Charger un livre et ses auteurs déjà en cache ne doit exécuter aucune requête SQL")
+    void shouldLoadBookWithAuthorsWithoutSql() {
+        // premier chargement : alimente le cache de la collection Book.authors
+        transactionTemplate.executeWithoutResult(status ->
+                bookRepository.findById(book.getId()).orElseThrow().getAuthors().size());
+
+        statistics.clear();
+        int nbAuthors = transactionTemplate.execute(status ->
+                bookRepository.findById(book.getId()).orElseThrow().getAuthors().size());
+
+        assertThat(nbAuthors).isEqualTo(1);
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(3);
+    }
+}
@@ -0,0 +1,77 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.monitoring.SlowQuery;
+import fr.ensitech.biblio.monitoring.SlowQueryLog;
+import fr.ensitech.biblio.repository.IUserRepository;
+import fr.ensitech.biblio.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Seuil à 0 : toutes les requêtes sont "lentes" et toutes sont expliquées
+@SpringBootTest(properties = {
+        "biblio.sql.slow-query.threshold-ms=0",
+        "biblio.sql.slow-query.explain-sample-rate=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SlowQueryLogIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BookService bookService;
+    @Autowired private SlowQueryLog slowQueryLog;
+    @Autowired private IUserRepository userRepository;
+
+    @BeforeEach
+    void setUp() {
+        slowQueryLog.clear();
+    }
+
+    @Test
+    @DisplayName("Une requête lente est relevée avec ses paramètres, sa méthode appelante et son plan")
+    void shouldRecordSlowQueryWithCallerParametersAndPlan() throws Exception {
+        bookService.getBookSummariesByTitleContains("java");
+
+        SlowQuery query = slowQueryLog.entries().get(0);
+        assertThat(query.getCaller()).isEqualTo(BookService.class.getName() + ".getBookSummariesByTitleContains");
+        assertThat(query.getSql()).containsIgnoringCase("like");
+        assertThat(query.getParameters()).anyMatch(parameter -> parameter.contains("java"));
+
+        // l'EXPLAIN est exécuté en tâche de fond
+        for (int i = 0; i < 50 && query.getPlan() == null; i++) {
+            Thread.sleep(100);
+        }
+        assertThat(query.getPlan()).isNotEmpty();
+
+        mockMvc.perform(get("/actuator/slowqueries").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queries[0].caller").exists())
+                .andExpect(jsonPath("$.total").isNumber());
+    }
+
+    @Test
+    @DisplayName("Paramètres masqués pour les tables sensibles, endpoint refusé sans le rôle ADMIN")
+    void shouldMaskSensitiveParametersAndProtectEndpoint() throws Exception {
+        userRepository.findByEmail("secret@example.com");
+
+        SlowQuery query = slowQueryLog.entries().get(0);
+        assertThat(query.getSql()).containsIgnoringCase("users");
+        assertThat(query.getParameters()).isNotEmpty().noneMatch(parameter -> parameter.contains("secret"));
+
+        mockMvc.perform(get("/actuator/slowqueries")).andExpect(status().isUnauthorized());
+        mockMvc.perform(delete("/actuator/slowqueries")).andExpect(status().isUnauthorized());
+        assertThat(slowQueryLog.total()).isPositive();
+    }
+}
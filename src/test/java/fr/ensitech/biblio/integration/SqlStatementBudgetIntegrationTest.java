@@ -0,0 +1,270 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.monitoring.SqlStatementBudgetFilter;
+import fr.ensitech.biblio.monitoring.SqlStatementCounter;
+import fr.ensitech.biblio.service.BookService;
+import fr.ensitech.biblio.service.BookViewService;
+import fr.ensitech.biblio.utils.Dates;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Pas de @Transactional : chaque appel HTTP doit ouvrir ses propres transactions, comme en production.
+// Report des consultations uniquement sur appel explicite de flush()
+@SpringBootTest(properties = "biblio.views.flush-interval-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(SqlStatementCountExtension.class)
+class SqlStatementBudgetIntegrationTest {
+
+    @Autowired private MockMvc mockMvc;
+    @Autowired private BookService bookService;
+    @Autowired private JdbcTemplate jdbcTemplate;
+    @Autowired private BookViewService bookViewService;
+
+    private final List<Book> books = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            Book book = Book.builder()
+                    .title("Budget SQL " + i)
+                    .description("Livre " + i)
+                    .isbn("SQL-BUDGET-000" + i)
+                    .category("Informatique")
+                    .published(true)
+                    .publicationDate(Dates.convertStringToDate("01/01/201" + i))
+                    .editor("ENI")
+                    .nbPages((short) 100)
+                    .language("FR")
+                    .stock(i)
+                    .author(Author.builder().firstname("Auteur").lastname("Budget " + i).build())
+                    .author(Author.builder().firstname("Coauteur").lastname("Budget " + i).build())
+                    .build();
+            books.add(bookService.addOrUpdateBook(book));
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (Book book : books) {
+            bookService.deleteBook(book.getId());
+        }
+    }
+
+    private int statementsOf(String url, Object... vars) throws Exception {
+        MvcResult result = mockMvc.perform(get(url, vars)).andExpect(status().isOk()).andReturn();
+        return (int) result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE);
+    }
+
+    @Test
+    @DisplayName("La liste des livres doit tenir en une seule requête, quel que soit le nombre d'auteurs")
+    void shouldListBooksWithOneStatement() throws Exception {
+        assertThat(statementsOf("/api/books/all")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La disponibilité embarquée dans la liste ajoute une seule requête groupée")
+    void shouldEmbedAvailabilityWithOneMoreStatement() throws Exception {
+        Book book = books.get(1);
+        mockMvc.perform(get("/api/books/availability").param("ids", book.getId() + "," + books.get(2).getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].bookId").value(book.getId()))
+                .andExpect(jsonPath("$[0].stock").value(2))
+                .andExpect(jsonPath("$[0].remaining").value(2));
+
+        MvcResult result = mockMvc.perform(get("/api/books/all").param("availability", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[?(@.id == %d)].availability.reserved", book.getId()).value(0))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Les livres d'un auteur en une requête, book_id de book_author contenant bien l'id du livre")
+    void shouldPageBooksByAuthorWithOneStatement() throws Exception {
+        Book book = books.get(0);
+        Long authorId = book.getAuthors().iterator().next().getId();
+        assertThat(jdbcTemplate.queryForList("select book_id from biblio_database.book_author where author_id = ?",
+                Long.class, authorId)).containsExactly(book.getId());
+
+        MvcResult result = mockMvc.perform(get("/api/books/author/{authorId}", authorId).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.books[0].id").value(book.getId()))
+                .andExpect(jsonPath("$.hasMore").value(false))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("La recherche par ISBN doit charger le livre et ses auteurs en une requête")
+    void shouldGetBookByIsbnWithOneStatement() throws Exception {
+        assertThat(statementsOf("/api/books/isbn/{isbn}", "SQL-BUDGET-0002")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un ISBN-10 retrouve le livre enregistré en ISBN-13 avec tirets, par la clé numérique, en une requête")
+    void shouldGetBookByAnyIsbnFormWithOneStatement() throws Exception {
+        Book book = books.get(0);
+        book.setIsbn("978-2-07-036024-6");
+        bookService.addOrUpdateBook(book);
+
+        assertThat(statementsOf("/api/books/isbn/{isbn}", "2070360245")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForObject("select isbn13 from biblio_database.books where id = ?",
+                Long.class, book.getId())).isEqualTo(9782070360246L);
+        assertThatThrownBy(() -> bookService.addOrUpdateBook(Book.builder().title("Doublon").isbn("2-07-036024-5")
+                .publicationDate(book.getPublicationDate()).stock(1).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("500 ISBN vérifiés en un appel et une requête, trouvés et manquants ensemble")
+    void shouldLookupManyIsbnsWithOneStatement() throws Exception {
+        StringBuilder json = new StringBuilder("[\"sql-budget-0001\", \"SQL-BUDGET-0003\"");
+        for (int i = 0; i < 498; i++) {
+            json.append(", \"978-INCONNU-").append(i).append('"');
+        }
+        MvcResult result = mockMvc.perform(post("/api/books/isbn/batch")
+                        .contentType(MediaType.APPLICATION_JSON).content(json.append(']').toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found.length()").value(2))
+                .andExpect(jsonPath("$.found[0].authors.length()").value(2))
+                .andExpect(jsonPath("$.missing.length()").value(498))
+                .andReturn();
+
+        assertThat(result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Un livre déjà en cache ne doit exécuter aucune requête")
+    void shouldGetCachedBookByIdWithoutStatement() throws Exception {
+        String id = String.valueOf(books.get(0).getId());
+        mockMvc.perform(get("/api/books/{id}", id).param("id", id)).andExpect(status().isOk());
+
+        int count = statementsOf("/api/books/{id}?id=" + id, id);
+
+        assertThat(count).isZero();
+    }
+
+    @Test
+    @DisplayName("Les consultations ne coûtent aucune écriture et sont reportées par upsert")
+    void shouldCountViewsWithoutWritingOnRead() throws Exception {
+        String id = String.valueOf(books.get(1).getId());
+        mockMvc.perform(get("/api/books/{id}", id).param("id", id)).andExpect(status().isOk());
+        bookViewService.flush();
+
+        assertThat(statementsOf("/api/books/{id}?id=" + id, id)).isZero();
+        assertThat(statementsOf("/api/books/isbn/{isbn}", "SQL-BUDGET-0002")).isEqualTo(1);
+        SqlStatementCounter.reset();
+        bookViewService.flush();
+
+        // upsert multi-lignes puis ménage des compteurs orphelins
+        assertThat(SqlStatementCounter.current()).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select views from biblio_database.book_view_counts where book_id = ?",
+                Long.class, books.get(1).getId())).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Un livre supprimé perd son compteur de consultations, sans qu'un report ne le recrée")
+    void shouldDropViewsOfDeletedBook() throws Exception {
+        Book book = books.remove(2);
+        mockMvc.perform(get("/api/books/isbn/{isbn}", book.getIsbn())).andExpect(status().isOk());
+        bookViewService.flush();
+        mockMvc.perform(get("/api/books/isbn/{isbn}", book.getIsbn())).andExpect(status().isOk());
+
+        bookService.deleteBook(book.getId());
+        bookViewService.flush();
+
+        assertThat(jdbcTemplate.queryForObject("select count(*) from biblio_database.book_view_counts where book_id = ?",
+                Integer.class, book.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("PATCH du stock : l'UPDATE ne réécrit pas les colonnes non modifiées")
+    void shouldPatchOnlyProvidedColumns() throws Exception {
+        Book book = books.get(0);
+        // modification hors Hibernate : un UPDATE de toutes les colonnes la remplacerait par la valeur en cache
+        jdbcTemplate.update("update biblio_database.books set description = ? where id = ?", "Modifiée en base", book.getId());
+
+        MvcResult result = mockMvc.perform(patch("/api/books/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"stock\": 7}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(7))
+                .andExpect(jsonPath("$.authors.length()").value(2))
+                .andReturn();
+
+        assertThat(jdbcTemplate.queryForMap("select stock, description from biblio_database.books where id = ?", book.getId()))
+                .containsEntry("stock", 7).containsEntry("description", "Modifiée en base");
+        // livre et auteurs (lus en base hors cache), UPDATE books, puis le journal des modifications :
+        // verrou et mise à jour du compteur de versions, entrée du journal
+        assertThat((int) result.getRequest().getAttribute(SqlStatementBudgetFilter.STATEMENT_COUNT_ATTRIBUTE)).isLessThanOrEqualTo(6);
+
+        mockMvc.perform(patch("/api/books/{id}", book.getId())
+                        .contentType(MediaType.APPLICATION_JSON).content("{\"title\": \"Budget réécrit\"}"))
+                .andExpect(status().isOk());
+        assertThat(jdbcTemplate.queryForObject("select title_folded from biblio_database.books where id = ?",
+                String.class, book.getId())).isEqualTo("budget reecrit");
+    }
+
+    @Test
+    @DisplayName("Ajustement groupé des stocks en un seul UPDATE, refusé en entier si un stock devient négatif ou déborde")
+    void shouldAdjustStocksWithOneStatement() throws Exception {
+        String json = "[{\"bookId\": %d, \"delta\": 5}, {\"bookId\": %d, \"delta\": -2}, {\"bookId\": %d, \"delta\": -1}]"
+                .formatted(books.get(0).getId(), books.get(1).getId(), books.get(2).getId());
+        SqlStatementCounter.reset();
+
+        mockMvc.perform(patch("/api/books/stock").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk());
+
+        // verrou du compteur de versions, UPDATE ensembliste, entrées du journal en un lot, compteur mis à jour
+        assertThat(SqlStatementCounter.current()).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList("select stock from biblio_database.books where id in (?, ?, ?) order by id",
+                Integer.class, books.get(0).getId(), books.get(1).getId(), books.get(2).getId())).containsExactly(6, 0, 2);
+        mockMvc.perform(get("/api/books/{id}", books.get(1).getId()).param("id", String.valueOf(books.get(1).getId())))
+                .andExpect(jsonPath("$.stock").value(0));
+
+        mockMvc.perform(patch("/api/books/stock").contentType(MediaType.APPLICATION_JSON).content(
+                        "[{\"bookId\": %d, \"delta\": 1}, {\"bookId\": %d, \"delta\": -1}]"
+                                .formatted(books.get(0).getId(), books.get(1).getId())))
+                .andExpect(status().isBadRequest());
+        assertThat(jdbcTemplate.queryForObject("select stock from biblio_database.books where id = ?",
+                Integer.class, books.get(0).getId())).isEqualTo(6);
+        // stock qui dépasserait la colonne : rejeté comme un stock insuffisant
+        mockMvc.perform(patch("/api/books/stock").contentType(MediaType.APPLICATION_JSON).content(
+                        "[{\"bookId\": %d, \"delta\": %d}]".formatted(books.get(0).getId(), Integer.MAX_VALUE)))
+                .andExpect(status().isBadRequest());
+        assertThat(jdbcTemplate.queryForObject("select stock from biblio_database.books where id = ?",
+                Integer.class, books.get(0).getId())).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Le compteur par méthode de test doit inclure les appels de service")
+    void shouldCountStatementsOfServiceCall() throws Exception {
+        SqlStatementCounter.reset();
+
+        bookService.getBookSummariesBetweenYears(2010, 2015);
+
+        assertThat(SqlStatementCounter.current()).isEqualTo(1);
+    }
+}
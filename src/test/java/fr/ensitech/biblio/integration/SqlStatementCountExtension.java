@@ -0,0 +1,24 @@
+package fr.ensitech.biblio.integration;
+
+import fr.ensitech.biblio.monitoring.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+
+/**
+ * Compte les requêtes SQL de chaque méthode de test :
+ * {@code SqlStatementCounter.reset()} puis {@code SqlStatementCounter.current()} autour du code mesuré.
+ */
+public class SqlStatementCountExtension implements BeforeEachCallback, AfterEachCallback {
+
+    @Override
+    public void beforeEach(ExtensionContext context) {
+        SqlStatementCounter.start();
+    }
+
+    @Override
+    public void afterEach(ExtensionContext context) {
+        int count = SqlStatementCounter.stop();
+        context.publishReportEntry("sqlStatements", String.valueOf(count));
+    }
+}
@@ -12,7 +12,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 
-import java.util.Date;
+import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -42,7 +42,7 @@ class UserServiceIntegrationTest {
         user.setEmail("lucas@test.com");
         user.setPassword("1234");
         user.setRole("U");
-        user.setBirthdate(new Date());
+        user.setBirthdate(LocalDate.now());
 
         user.setSecurityQuestionId(q.getId());
         user.setSecurityAnswer("Minou");
@@ -135,7 +135,7 @@ class UserServiceIntegrationTest {
         patch.setFirstname("Lucas2");
         patch.setLastname("Test2");
         patch.setRole("A");
-        patch.setBirthdate(new Date(0));
+        patch.setBirthdate(LocalDate.EPOCH);
         patch.setActive(true);
 
         // tentatives interdites
@@ -0,0 +1,65 @@
+package fr.ensitech.biblio.monitoring;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlowQueryLogTest {
+
+    private SlowQueryLog slowQueryLog;
+
+    @BeforeEach
+    void setUp() {
+        SlowQueryProperties properties = new SlowQueryProperties();
+        properties.setCapacity(3);
+        properties.setThresholdMs(100);
+        properties.setExplainSampleRate(1);
+        slowQueryLog = new SlowQueryLog(properties);
+    }
+
+    private static SlowQuery query(String sql) {
+        return new SlowQuery(Instant.now(), 150, "BookService.getBooks", sql, List.of(), 0);
+    }
+
+    @Test
+    @DisplayName("Seules les requêtes au-delà du seuil sont lentes")
+    void shouldApplyThreshold() {
+        assertThat(slowQueryLog.isSlow(99)).isFalse();
+        assertThat(slowQueryLog.isSlow(100)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Le tampon garde les dernières requêtes, la plus récente en tête")
+    void shouldKeepMostRecentQueries() {
+        for (int i = 1; i <= 5; i++) {
+            slowQueryLog.record(query("select " + i));
+        }
+
+        assertThat(slowQueryLog.entries()).extracting(SlowQuery::getSql)
+                .containsExactly("select 5", "select 4", "select 3");
+        assertThat(slowQueryLog.total()).isEqualTo(5);
+
+        slowQueryLog.clear();
+        assertThat(slowQueryLog.entries()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Seuls les SELECT sont soumis à EXPLAIN")
+    void shouldOnlyExplainSelects() {
+        assertThat(slowQueryLog.shouldExplain("  select * from book")).isTrue();
+        assertThat(slowQueryLog.shouldExplain("update book set stock=?")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Les requêtes sur users, password_history et security_questions sont sensibles")
+    void shouldDetectSensitiveTables() {
+        assertThat(slowQueryLog.isSensitive("select u1_0.email from biblio_database.users u1_0 where u1_0.email=?")).isTrue();
+        assertThat(slowQueryLog.isSensitive("insert into password_history (password_hash,user_id,id) values (?,?,?)")).isTrue();
+        assertThat(slowQueryLog.isSensitive("select b1_0.id from biblio_database.books b1_0 where b1_0.title=?")).isFalse();
+    }
+}
@@ -0,0 +1,34 @@
+package fr.ensitech.biblio.monitoring;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlStatementCounterTest {
+
+    @Test
+    @DisplayName("Sans comptage démarré, les requêtes sont ignorées")
+    void shouldIgnoreStatementsWhenNotStarted() {
+        SqlStatementCounter.increment();
+
+        assertThat(SqlStatementCounter.current()).isZero();
+        assertThat(SqlStatementCounter.stop()).isZero();
+    }
+
+    @Test
+    @DisplayName("Un comptage imbriqué (requête HTTP dans un test) compte aussi pour le comptage englobant")
+    void shouldPropagateNestedCountsToOuterScope() {
+        SqlStatementCounter.start();
+        SqlStatementCounter.increment();
+
+        SqlStatementCounter.start();
+        SqlStatementCounter.increment();
+        SqlStatementCounter.increment();
+        assertThat(SqlStatementCounter.stop()).isEqualTo(2);
+
+        assertThat(SqlStatementCounter.current()).isEqualTo(3);
+        assertThat(SqlStatementCounter.stop()).isEqualTo(3);
+        assertThat(SqlStatementCounter.current()).isZero();
+    }
+}
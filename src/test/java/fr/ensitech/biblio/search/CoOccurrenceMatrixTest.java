@@ -0,0 +1,79 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CoOccurrenceMatrixTest {
+
+    @Test
+    @DisplayName("Classement des livres réservés ensemble, par nombre d'utilisateurs puis id")
+    void shouldRankCoReservedBooks() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.add(1L, 10L);
+        matrix.add(1L, 20L);
+        matrix.add(1L, 30L);
+        matrix.add(2L, 10L);
+        matrix.add(2L, 30L);
+        matrix.add(3L, 40L);
+
+        assertThat(matrix.top(10L, 5)).containsExactly(
+                new CoOccurrenceMatrix.Related(30L, 2), new CoOccurrenceMatrix.Related(20L, 1));
+        assertThat(matrix.top(10L, 1)).containsExactly(new CoOccurrenceMatrix.Related(30L, 2));
+        assertThat(matrix.top(40L, 5)).isEmpty();
+        assertThat(matrix.top(99L, 5)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un utilisateur ne compte qu'une fois par paire")
+    void shouldCountUserOncePerPair() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        assertThat(matrix.add(1L, 10L)).isTrue();
+        assertThat(matrix.add(1L, 20L)).isTrue();
+        assertThat(matrix.add(1L, 10L)).isFalse();
+
+        assertThat(matrix.top(20L, 5)).containsExactly(new CoOccurrenceMatrix.Related(10L, 1));
+    }
+
+    @Test
+    @DisplayName("La construction parallèle donne la même matrice que les ajouts successifs")
+    void shouldBuildInParallelLikeIncrementally() {
+        Map<Long, long[]> history = new HashMap<>();
+        CoOccurrenceMatrix incremental = new CoOccurrenceMatrix();
+        for (long user = 1; user <= 500; user++) {
+            long[] books = {user % 7, user % 11 + 7, user % 13 + 18};
+            history.put(user, books);
+            for (long book : books) {
+                incremental.add(user, book);
+            }
+        }
+
+        CoOccurrenceMatrix built = CoOccurrenceMatrix.build(history);
+
+        assertThat(built.size()).isEqualTo(incremental.size());
+        for (long book = 0; book < 31; book++) {
+            assertThat(built.top(book, 50)).isEqualTo(incremental.top(book, 50));
+        }
+    }
+
+    @Test
+    @DisplayName("Un livre supprimé disparaît des recommandations et des historiques")
+    void shouldRemoveBook() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.add(1L, 10L);
+        matrix.add(1L, 20L);
+        matrix.add(1L, 30L);
+
+        matrix.removeBook(20L);
+        matrix.add(2L, 10L);
+        matrix.add(2L, 20L);
+
+        assertThat(matrix.top(10L, 5)).containsExactly(
+                new CoOccurrenceMatrix.Related(20L, 1), new CoOccurrenceMatrix.Related(30L, 1));
+        assertThat(matrix.top(30L, 5)).containsExactly(new CoOccurrenceMatrix.Related(10L, 1));
+    }
+}
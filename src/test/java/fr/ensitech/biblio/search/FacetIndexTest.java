@@ -0,0 +1,69 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FacetIndexTest {
+
+    private FacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new FacetIndex();
+        index.put(1, values("roman", "fr", 1987));
+        index.put(2, values("roman", "en", 1992));
+        index.put(3, values("essai", "fr", 1995));
+        index.put(4, values("roman", "fr", 2003));
+    }
+
+    @Test
+    @DisplayName("Filtres : OU entre valeurs d'une même facette, ET entre facettes")
+    void shouldIntersectFilters() {
+        assertThat(index.match(Map.of()).toArray()).containsExactly(1, 2, 3, 4);
+        assertThat(index.match(Map.of(Facet.CATEGORY, List.of("roman"), Facet.LANGUAGE, List.of("fr"))).toArray())
+                .containsExactly(1, 4);
+        assertThat(index.match(Map.of(Facet.DECADE, List.of("1980", "2000"))).toArray()).containsExactly(1, 4);
+        assertThat(index.match(Map.of(Facet.EDITOR, List.of("inconnu"))).isEmpty()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Compteurs triés par effectif, sans le filtre de la facette elle-même")
+    void shouldCountValuesUnderOtherFilters() {
+        Map<Facet, Map<String, Integer>> counts = index.counts(Map.of(Facet.LANGUAGE, List.of("fr")));
+
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(entry("roman", 2), entry("essai", 1));
+        assertThat(counts.get(Facet.LANGUAGE)).containsExactly(entry("fr", 3), entry("en", 1));
+        assertThat(counts.get(Facet.DECADE)).containsOnly(entry("1980", 1), entry("1990", 1), entry("2000", 1));
+        assertThat(counts.get(Facet.EDITOR)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Réindexation et suppression mettent les compteurs à jour")
+    void shouldUpdateCountsIncrementally() {
+        index.put(2, values("essai", "fr", 1992));
+        index.remove(3);
+        index.remove(42);
+
+        Map<Facet, Map<String, Integer>> counts = index.counts(Map.of());
+        assertThat(index.size()).isEqualTo(3);
+        assertThat(counts.get(Facet.CATEGORY)).containsExactly(entry("roman", 2), entry("essai", 1));
+        assertThat(counts.get(Facet.LANGUAGE)).containsExactly(entry("fr", 3));
+    }
+
+    private static Map<Facet, String> values(String category, String language, int year) {
+        Map<Facet, String> values = new EnumMap<>(Facet.class);
+        values.put(Facet.CATEGORY, category);
+        values.put(Facet.LANGUAGE, language);
+        values.put(Facet.EDITOR, null);
+        values.put(Facet.DECADE, Facet.decade(LocalDate.of(year, 1, 1)));
+        return values;
+    }
+}
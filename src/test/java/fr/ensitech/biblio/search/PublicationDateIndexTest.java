@@ -0,0 +1,65 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PublicationDateIndexTest {
+
+    private PublicationDateIndex index;
+
+    @BeforeEach
+    void setUp() {
+        Map<Long, LocalDate> dates = new HashMap<>();
+        dates.put(1L, LocalDate.of(1862, 4, 3));
+        dates.put(2L, LocalDate.of(1942, 5, 19));
+        dates.put(3L, LocalDate.of(1942, 1, 1));
+        dates.put(4L, LocalDate.of(1947, 6, 10));
+        dates.put(5L, null);
+        index = PublicationDateIndex.of(dates);
+    }
+
+    @Test
+    @DisplayName("Comptage et pagination d'un intervalle, par date puis id")
+    void shouldCountAndPageRange() {
+        LocalDate from = LocalDate.of(1900, 1, 1);
+        LocalDate to = LocalDate.of(1949, 12, 31);
+
+        assertThat(index.size()).isEqualTo(4);
+        assertThat(index.count(from, to)).isEqualTo(3);
+        assertThat(index.ids(from, to, 0, 2)).containsExactly(3L, 2L);
+        assertThat(index.ids(from, to, 2, 2)).containsExactly(4L);
+        assertThat(index.ids(from, to, 3, 2)).isEmpty();
+        assertThat(index.count(LocalDate.of(1942, 5, 19), LocalDate.of(1942, 5, 19))).isEqualTo(1);
+        assertThat(index.count(LocalDate.of(2000, 1, 1), LocalDate.of(2010, 1, 1))).isZero();
+    }
+
+    @Test
+    @DisplayName("Histogramme annuel, années vides comprises")
+    void shouldCountByYear() {
+        assertThat(index.countsByYear(1941, 1947)).containsExactly(0, 2, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    @DisplayName("Déplacement, ajout et retrait gardent l'index trié")
+    void shouldKeepIndexSortedOnWrites() {
+        index.put(2L, LocalDate.of(1830, 1, 1));
+        index.put(6L, LocalDate.of(1947, 6, 10));
+        index.put(4L, null);
+        index.remove(42L);
+
+        LocalDate from = LocalDate.of(1800, 1, 1);
+        LocalDate to = LocalDate.of(2000, 1, 1);
+        assertThat(index.ids(from, to, 0, 10)).containsExactly(2L, 1L, 3L, 6L);
+        for (long id = 7; id < 40; id++) {
+            index.put(id, LocalDate.of(1900 + (int) id, 1, 1));
+        }
+        assertThat(index.count(from, to)).isEqualTo(37);
+    }
+}
@@ -0,0 +1,102 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RadixTrieTest {
+
+    private static final class Entry implements RadixTrie.Scored {
+        private final String name;
+        private long score;
+
+        private Entry(String name, long score) {
+            this.name = name;
+            this.score = score;
+        }
+
+        @Override
+        public long score() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private RadixTrie<Entry> trie;
+    private Entry prince, princesse, prison, proust;
+
+    @BeforeEach
+    void setUp() {
+        trie = new RadixTrie<>();
+        prince = new Entry("le petit prince", 3);
+        princesse = new Entry("la princesse de cleves", 7);
+        prison = new Entry("la prison", 1);
+        proust = new Entry("proust", 5);
+        trie.add("prince", prince);
+        trie.add("princesse de cleves", princesse);
+        trie.add("prison", prison);
+        trie.add("proust", proust);
+    }
+
+    @Test
+    @DisplayName("Les complétions d'un préfixe sont classées par score décroissant")
+    void shouldReturnCompletionsByScore() {
+        assertThat(trie.top("pr", 10)).containsExactly(princesse, proust, prince, prison);
+        assertThat(trie.top("prin", 10)).containsExactly(princesse, prince);
+        assertThat(trie.top("pri", 2)).containsExactly(princesse, prince);
+        assertThat(trie.top("prix", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Un préfixe qui s'arrête au milieu d'une arête trouve le sous-arbre")
+    void shouldMatchPrefixEndingInsideEdge() {
+        assertThat(trie.top("princ", 10)).containsExactly(princesse, prince);
+        assertThat(trie.top("princesse d", 10)).containsExactly(princesse);
+    }
+
+    @Test
+    @DisplayName("Une entrée indexée sous plusieurs clés n'est renvoyée qu'une fois")
+    void shouldDeduplicateEntriesIndexedUnderSeveralKeys() {
+        trie.add("petit prince", prince);
+        trie.add("le petit prince", prince);
+
+        assertThat(trie.top("p", 10)).containsExactly(princesse, proust, prince, prison);
+        assertThat(trie.size()).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("Le classement suit les changements de score et les suppressions")
+    void shouldFollowScoreChangesAndRemovals() {
+        prison.score = 10;
+        trie.scoreChanged("prison");
+        assertThat(trie.top("pr", 1)).containsExactly(prison);
+
+        assertThat(trie.remove("prison", prison)).isTrue();
+        assertThat(trie.remove("prison", prison)).isFalse();
+        assertThat(trie.top("pr", 10)).containsExactly(princesse, proust, prince);
+
+        trie.remove("princesse de cleves", princesse);
+        assertThat(trie.top("prin", 10)).containsExactly(prince);
+        assertThat(trie.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("À score égal, la complétion la plus courte passe en premier")
+    void shouldPreferShorterCompletionOnTie() {
+        RadixTrie<Entry> tie = new RadixTrie<>();
+        Entry longer = new Entry("java avance", 0);
+        Entry shorter = new Entry("java", 0);
+        tie.add("java avance", longer);
+        tie.add("java", shorter);
+
+        assertThat(tie.top("ja", 10)).isEqualTo(List.of(shorter, longer));
+    }
+}
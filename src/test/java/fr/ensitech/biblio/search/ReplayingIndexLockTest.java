@@ -0,0 +1,46 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReplayingIndexLockTest {
+
+    private List<String> index = new ArrayList<>();
+
+    @Test
+    @DisplayName("Un événement reçu pendant la lecture en base est appliqué à l'ancien index puis rejoué sur le nouveau")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        ReplayingIndexLock<String> lock = new ReplayingIndexLock<>(event -> index.add(event));
+        List<String> old = index;
+
+        lock.rebuild(() -> {
+            lock.receive("b");
+            return new ArrayList<>(List.of("a"));
+        }, rebuilt -> index = rebuilt);
+        lock.receive("c");
+
+        assertThat(old).containsExactly("b");
+        assertThat(index).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    @DisplayName("Une lecture en base en échec laisse l'index en place, qui reste tenu à jour")
+    void shouldKeepIndexWhenLoadFails() {
+        List<String> applied = new ArrayList<>();
+        List<List<String>> installed = new ArrayList<>();
+        ReplayingIndexLock<String> lock = new ReplayingIndexLock<>(applied::add);
+
+        assertThatThrownBy(() -> lock.<List<String>>rebuild(() -> {
+            throw new IllegalStateException("base indisponible");
+        }, installed::add)).isInstanceOf(IllegalStateException.class);
+        lock.receive("a");
+
+        assertThat(installed).isEmpty();
+        assertThat(applied).containsExactly("a");
+    }
+}
@@ -0,0 +1,50 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ScalableBloomFilterTest {
+
+    @Test
+    @DisplayName("Aucun faux négatif, même après extension bien au-delà de la capacité initiale")
+    void shouldNeverReportAddedKeyAsAbsent() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        long firstStageBits = filter.bitSize();
+        for (long isbn = 9782000000000L; isbn < 9782000050000L; isbn++) {
+            filter.add(isbn);
+        }
+
+        for (long isbn = 9782000000000L; isbn < 9782000050000L; isbn++) {
+            assertThat(filter.mightContain(isbn)).isTrue();
+        }
+        // les clés déjà signalées présentes (faux positifs) ne sont pas recomptées
+        assertThat(filter.size()).isBetween(49_000L, 50_000L);
+        assertThat(filter.bitSize()).isGreaterThan(50 * firstStageBits);
+    }
+
+    @Test
+    @DisplayName("Taux de faux positifs borné par deux fois le taux demandé")
+    void shouldBoundFalsePositiveRate() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, 0.01);
+        for (long isbn = 9782000000000L; isbn < 9782000050000L; isbn++) {
+            filter.add(isbn);
+        }
+
+        int falsePositives = 0;
+        for (long isbn = 9791000000000L; isbn < 9791000100000L; isbn++) {
+            if (filter.mightContain(isbn)) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    @DisplayName("Paramètres invalides refusés")
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> new ScalableBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ScalableBloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,96 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SlidingTopKTest {
+
+    private static final long MINUTE = 60_000L;
+
+    @Test
+    @DisplayName("Le sketch count-min ne sous-estime jamais et reste proche du compte exact")
+    void shouldEstimateWithinBound() {
+        CountMinSketch sketch = new CountMinSketch(1000, 4);
+        int[] exact = new int[5000];
+        Random random = new Random(42);
+        for (int i = 0; i < 50_000; i++) {
+            int key = (int) Math.min(exact.length - 1, Math.abs(random.nextGaussian()) * 300);
+            exact[key]++;
+            sketch.add(key, 1);
+        }
+        // largeur arrondie à 1024 : erreur d'au plus e / 1024 × 50 000 ≈ 133 avec une probabilité 1 - e^-4 ≈ 98 %
+        int withinBound = 0;
+        for (int key = 0; key < exact.length; key++) {
+            assertThat(sketch.estimate(key)).isGreaterThanOrEqualTo(exact[key]);
+            if (sketch.estimate(key) <= exact[key] + 133) {
+                withinBound++;
+            }
+        }
+        assertThat(withinBound).isGreaterThanOrEqualTo(exact.length * 97 / 100);
+    }
+
+    @Test
+    @DisplayName("Soustraire un sketch retire exactement ses comptes")
+    void shouldSubtractSketch() {
+        CountMinSketch window = new CountMinSketch(64, 3);
+        CountMinSketch bucket = new CountMinSketch(64, 3);
+        window.add(7L, 5);
+        bucket.add(7L, 2);
+        window.add(7L, 2);
+
+        window.subtract(bucket);
+
+        assertThat(window.estimate(7L)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Classement des clés les plus fréquentes de la fenêtre")
+    void shouldRankHeavyHitters() {
+        SlidingTopK topK = new SlidingTopK(12, 5 * MINUTE, 1024, 4, 3);
+        for (long key = 1; key <= 100; key++) {
+            topK.add(key, 1, 0);
+        }
+        topK.add(50L, 10, MINUTE);
+        topK.add(60L, 5, MINUTE);
+        topK.add(70L, 3, 2 * MINUTE);
+
+        assertThat(topK.size()).isEqualTo(3);
+        assertThat(topK.top(2, 3 * MINUTE)).containsExactly(
+                new SlidingTopK.Entry(50L, 11), new SlidingTopK.Entry(60L, 6));
+        assertThat(topK.top(10, 3 * MINUTE)).extracting(SlidingTopK.Entry::key).containsExactly(50L, 60L, 70L);
+    }
+
+    @Test
+    @DisplayName("Les tranches expirées sortent de la fenêtre")
+    void shouldExpireOldBuckets() {
+        SlidingTopK topK = new SlidingTopK(3, MINUTE, 256, 4, 10);
+        topK.add(1L, 10, 0);
+        topK.add(2L, 4, MINUTE);
+        topK.add(2L, 4, 2 * MINUTE);
+
+        assertThat(topK.top(5, 2 * MINUTE)).containsExactly(
+                new SlidingTopK.Entry(1L, 10), new SlidingTopK.Entry(2L, 8));
+        assertThat(topK.top(5, 3 * MINUTE)).containsExactly(new SlidingTopK.Entry(2L, 8));
+        assertThat(topK.top(5, 4 * MINUTE)).containsExactly(new SlidingTopK.Entry(2L, 4));
+        assertThat(topK.top(5, 60 * MINUTE)).isEmpty();
+        assertThat(topK.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("Une clé retirée disparaît du classement")
+    void shouldRemoveKey() {
+        SlidingTopK topK = new SlidingTopK(12, 5 * MINUTE, 256, 4, 10);
+        topK.add(1L, 3, 0);
+        topK.add(2L, 2, 0);
+        topK.add(3L, 1, 0);
+
+        topK.remove(1L);
+        topK.add(3L, 5, 0);
+
+        assertThat(topK.top(5, 0)).containsExactly(new SlidingTopK.Entry(3L, 6), new SlidingTopK.Entry(2L, 2));
+    }
+}
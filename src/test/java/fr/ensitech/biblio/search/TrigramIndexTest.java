@@ -0,0 +1,70 @@
+package fr.ensitech.biblio.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TrigramIndexTest {
+
+    private TrigramIndex<String> index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TrigramIndex<>();
+        index.add("miserables", "les miserables");
+        index.add("prince", "le petit prince");
+        index.add("java", "programmation java");
+        index.add("hugo", "victor hugo");
+    }
+
+    private List<String> search(String query) {
+        return index.search(query, 10).stream().map(TrigramIndex.Match::entry).toList();
+    }
+
+    @Test
+    @DisplayName("La distance d'édition compte une inversion de lettres voisines comme une seule faute")
+    void shouldComputeBoundedDistance() {
+        assertThat(EditDistance.bounded("prince", "prince", 2)).isZero();
+        assertThat(EditDistance.bounded("prince", "prinse", 2)).isEqualTo(1);
+        assertThat(EditDistance.bounded("prince", "pirnce", 2)).isEqualTo(1);
+        assertThat(EditDistance.bounded("miserables", "miserbles", 2)).isEqualTo(1);
+        assertThat(EditDistance.bounded("programmation", "java", 2)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Une faute de frappe (substitution, oubli, inversion) retrouve le bon titre")
+    void shouldFindTitlesDespiteTypos() {
+        assertThat(search("miserbles")).containsExactly("miserables");
+        assertThat(search("pirnce")).containsExactly("prince");
+        assertThat(search("programation jav")).containsExactly("java");
+        assertThat(search("vicotr huho")).containsExactly("hugo");
+    }
+
+    @Test
+    @DisplayName("Les résultats sont classés par similarité, la correspondance exacte en tête")
+    void shouldRankBySimilarity() {
+        index.add("princes", "les princes");
+
+        List<TrigramIndex.Match<String>> matches = index.search("prince", 10);
+
+        assertThat(matches).extracting(TrigramIndex.Match::entry).containsExactly("prince", "princes");
+        assertThat(matches.get(0).similarity()).isEqualTo(1.0);
+        assertThat(matches.get(1).similarity()).isLessThan(1.0);
+    }
+
+    @Test
+    @DisplayName("Les mots courts ne tolèrent pas de faute et une entrée retirée n'est plus trouvée")
+    void shouldNotTolerateTyposOnShortWordsAndForgetRemovedEntries() {
+        assertThat(search("jaba")).containsExactly("java");
+        assertThat(search("le")).containsExactlyInAnyOrder("prince");
+        assertThat(search("lo")).isEmpty();
+
+        index.remove("java");
+        assertThat(search("java")).isEmpty();
+        assertThat(index.vocabularySize()).isEqualTo(7);
+    }
+}
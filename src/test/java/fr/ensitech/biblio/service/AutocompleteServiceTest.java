@@ -0,0 +1,119 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.entity.Author;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.AuthorChangedEvent;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AutocompleteServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+    @Mock private IAuthorRepository authorRepository;
+    @Mock private IReservationRepository reservationRepository;
+
+    @InjectMocks private AutocompleteService autocompleteService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAllTitles()).thenReturn(List.of(
+                new Object[]{1L, "Le Petit Prince"},
+                new Object[]{2L, "Les Misérables"},
+                new Object[]{3L, "Vol de nuit"}));
+        when(authorRepository.findAllNames()).thenReturn(List.of(
+                new Object[]{10L, "Antoine", "de Saint-Exupéry"},
+                new Object[]{11L, "Victor", "Hugo"}));
+        when(bookRepository.findAllAuthorLinks()).thenReturn(List.of(
+                new Object[]{1L, 10L}, new Object[]{3L, 10L}, new Object[]{2L, 11L}));
+        when(reservationRepository.countAllByBook()).thenReturn(List.of(
+                new Object[]{1L, 5L}, new Object[]{2L, 2L}, new Object[]{3L, 1L}));
+        autocompleteService.rebuild();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("La saisie, sans accents ni majuscules, complète n'importe quel mot du titre ou du nom")
+    void shouldCompleteAnyWordWithoutAccents() {
+        assertThat(autocompleteService.suggest("MISER", 10)).extracting(SearchHit::getId).containsExactly(2L);
+        assertThat(autocompleteService.suggest("prin", 10)).extracting(SearchHit::getText)
+                .containsExactly("Le Petit Prince");
+        assertThat(autocompleteService.suggest("exupe", 10)).extracting(SearchHit::getType)
+                .containsExactly(CatalogEntityType.AUTHOR);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Les suggestions sont classées par popularité, celle d'un auteur cumulant ses livres")
+    void shouldRankByPopularity() {
+        List<SearchHit> hits = autocompleteService.suggest("v", 10);
+
+        assertThat(hits).extracting(SearchHit::getText).containsExactly("Victor Hugo", "Vol de nuit");
+        assertThat(autocompleteService.suggest("antoine", 1).get(0).getScore()).isEqualTo(6);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("L'index suit les créations, réservations et suppressions")
+    void shouldFollowCatalogEvents() {
+        Author author = Author.builder().id(12L).firstname("Voltaire").lastname("Arouet").build();
+        Book candide = Book.builder().id(4L).title("Candide").author(author).build();
+        autocompleteService.onAuthorChanged(new AuthorChangedEvent(author, ChangeOperation.INSERT));
+        autocompleteService.onBookChanged(new BookChangedEvent(candide, ChangeOperation.INSERT));
+        for (int i = 0; i < 3; i++) {
+            autocompleteService.onBookReserved(new BookReservedEvent(4L, 1L));
+        }
+
+        assertThat(autocompleteService.suggest("v", 10)).extracting(SearchHit::getText)
+                .containsExactly("Voltaire Arouet", "Victor Hugo", "Vol de nuit");
+        assertThat(autocompleteService.suggest("cand", 10).get(0).getScore()).isEqualTo(3);
+
+        autocompleteService.onBookChanged(new BookChangedEvent(candide, ChangeOperation.DELETE));
+
+        assertThat(autocompleteService.suggest("cand", 10)).isEmpty();
+        assertThat(autocompleteService.suggest("voltaire", 10).get(0).getScore()).isZero();
+    }
+
+    @Test
+    @DisplayName("Doit refuser une taille de résultat hors bornes")
+    void shouldRejectInvalidLimit() {
+        assertThatThrownBy(() -> autocompleteService.suggest("a", 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> autocompleteService.suggest("a", AutocompleteService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Un livre commité pendant la reconstruction n'est pas perdu à l'échange de l'index")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        Book candide = Book.builder().id(4L).title("Candide").build();
+        // le livre est commité après la lecture des titres, avant la fin de la reconstruction
+        when(authorRepository.findAllNames()).thenAnswer(invocation -> {
+            autocompleteService.onBookChanged(new BookChangedEvent(candide, ChangeOperation.INSERT));
+            return List.<Object[]>of(new Object[]{10L, "Antoine", "de Saint-Exupéry"}, new Object[]{11L, "Victor", "Hugo"});
+        });
+
+        autocompleteService.rebuild();
+
+        assertThat(autocompleteService.suggest("candi", 10)).extracting(SearchHit::getId).containsExactly(4L);
+    }
+}
@@ -0,0 +1,76 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookAvailability;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityServiceTest {
+
+    @Mock private IReservationRepository reservationRepository;
+
+    @InjectMocks private AvailabilityService availabilityService;
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Disponibilités dans l'ordre de la demande, sans doublon ni id inconnu")
+    void shouldReturnAvailabilityInRequestOrder() {
+        when(reservationRepository.findAvailabilityByBookIdIn(List.of(3L, 1L, 99L))).thenReturn(List.of(
+                new BookAvailability(1L, 2, 2L),
+                new BookAvailability(3L, 5, 1L)));
+
+        List<BookAvailability> availability = availabilityService.getAvailability(List.of(3L, 1L, 3L, 99L));
+
+        assertThat(availability).extracting(BookAvailability::getBookId).containsExactly(3L, 1L);
+        assertThat(availability).extracting(BookAvailability::getRemaining).containsExactly(4L, 0L);
+    }
+
+    @Test
+    @DisplayName("Exemplaires restants jamais négatifs, stock absent compté comme nul")
+    void shouldNeverReturnNegativeRemaining() {
+        assertThat(new BookAvailability(1L, 1, 3L).getRemaining()).isZero();
+        assertThat(new BookAvailability(1L, null, 0L).getStock()).isZero();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Listes enrichies en une requête par tranche de 500 livres")
+    void shouldEmbedAvailabilityByChunks() {
+        List<BookSummary> books = LongStream.rangeClosed(1, 501)
+                .mapToObj(id -> new BookSummary(id, "isbn" + id, "titre" + id, null, null, null, null, true))
+                .toList();
+        when(reservationRepository.findAvailabilityByBookIdIn(anyCollection()))
+                .thenReturn(List.of(new BookAvailability(1L, 3, 1L)))
+                .thenReturn(List.of());
+
+        availabilityService.withAvailability(books);
+
+        verify(reservationRepository, times(2)).findAvailabilityByBookIdIn(anyCollection());
+        assertThat(books.get(0).getAvailability().getRemaining()).isEqualTo(2);
+        assertThat(books.get(500).getAvailability()).isNull();
+    }
+
+    @Test
+    @DisplayName("Plus de 1000 ids refusés")
+    void shouldRejectTooManyIds() {
+        List<Long> ids = Collections.nCopies(AvailabilityService.MAX_IDS + 1, 1L);
+
+        assertThatThrownBy(() -> availabilityService.getAvailability(ids)).isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(reservationRepository);
+    }
+}
@@ -1,7 +1,16 @@
 package fr.ensitech.biblio.service;
 
+import fr.ensitech.biblio.dto.AuthorBooksPage;
+import fr.ensitech.biblio.dto.BookDetail;
+import fr.ensitech.biblio.dto.BookPatch;
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.IsbnLookup;
+import fr.ensitech.biblio.dto.StockAdjustment;
 import fr.ensitech.biblio.entity.Author;
 import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.StockAdjustedEvent;
 import fr.ensitech.biblio.repository.IAuthorRepository;
 import fr.ensitech.biblio.repository.IBookRepository;
 import fr.ensitech.biblio.utils.Dates;
@@ -9,14 +18,23 @@ import lombok.SneakyThrows;
 import org.aspectj.lang.annotation.Before;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 
 import javax.swing.text.html.Option;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.*;
@@ -30,6 +48,12 @@ public class BookServiceTest {
     @Mock
     private IAuthorRepository authorRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private IKnownIsbnService knownIsbnService;
+
     @InjectMocks
     private BookService bookService;
 
@@ -82,9 +106,9 @@ public class BookServiceTest {
         book.setId(0L);
         //when(bookRepository.findById(0L)).thenReturn(Optional.ofNullable(book));
         when(bookRepository.save(book)).thenReturn(book);
-        when(authorRepository.save(author1)).thenReturn(author1);
-        when(authorRepository.save(author2)).thenReturn(author2);
-        when(bookRepository.findByIsbnIgnoreCase(book.getIsbn())).thenReturn(null);
+        when(authorRepository.saveAll(book.getAuthors())).thenReturn(List.of(author1, author2));
+        when(knownIsbnService.mightExist(book.getIsbn())).thenReturn(true);
+        when(bookRepository.existsByIsbnNormalized(book.getIsbn())).thenReturn(false);
 
         //WHEN
         Book savedBook = bookService.addOrUpdateBook(book);
@@ -115,7 +139,8 @@ public class BookServiceTest {
         //when(bookRepository.save(book)).thenReturn(book);
         //when(bookRepository.findById(1L)).thenReturn(Optional.ofNullable(book));
         book.setId(0L);
-        when(bookRepository.findByIsbnIgnoreCase(book.getIsbn())).thenReturn(book);
+        when(knownIsbnService.mightExist(book.getIsbn())).thenReturn(true);
+        when(bookRepository.existsByIsbnNormalized(book.getIsbn())).thenReturn(true);
 
         //WHEN
         //THEN
@@ -125,6 +150,71 @@ public class BookServiceTest {
                 .hasMessage("Book with same ISBN already exists");
     }
 
+    @SneakyThrows
+    @Test
+    @DisplayName("ISBN absent du filtre de Bloom : insertion sans requête de vérification")
+    void shouldSkipDuplicateQueryWhenIsbnIsUnknown() {
+        book.setId(0L);
+        when(authorRepository.saveAll(book.getAuthors())).thenReturn(List.of(author1, author2));
+
+        bookService.addOrUpdateBook(book);
+
+        verify(knownIsbnService).mightExist("123456789");
+        verify(bookRepository, never()).existsByIsbnNormalized(anyString());
+        verify(bookRepository, never()).existsByIsbn13(anyLong());
+        verify(bookRepository).save(book);
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Ajout groupé : seuls les ISBN possiblement connus sont vérifiés en base")
+    void shouldCheckOnlyPossiblyKnownIsbnsInBulk() {
+        book.setId(null);
+        Book other = Book.builder().title("L'Étranger").isbn("2-07-036024-5").build();
+        when(knownIsbnService.mightExist("9782070360246")).thenReturn(true);
+        when(bookRepository.findExistingIsbn13s(List.of(9782070360246L))).thenReturn(List.of(9782070360246L));
+
+        assertThatThrownBy(() -> bookService.addBooks(List.of(book, other)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Books with same ISBN already exist: [9782070360246]");
+        verify(bookRepository, never()).findExistingIsbns(anyCollection());
+    }
+
+    @SneakyThrows
+    @Test
+    @DisplayName("Ajout groupé : auteurs et livres enregistrés en un seul saveAll")
+    void shouldAddBooksInBulk() {
+        book.setId(null);
+        Book other = Book.builder()
+                .title("Livre de Spring")
+                .isbn("987654321")
+                .author(author1)
+                .build();
+
+        when(knownIsbnService.mightExist(anyString())).thenReturn(true);
+        when(bookRepository.findExistingIsbns(anyCollection())).thenReturn(List.of());
+        when(authorRepository.saveAll(anySet())).thenAnswer(inv -> List.copyOf(inv.<Set<Author>>getArgument(0)));
+        when(bookRepository.saveAll(List.of(book, other))).thenReturn(List.of(book, other));
+
+        List<Book> saved = bookService.addBooks(List.of(book, other));
+
+        assertThat(saved).containsExactly(book, other);
+        verify(bookRepository).saveAll(List.of(book, other));
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldRejectBulkWithDuplicateIsbn() {
+        book.setId(null);
+        Book duplicate = Book.builder().title("Doublon").isbn("123456789").build();
+
+        assertThatThrownBy(() -> bookService.addBooks(List.of(book, duplicate)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duplicate ISBN in request: 123456789");
+
+        verifyNoInteractions(authorRepository);
+    }
+
     @SneakyThrows
     @Test
     void shouldDeleteExistingBook() {
@@ -137,6 +227,10 @@ public class BookServiceTest {
 
         //THEN
         verify(bookRepository).deleteById(1L);
+        ArgumentCaptor<BookChangedEvent> event = ArgumentCaptor.forClass(BookChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getBook()).isSameAs(book);
+        assertThat(event.getValue().getOperation()).isEqualTo(ChangeOperation.DELETE);
     }
 
     @Test
@@ -218,47 +312,247 @@ public class BookServiceTest {
     @Test
     @SneakyThrows
     void shouldGetBookByIsbn() {
-        when(bookRepository.findByIsbnIgnoreCase("123456789")).thenReturn(book);
+        when(bookRepository.findByIsbnNormalized("123456789")).thenReturn(book);
 
         Book result = bookService.getBookByIsbn("123456789");
 
         assertThat(result).isNotNull();
-        verify(bookRepository).findByIsbnIgnoreCase("123456789");
+        verify(bookRepository).findByIsbnNormalized("123456789");
     }
     @Test
     @SneakyThrows
     void shouldReturnNullWhenIsbnEmpty() {
-        when(bookRepository.findByIsbnIgnoreCase(" ")).thenReturn(null);
+        when(bookRepository.findByIsbnNormalized("")).thenReturn(null);
 
         Book result = bookService.getBookByIsbn(" ");
 
         assertThat(result).isNull();
-        verify(bookRepository).findByIsbnIgnoreCase(" ");
+        verify(bookRepository).findByIsbnNormalized("");
     }
 
     @Test
     @SneakyThrows
     void shouldReturnEmptyListWhenGetBooksByTitleEmpty() {
-        when(bookRepository.findByTitleIgnoreCase("")).thenReturn(List.of());
+        when(bookRepository.findByTitleFolded("")).thenReturn(List.of());
 
         List<Book> result = bookService.getBooksByTitle("");
 
         assertThat(result).isNotNull().isEmpty();
-        verify(bookRepository).findByTitleIgnoreCase("");
+        verify(bookRepository).findByTitleFolded("");
     }
 
     @Test
     @SneakyThrows
-    void shouldReturnEmptyListWhenTitleAndDescriptionEmpty() {
-        when(bookRepository.findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase("", ""))
+    @DisplayName("Recherche groupée par ISBN : normalisation, doublons, une requête par tranche de 500")
+    void shouldLookupIsbnsByChunks() {
+        book.foldColumns();
+        List<String> isbns = new ArrayList<>(List.of(" 123456789 ", "123456789", "", "abc-1"));
+        for (int i = 0; i < 600; i++) {
+            isbns.add("inconnu-" + i);
+        }
+        when(bookRepository.findWithAuthorsByIsbnNormalizedIn(anyCollection()))
+                .thenReturn(List.of(book))
                 .thenReturn(List.of());
 
+        IsbnLookup lookup = bookService.getBookDetailsByIsbns(isbns);
+
+        assertThat(lookup.getFound()).extracting(BookDetail::getIsbn).containsExactly("123456789");
+        assertThat(lookup.getMissing()).hasSize(602).startsWith("", "abc-1", "inconnu-0");
+        ArgumentCaptor<Collection<String>> chunks = ArgumentCaptor.forClass(Collection.class);
+        verify(bookRepository, times(2)).findWithAuthorsByIsbnNormalizedIn(chunks.capture());
+        assertThat(chunks.getAllValues().get(0)).hasSize(500).contains("123456789", "ABC-1", "INCONNU-0");
+        assertThat(chunks.getAllValues().get(1)).hasSize(102);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("ISBN-10, ISBN-13 et formes avec tirets d'un même livre : une seule clé numérique")
+    void shouldLookupAnyIsbnFormByNumericKey() {
+        when(bookRepository.findByIsbn13(9782070360246L)).thenReturn(book);
+
+        assertThat(bookService.getBookByIsbn("2-07-036024-5")).isSameAs(book);
+        assertThat(bookService.getBookByIsbn("ISBN 978-2-07-036024-6")).isSameAs(book);
+        assertThat(bookService.getBookByIsbn(" 9782070360246 ")).isSameAs(book);
+        verify(bookRepository, never()).findByIsbnNormalized(anyString());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Clé de contrôle invalide : pas de clé numérique, recherche sur le code normalisé")
+    void shouldFallBackToNormalizedCodeForInvalidIsbn() {
+        bookService.getBookByIsbn("2-07-036024-8");
+        bookService.getBookByIsbn("978-2-07-036024-7");
+
+        verify(bookRepository).findByIsbnNormalized("2-07-036024-8");
+        verify(bookRepository).findByIsbnNormalized("978-2-07-036024-7");
+        verify(bookRepository, never()).findByIsbn13(anyLong());
+    }
+
+    @Test
+    @DisplayName("Ajout groupé : ISBN-10 et ISBN-13 du même livre refusés comme doublon")
+    void shouldRejectBulkWithSameIsbnInTwoForms() {
+        Book isbn10 = Book.builder().title("L'Étranger").isbn("2-07-036024-5").build();
+        Book isbn13 = Book.builder().title("L'Étranger").isbn("9782070360246").build();
+
+        assertThatThrownBy(() -> bookService.addBooks(List.of(isbn10, isbn13)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Duplicate ISBN in request: 9782070360246");
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @DisplayName("Recherche groupée limitée à 1000 ISBN")
+    void shouldRejectTooManyIsbns() {
+        List<String> isbns = Collections.nCopies(BookService.MAX_ISBN_LOOKUP + 1, "123");
+
+        assertThatThrownBy(() -> bookService.getBookDetailsByIsbns(isbns))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Livres d'un auteur : une ligne de plus lue pour savoir s'il reste une page")
+    void shouldPageBooksByAuthorWithKeyset() {
+        when(bookRepository.findSummariesByAuthorAfter(1L, 10L, Limit.of(3))).thenReturn(List.of(
+                new BookSummary(11L, "a", "A", null, null, null, null, true),
+                new BookSummary(15L, "b", "B", null, null, null, null, true),
+                new BookSummary(20L, "c", "C", null, null, null, null, true)));
+        when(bookRepository.findSummariesByAuthorAfter(1L, 15L, Limit.of(3))).thenReturn(List.of(
+                new BookSummary(20L, "c", "C", null, null, null, null, true)));
+
+        AuthorBooksPage first = bookService.getBookSummariesByAuthor(1L, 10L, 2);
+        AuthorBooksPage last = bookService.getBookSummariesByAuthor(1L, first.getNextAfter(), 2);
+
+        assertThat(first.getBooks()).extracting(BookSummary::getId).containsExactly(11L, 15L);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(last.getBooks()).extracting(BookSummary::getId).containsExactly(20L);
+        assertThat(last.isHasMore()).isFalse();
+        assertThat(last.getNextAfter()).isEqualTo(20L);
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldGetBooksByAuthor() {
+        when(bookRepository.findByAuthors_Id(1L)).thenReturn(List.of(book));
+
+        assertThat(bookService.getBooksByAuthor(author1)).containsExactly(book);
+        assertThatThrownBy(() -> bookService.getBooksByAuthor(new Author()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Recherche par titre : casse et accents normalisés avant la requête")
+    void shouldFoldTitleBeforeLookup() {
+        when(bookRepository.findByTitleFolded("l etranger")).thenReturn(List.of(book));
+
+        List<Book> result = bookService.getBooksByTitle("L'ÉTRANGER");
+
+        assertThat(result).containsExactly(book);
+        verify(bookRepository).findByTitleFolded("l etranger");
+    }
+
+    @Test
+    @SneakyThrows
+    void shouldReturnEmptyListWhenTitleAndDescriptionEmpty() {
         List<Book> result = bookService.getBooksByTitleOrDescription("", "");
 
         assertThat(result).isNotNull().isEmpty();
-        verify(bookRepository).findByTitleContainingIgnoreCaseOrDescriptionContainingIgnoreCase("", "");
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Recherche \"contient\" réduite à de la ponctuation : aucun résultat, sans requête sur tout le catalogue")
+    void shouldNotSearchPunctuationOnly() {
+        assertThat(bookService.getBookSummariesByTitleContains("!!!")).isEmpty();
+        assertThat(bookService.getBookSummariesByTitleOrDescription("%", "%")).isEmpty();
+        assertThat(bookService.getBooksByTitleContains("--")).isEmpty();
+
+        verifyNoInteractions(bookRepository);
     }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Modification partielle : seuls les champs fournis sont appliqués")
+    void shouldPatchOnlyProvidedFields() {
+        book.setStock(3);
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        BookPatch patch = new BookPatch();
+        patch.setStock(8);
+        patch.setTitle("Java moderne");
+
+        BookDetail detail = bookService.patchBook(1L, patch);
+
+        assertThat(detail.getStock()).isEqualTo(8);
+        assertThat(detail.getTitle()).isEqualTo("Java moderne");
+        assertThat(detail.getDescription()).isEqualTo("Cours et Exercices en Java");
+        assertThat(detail.getIsbn()).isEqualTo("123456789");
+        verify(eventPublisher).publishEvent(any(BookChangedEvent.class));
+        verify(bookRepository, never()).save(any());
+    }
 
+    @Test
+    @SneakyThrows
+    @DisplayName("Modification partielle sans changement de valeur : aucun événement")
+    void shouldNotPublishWhenPatchChangesNothing() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        BookPatch patch = new BookPatch();
+        patch.setTitle("Livre de Java");
+
+        bookService.patchBook(1L, patch);
+
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
+    @Test
+    @DisplayName("Modification partielle : titre ou ISBN vide, stock négatif refusés")
+    void shouldRejectInvalidPatch() {
+        when(bookRepository.findById(1L)).thenReturn(Optional.of(book));
+        BookPatch blankTitle = new BookPatch();
+        blankTitle.setTitle(" ");
+        BookPatch blankIsbn = new BookPatch();
+        blankIsbn.setIsbn(" ");
+        BookPatch negativeStock = new BookPatch();
+        negativeStock.setStock(-1);
+
+        assertThatThrownBy(() -> bookService.patchBook(1L, blankTitle)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookService.patchBook(1L, blankIsbn)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> bookService.patchBook(1L, negativeStock)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Ajustement des stocks : variations cumulées par livre, un seul appel au dépôt")
+    void shouldMergeStockAdjustments() {
+        when(bookRepository.adjustStocks(Map.of(1L, 3, 2L, -1))).thenReturn(2);
+
+        int updated = bookService.adjustStocks(List.of(new StockAdjustment(1L, 5), new StockAdjustment(2L, -1),
+                new StockAdjustment(1L, -2), new StockAdjustment(3L, 0)));
+
+        assertThat(updated).isEqualTo(2);
+        // compteur de versions verrouillé (journal) avant les lignes de livres
+        InOrder order = inOrder(eventPublisher, bookRepository);
+        order.verify(eventPublisher).publishEvent(any(StockAdjustedEvent.class));
+        order.verify(bookRepository).adjustStocks(anyMap());
+    }
+
+    @Test
+    @DisplayName("Ajustement des stocks : livre inconnu ou stock insuffisant, tout est refusé")
+    void shouldRejectPartialStockAdjustment() {
+        when(bookRepository.adjustStocks(Map.of(1L, -5, 2L, 1))).thenReturn(1);
+
+        // l'exception annule la transaction, journal compris
+        assertThatThrownBy(() -> bookService.adjustStocks(List.of(new StockAdjustment(1L, -5), new StockAdjustment(2L, 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Ajustement des stocks : variations cumulées hors des bornes d'un entier refusées")
+    void shouldRejectOverflowingStockAdjustment() {
+        assertThatThrownBy(() -> bookService.adjustStocks(List.of(new StockAdjustment(1L, Integer.MAX_VALUE),
+                new StockAdjustment(1L, 1)))).isInstanceOf(IllegalArgumentException.class);
+        verify(bookRepository, never()).adjustStocks(anyMap());
+    }
 }
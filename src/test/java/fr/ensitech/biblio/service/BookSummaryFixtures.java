@@ -0,0 +1,16 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+
+/**
+ * Résumés de livres pour les tests des services servis par un index en mémoire.
+ */
+final class BookSummaryFixtures {
+
+    private BookSummaryFixtures() {
+    }
+
+    static BookSummary summary(Long id) {
+        return new BookSummary(id, "isbn" + id, "titre" + id, null, null, null, null, true);
+    }
+}
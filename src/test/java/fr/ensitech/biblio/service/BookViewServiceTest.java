@@ -0,0 +1,98 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.BookViewCount;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookViewedEvent;
+import fr.ensitech.biblio.repository.IBookViewCountRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookViewServiceTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private IBookViewCountRepository bookViewCountRepository;
+
+    @InjectMocks private BookViewService bookViewService;
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Les consultations sont comptées en mémoire puis reportées par un seul upsert groupé, suivi du ménage des orphelins")
+    @SuppressWarnings("unchecked")
+    void shouldFlushViewsInOneBatch() {
+        for (int i = 0; i < 3; i++) {
+            bookViewService.onBookViewed(new BookViewedEvent(1L));
+        }
+        bookViewService.onBookViewed(new BookViewedEvent(2L));
+        verifyNoInteractions(jdbcTemplate);
+
+        assertThat(bookViewService.flush()).isEqualTo(2);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).containsExactlyInAnyOrder(new Object[]{1L, 3L}, new Object[]{2L, 1L});
+        ArgumentCaptor<Object[]> ids = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(startsWith("delete from biblio_database.book_view_counts"), ids.capture());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(bookViewService.flush()).isZero();
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Base indisponible : les consultations restent en mémoire pour le report suivant")
+    void shouldKeepViewsWhenFlushFails() {
+        bookViewService.onBookViewed(new BookViewedEvent(1L));
+        bookViewService.onBookViewed(new BookViewedEvent(1L));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("down"))
+                .thenReturn(new int[]{1});
+
+        assertThat(bookViewService.flush()).isZero();
+        when(bookViewCountRepository.findById(1L)).thenReturn(Optional.empty());
+        assertThat(bookViewService.getViews(1L)).isEqualTo(2);
+        assertThat(bookViewService.flush()).isEqualTo(1);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Le total inclut les consultations déjà reportées et celles en attente")
+    void shouldAddPendingToPersistedViews() {
+        when(bookViewCountRepository.findById(1L)).thenReturn(Optional.of(new BookViewCount(1L, 40L)));
+        bookViewService.onBookViewed(new BookViewedEvent(1L));
+
+        assertThat(bookViewService.getViews(1L)).isEqualTo(41);
+        assertThatThrownBy(() -> bookViewService.getViews(0L)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Un livre supprimé perd ses consultations en attente et en base")
+    void shouldDropViewsOfDeletedBook() {
+        bookViewService.onBookViewed(new BookViewedEvent(1L));
+
+        bookViewService.onBookChanged(new BookChangedEvent(Book.builder().id(1L).build(), ChangeOperation.DELETE));
+
+        verify(bookViewCountRepository).deleteById(1L);
+        assertThat(bookViewService.flush()).isZero();
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
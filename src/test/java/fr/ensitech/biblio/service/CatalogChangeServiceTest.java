@@ -0,0 +1,116 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.CatalogChangeDto;
+import fr.ensitech.biblio.dto.CatalogChangePage;
+import fr.ensitech.biblio.entity.*;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.StockAdjustedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.ICatalogChangeRepository;
+import fr.ensitech.biblio.repository.ICatalogVersionRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogChangeServiceTest {
+
+    @Mock private ICatalogChangeRepository catalogChangeRepository;
+    @Mock private IBookRepository bookRepository;
+    @Mock private IAuthorRepository authorRepository;
+    @Mock private ICatalogVersionRepository catalogVersionRepository;
+
+    @InjectMocks private CatalogChangeService catalogChangeService;
+
+    private static CatalogChange change(long version, CatalogEntityType type, long id, ChangeOperation operation) {
+        return new CatalogChange(version, type, id, operation, Instant.now());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une entité modifiée plusieurs fois n'apparaît qu'une fois, avec sa dernière version")
+    void shouldCollapseChangesPerEntity() {
+        Book book = Book.builder().id(1L).title("Java").isbn("111").build();
+        when(catalogChangeRepository.findByVersionGreaterThanOrderByVersion(10L, Limit.of(11)))
+                .thenReturn(List.of(
+                        change(11, CatalogEntityType.BOOK, 1, ChangeOperation.INSERT),
+                        change(12, CatalogEntityType.BOOK, 2, ChangeOperation.INSERT),
+                        change(13, CatalogEntityType.BOOK, 1, ChangeOperation.UPDATE),
+                        change(14, CatalogEntityType.BOOK, 2, ChangeOperation.DELETE)));
+        when(bookRepository.findWithAuthorsByIdIn(Set.of(1L))).thenReturn(List.of(book));
+
+        CatalogChangePage page = catalogChangeService.getChanges(10, 10);
+
+        assertThat(page.getNextSince()).isEqualTo(14);
+        assertThat(page.isHasMore()).isFalse();
+        assertThat(page.getChanges()).extracting(CatalogChangeDto::getVersion).containsExactly(13L, 14L);
+        assertThat(page.getChanges().get(0).getBook().getTitle()).isEqualTo("Java");
+        assertThat(page.getChanges().get(1).getOperation()).isEqualTo(ChangeOperation.DELETE);
+        assertThat(page.getChanges().get(1).getBook()).isNull();
+        verifyNoInteractions(authorRepository);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une entité supprimée depuis la modification est renvoyée comme tombstone")
+    void shouldReturnTombstoneWhenEntityNoLongerExists() {
+        when(catalogChangeRepository.findByVersionGreaterThanOrderByVersion(0L, Limit.of(3)))
+                .thenReturn(List.of(
+                        change(1, CatalogEntityType.AUTHOR, 5, ChangeOperation.INSERT),
+                        change(2, CatalogEntityType.AUTHOR, 6, ChangeOperation.INSERT),
+                        change(3, CatalogEntityType.AUTHOR, 7, ChangeOperation.INSERT)));
+        when(authorRepository.findAllById(Set.of(5L, 6L)))
+                .thenReturn(List.of(Author.builder().id(5L).firstname("Victor").lastname("Hugo").build()));
+
+        CatalogChangePage page = catalogChangeService.getChanges(0, 2);
+
+        assertThat(page.isHasMore()).isTrue();
+        assertThat(page.getNextSince()).isEqualTo(2);
+        assertThat(page.getChanges()).hasSize(2);
+        assertThat(page.getChanges().get(0).getAuthor().getLastname()).isEqualTo("Hugo");
+        assertThat(page.getChanges().get(1).getOperation()).isEqualTo(ChangeOperation.DELETE);
+    }
+
+    @Test
+    @DisplayName("Chaque entrée du journal prend la version suivante du compteur verrouillé")
+    void shouldAssignVersionsFromLockedCounter() {
+        CatalogVersion counter = new CatalogVersion(CatalogVersion.ID, 41);
+        when(catalogVersionRepository.findById(CatalogVersion.ID)).thenReturn(Optional.of(counter));
+
+        catalogChangeService.onBookChanged(new BookChangedEvent(Book.builder().id(7L).build(), ChangeOperation.UPDATE));
+        catalogChangeService.onStockAdjusted(new StockAdjustedEvent(List.of(8L, 9L)));
+
+        ArgumentCaptor<CatalogChange> saved = ArgumentCaptor.forClass(CatalogChange.class);
+        verify(catalogChangeRepository, times(3)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(CatalogChange::getVersion, CatalogChange::getEntityId)
+                .containsExactly(tuple(42L, 7L), tuple(43L, 8L), tuple(44L, 9L));
+        assertThat(counter.getLastVersion()).isEqualTo(44);
+    }
+
+    @Test
+    @DisplayName("Doit refuser une version négative ou une taille de page hors bornes")
+    void shouldRejectInvalidParameters() {
+        assertThatThrownBy(() -> catalogChangeService.getChanges(-1, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalogChangeService.getChanges(0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> catalogChangeService.getChanges(0, CatalogChangeService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(catalogChangeRepository);
+    }
+}
@@ -0,0 +1,113 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.FacetPage;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.Facet;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static fr.ensitech.biblio.service.BookSummaryFixtures.summary;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FacetServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+
+    @InjectMocks private FacetService facetService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAllFacetValues()).thenReturn(List.of(
+                new Object[]{1L, "roman", "fr", "Gallimard", true, LocalDate.of(1942, 5, 19)},
+                new Object[]{2L, "roman", "fr", "Folio", true, LocalDate.of(1947, 6, 10)},
+                new Object[]{3L, "essai", "fr", "Gallimard", false, null},
+                new Object[]{4L, "roman", "en", "Penguin", true, LocalDate.of(1949, 6, 8)}));
+        facetService.rebuild();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Navigation filtrée : compteurs en mémoire, seule la page affichée est lue en base")
+    void shouldBrowseFilteredPage() {
+        when(bookRepository.findSummariesByIdIn(List.of(2L))).thenReturn(List.of(summary(2L)));
+
+        FacetPage page = facetService.browse(Map.of(Facet.CATEGORY, Set.of("roman"), Facet.LANGUAGE, Set.of("fr")), 1, 1);
+
+        assertThat(page.getTotal()).isEqualTo(2);
+        assertThat(page.getBooks()).extracting(BookSummary::getId).containsExactly(2L);
+        assertThat(page.getFacets().get("language")).containsExactly(entry("fr", 2), entry("en", 1));
+        assertThat(page.getFacets().get("editor")).containsOnly(entry("Gallimard", 1), entry("Folio", 1));
+        assertThat(page.getFacets().get("decade")).containsExactly(entry("1940", 2));
+        assertThat(page.getFacets().get("published")).containsExactly(entry("true", 2));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Au-delà de la dernière page : compteurs renvoyés, aucune requête")
+    void shouldNotQueryBeyondLastPage() {
+        FacetPage page = facetService.browse(Map.of(), 5, 10);
+
+        assertThat(page.getTotal()).isEqualTo(4);
+        assertThat(page.getBooks()).isEmpty();
+        assertThat(page.getFacets().get("category")).containsExactly(entry("roman", 3), entry("essai", 1));
+        verify(bookRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Les compteurs suivent les modifications et suppressions de livres")
+    void shouldFollowBookEvents() {
+        Book book = Book.builder().id(3L).category("roman").language("en").editor("Penguin").published(true)
+                .publicationDate(LocalDate.of(2001, 1, 1)).build();
+        facetService.onBookChanged(new BookChangedEvent(book, ChangeOperation.UPDATE));
+        facetService.onBookChanged(new BookChangedEvent(Book.builder().id(1L).build(), ChangeOperation.DELETE));
+
+        Map<String, Map<String, Integer>> facets = facetService.browse(Map.of(), 1, 10).getFacets();
+        assertThat(facets.get("category")).containsExactly(entry("roman", 3));
+        assertThat(facets.get("language")).containsExactly(entry("en", 2), entry("fr", 1));
+        assertThat(facets.get("decade")).containsExactly(entry("1940", 2), entry("2000", 1));
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une suppression commitée pendant la reconstruction n'est pas perdue à l'échange de l'index")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        // la ligne du livre 1 est déjà lue quand sa suppression est commitée
+        when(bookRepository.findAllFacetValues()).thenAnswer(invocation -> {
+            List<Object[]> rows = List.of(
+                    new Object[]{1L, "roman", "fr", "Gallimard", true, LocalDate.of(1942, 5, 19)},
+                    new Object[]{2L, "roman", "fr", "Folio", true, LocalDate.of(1947, 6, 10)});
+            facetService.onBookChanged(new BookChangedEvent(Book.builder().id(1L).build(), ChangeOperation.DELETE));
+            return rows;
+        });
+
+        facetService.rebuild();
+
+        assertThat(facetService.browse(Map.of(), 1, 10).getTotal()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Taille de page hors bornes refusée")
+    void shouldRejectInvalidPageSize() {
+        assertThatThrownBy(() -> facetService.browse(Map.of(), 0, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> facetService.browse(Map.of(), -1, 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.SearchHit;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.CatalogEntityType;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IAuthorRepository;
+import fr.ensitech.biblio.repository.IBookRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FuzzySearchServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+    @Mock private IAuthorRepository authorRepository;
+
+    @InjectMocks private FuzzySearchService fuzzySearchService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAllTitles()).thenReturn(List.of(
+                new Object[]{1L, "Les Misérables"},
+                new Object[]{2L, "L'Étranger"}));
+        when(authorRepository.findAllNames()).thenReturn(List.<Object[]>of(new Object[]{10L, "Albert", "Camus"}));
+        fuzzySearchService.rebuild();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une requête mal orthographiée trouve le livre ou l'auteur en une seule requête")
+    void shouldFindBooksAndAuthorsDespiteTypos() {
+        assertThat(fuzzySearchService.search("Miserbles", 10)).extracting(SearchHit::getId).containsExactly(1L);
+        assertThat(fuzzySearchService.search("etrnager", 10)).extracting(SearchHit::getId).containsExactly(2L);
+
+        List<SearchHit> hits = fuzzySearchService.search("albret camu", 10);
+        assertThat(hits).extracting(SearchHit::getType).containsExactly(CatalogEntityType.AUTHOR);
+        assertThat(hits.get(0).getText()).isEqualTo("Albert Camus");
+        assertThat(hits.get(0).getScore()).isBetween(0.0, 1.0);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("L'index suit les modifications et suppressions de livres")
+    void shouldFollowBookEvents() {
+        Book book = Book.builder().id(2L).title("La Peste").build();
+        fuzzySearchService.onBookChanged(new BookChangedEvent(book, ChangeOperation.UPDATE));
+
+        assertThat(fuzzySearchService.search("etranger", 10)).isEmpty();
+        assertThat(fuzzySearchService.search("pezte", 10)).extracting(SearchHit::getText).containsExactly("La Peste");
+
+        fuzzySearchService.onBookChanged(new BookChangedEvent(book, ChangeOperation.DELETE));
+        assertThat(fuzzySearchService.search("peste", 10)).isEmpty();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Un livre commité pendant la reconstruction n'est pas perdu à l'échange de l'index")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        Book book = Book.builder().id(3L).title("La Chute").build();
+        when(authorRepository.findAllNames()).thenAnswer(invocation -> {
+            fuzzySearchService.onBookChanged(new BookChangedEvent(book, ChangeOperation.INSERT));
+            return List.<Object[]>of(new Object[]{10L, "Albert", "Camus"});
+        });
+
+        fuzzySearchService.rebuild();
+
+        assertThat(fuzzySearchService.search("la chte", 10)).extracting(SearchHit::getId).contains(3L);
+    }
+}
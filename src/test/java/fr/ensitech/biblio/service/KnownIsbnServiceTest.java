@@ -0,0 +1,111 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KnownIsbnServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+
+    @InjectMocks private KnownIsbnService knownIsbnService;
+
+    @Test
+    @DisplayName("Avant la construction du filtre, tout ISBN doit être vérifié en base")
+    void shouldReportEveryIsbnBeforeRebuild() {
+        assertThat(knownIsbnService.mightExist("9782070360246")).isTrue();
+        assertThat(knownIsbnService.mightExist("ISBN-RES-0001")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Toutes les formes d'un ISBN connu sont reconnues, un ISBN inconnu est déclaré absent")
+    void shouldRecognizeKnownIsbnsInAnyForm() {
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("978-2-07-036024-6", "isbn-res-0001"));
+        knownIsbnService.rebuild();
+
+        assertThat(knownIsbnService.mightExist("2070360245")).isTrue();
+        assertThat(knownIsbnService.mightExist(" ISBN-RES-0001 ")).isTrue();
+        assertThat(knownIsbnService.mightExist("9780306406157")).isFalse();
+        assertThat(knownIsbnService.mightExist("ISBN-RES-0002")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Un ISBN enregistré pendant la construction du filtre n'est pas perdu")
+    void shouldReplayIsbnsWrittenDuringRebuild() {
+        when(bookRepository.findAllIsbns()).thenAnswer(invocation -> {
+            knownIsbnService.onBookCommitted(new BookChangedEvent(Book.builder().id(2L).isbn("9782070360246").build(),
+                    ChangeOperation.INSERT));
+            return List.of();
+        });
+
+        knownIsbnService.rebuild();
+
+        assertThat(knownIsbnService.mightExist("2-07-036024-5")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Le filtre suit les créations et se reconstruit après de nombreuses suppressions")
+    void shouldFollowBookEvents() throws Exception {
+        when(bookRepository.findAllIsbns()).thenReturn(List.of());
+        knownIsbnService.rebuild();
+
+        knownIsbnService.onBookWritten(new BookChangedEvent(Book.builder().id(1L).isbn("0-306-40615-2").build(),
+                ChangeOperation.INSERT));
+        assertThat(knownIsbnService.mightExist("978-0-306-40615-7")).isTrue();
+
+        for (long id = 1; id <= 1001; id++) {
+            knownIsbnService.onBookCommitted(new BookChangedEvent(Book.builder().id(id).build(), ChangeOperation.DELETE));
+        }
+        // reconstruction en tâche de fond
+        verify(bookRepository, timeout(5000).times(2)).findAllIsbns();
+        awaitAbsent("978-0-306-40615-7");
+    }
+
+    @Test
+    @DisplayName("Les suppressions reçues pendant une reconstruction en cours n'en lancent pas une autre")
+    void shouldStartOneRebuildWhileOneIsRunning() throws Exception {
+        when(bookRepository.findAllIsbns()).thenReturn(List.of("0-306-40615-2"));
+        knownIsbnService.rebuild();
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookRepository.findAllIsbns()).thenAnswer(invocation -> {
+            reading.countDown();
+            release.await();
+            return List.of();
+        });
+
+        for (long id = 1; id <= 1001; id++) {
+            knownIsbnService.onBookCommitted(new BookChangedEvent(Book.builder().id(id).build(), ChangeOperation.DELETE));
+        }
+        assertThat(reading.await(5, TimeUnit.SECONDS)).isTrue();
+        for (long id = 1002; id <= 3000; id++) {
+            knownIsbnService.onBookCommitted(new BookChangedEvent(Book.builder().id(id).build(), ChangeOperation.DELETE));
+        }
+        release.countDown();
+
+        awaitAbsent("978-0-306-40615-7");
+        verify(bookRepository, times(2)).findAllIsbns();
+    }
+
+    private void awaitAbsent(String isbn) throws InterruptedException {
+        for (int i = 0; i < 100 && knownIsbnService.mightExist(isbn); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(knownIsbnService.mightExist(isbn)).isFalse();
+    }
+}
@@ -0,0 +1,94 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.BookSummary;
+import fr.ensitech.biblio.dto.PublicationRangePage;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static fr.ensitech.biblio.service.BookSummaryFixtures.summary;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublicationDateServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+
+    @InjectMocks private PublicationDateService publicationDateService;
+
+    @BeforeEach
+    void setUp() {
+        when(bookRepository.findAllPublicationDates()).thenReturn(List.of(
+                new Object[]{1L, LocalDate.of(1942, 5, 19)},
+                new Object[]{2L, LocalDate.of(1947, 6, 10)},
+                new Object[]{3L, LocalDate.of(1942, 1, 1)}));
+        publicationDateService.rebuild();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Page d'un intervalle d'années : total en mémoire, seule la page est lue, dans l'ordre des dates")
+    void shouldPageBooksBetweenYears() {
+        when(bookRepository.findSummariesByIdIn(List.of(3L, 1L))).thenReturn(List.of(summary(1L), summary(3L)));
+
+        PublicationRangePage page = publicationDateService.getBooksBetweenYears(1940, 1949, 0, 2);
+
+        assertThat(page.getTotal()).isEqualTo(3);
+        assertThat(page.getBooks()).extracting(BookSummary::getId).containsExactly(3L, 1L);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Histogramme et comptage sans requête, à jour après modification et suppression")
+    void shouldAnswerHistogramFromIndex() {
+        publicationDateService.onBookChanged(new BookChangedEvent(
+                Book.builder().id(2L).publicationDate(LocalDate.of(1943, 3, 1)).build(), ChangeOperation.UPDATE));
+        publicationDateService.onBookChanged(new BookChangedEvent(Book.builder().id(3L).build(), ChangeOperation.DELETE));
+
+        assertThat(publicationDateService.getHistogram(1942, 1944))
+                .containsExactly(entry(1942, 1), entry(1943, 1), entry(1944, 0));
+        assertThat(publicationDateService.getBooksBetweenYears(1940, 1949, 1, 10).getTotal()).isEqualTo(2);
+        verify(bookRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une modification commitée pendant la reconstruction n'est pas perdue à l'échange de l'index")
+    void shouldReplayEventsReceivedDuringRebuild() {
+        when(bookRepository.findAllPublicationDates()).thenAnswer(invocation -> {
+            List<Object[]> rows = List.<Object[]>of(new Object[]{1L, LocalDate.of(1942, 5, 19)});
+            publicationDateService.onBookChanged(new BookChangedEvent(
+                    Book.builder().id(1L).publicationDate(LocalDate.of(1960, 1, 1)).build(), ChangeOperation.UPDATE));
+            return rows;
+        });
+
+        publicationDateService.rebuild();
+
+        assertThat(publicationDateService.getHistogram(1942, 1960)).containsEntry(1942, 0).containsEntry(1960, 1);
+    }
+
+    @Test
+    @DisplayName("Intervalle ou taille de page invalide refusé")
+    void shouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> publicationDateService.getBooksBetweenYears(1950, 1940, 0, 10))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> publicationDateService.getBooksBetweenYears(1940, 1950, 0, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> publicationDateService.getHistogram(1, 5000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
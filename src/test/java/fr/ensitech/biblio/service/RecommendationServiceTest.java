@@ -0,0 +1,106 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.RelatedBook;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.repository.IReservationRepository;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static fr.ensitech.biblio.service.BookSummaryFixtures.summary;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecommendationServiceTest {
+
+    @Mock private IReservationRepository reservationRepository;
+    @Mock private IBookRepository bookRepository;
+
+    @InjectMocks private RecommendationService recommendationService;
+
+    @BeforeEach
+    void setUp() {
+        when(reservationRepository.findAllUserBookPairs()).thenReturn(List.of(
+                new Object[]{1L, 10L}, new Object[]{1L, 20L}, new Object[]{1L, 30L},
+                new Object[]{2L, 10L}, new Object[]{2L, 30L}));
+        recommendationService.rebuild();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Recommandations classées en mémoire, fiches lues en une requête dans l'ordre du classement")
+    void shouldReturnRelatedBooksInRankOrder() {
+        when(bookRepository.findSummariesByIdIn(List.of(30L, 20L))).thenReturn(List.of(summary(20L), summary(30L)));
+
+        List<RelatedBook> related = recommendationService.getRelatedBooks(10L, 5);
+
+        assertThat(related).extracting(r -> r.getBook().getId()).containsExactly(30L, 20L);
+        assertThat(related).extracting(RelatedBook::getReservedTogether).containsExactly(2, 1);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une nouvelle réservation met à jour les recommandations sans relecture de l'historique")
+    void shouldFollowReservations() {
+        recommendationService.onBookReserved(new BookReservedEvent(20L, 2L));
+        when(bookRepository.findSummariesByIdIn(List.of(20L, 30L))).thenReturn(List.of(summary(20L), summary(30L)));
+
+        List<RelatedBook> related = recommendationService.getRelatedBooks(10L, 5);
+
+        assertThat(related).extracting(RelatedBook::getReservedTogether).containsExactly(2, 2);
+        verify(reservationRepository, times(1)).findAllUserBookPairs();
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Livre supprimé ou sans co-réservation : aucune requête")
+    void shouldNotQueryWithoutRelatedBooks() {
+        recommendationService.onBookChanged(new BookChangedEvent(Book.builder().id(10L).build(), ChangeOperation.DELETE));
+
+        assertThat(recommendationService.getRelatedBooks(10L, 5)).isEmpty();
+        assertThat(recommendationService.getRelatedBooks(99L, 5)).isEmpty();
+        verify(bookRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Une réservation commitée pendant la reconstruction est gardée, sans double comptage d'une réservation déjà lue")
+    void shouldReplayReservationsReceivedDuringRebuild() {
+        when(reservationRepository.findAllUserBookPairs()).thenAnswer(invocation -> {
+            List<Object[]> rows = List.of(
+                    new Object[]{1L, 10L}, new Object[]{1L, 20L}, new Object[]{1L, 30L},
+                    new Object[]{2L, 10L}, new Object[]{2L, 30L});
+            // la première est déjà dans les lignes lues, la seconde est commitée après la lecture
+            recommendationService.onBookReserved(new BookReservedEvent(20L, 1L));
+            recommendationService.onBookReserved(new BookReservedEvent(20L, 2L));
+            return rows;
+        });
+        when(bookRepository.findSummariesByIdIn(anyCollection())).thenReturn(List.of(summary(20L), summary(30L)));
+
+        recommendationService.rebuild();
+
+        assertThat(recommendationService.getRelatedBooks(10L, 5)).extracting(RelatedBook::getReservedTogether)
+                .containsExactly(2, 2);
+    }
+
+    @Test
+    @DisplayName("Limite hors bornes refusée")
+    void shouldRejectInvalidLimit() {
+        assertThatThrownBy(() -> recommendationService.getRelatedBooks(10L, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recommendationService.getRelatedBooks(10L, RecommendationService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -3,6 +3,7 @@ package fr.ensitech.biblio.service;
 import fr.ensitech.biblio.entity.Book;
 import fr.ensitech.biblio.entity.Reservation;
 import fr.ensitech.biblio.entity.User;
+import fr.ensitech.biblio.event.BookReservedEvent;
 import fr.ensitech.biblio.repository.IBookRepository;
 import fr.ensitech.biblio.repository.IReservationRepository;
 import fr.ensitech.biblio.repository.IUserRepository;
@@ -11,6 +12,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.util.*;
 
@@ -23,6 +25,7 @@ class ReservationServiceTest {
     @Mock private IReservationRepository reservationRepository;
     @Mock private IUserRepository userRepository;
     @Mock private IBookRepository bookRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
 
     @InjectMocks private ReservationService reservationService;
 
@@ -166,5 +169,10 @@ class ReservationServiceTest {
         assertThat(saved.getBook()).isEqualTo(book);
         assertThat(saved.isActive()).isTrue();
         assertThat(saved.getReservationDate()).isNotNull();
+
+        ArgumentCaptor<BookReservedEvent> event = ArgumentCaptor.forClass(BookReservedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().getBookId()).isEqualTo(10L);
+        assertThat(event.getValue().getUserId()).isEqualTo(1L);
     }
 }
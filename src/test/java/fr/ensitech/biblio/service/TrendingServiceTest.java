@@ -0,0 +1,78 @@
+package fr.ensitech.biblio.service;
+
+import fr.ensitech.biblio.dto.TrendingBook;
+import fr.ensitech.biblio.entity.Book;
+import fr.ensitech.biblio.entity.ChangeOperation;
+import fr.ensitech.biblio.event.BookChangedEvent;
+import fr.ensitech.biblio.event.BookReservedEvent;
+import fr.ensitech.biblio.event.BookViewedEvent;
+import fr.ensitech.biblio.repository.IBookRepository;
+import fr.ensitech.biblio.search.TrendingPeriod;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static fr.ensitech.biblio.service.BookSummaryFixtures.summary;
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TrendingServiceTest {
+
+    @Mock private IBookRepository bookRepository;
+
+    @InjectMocks private TrendingService trendingService;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(trendingService, "reservationWeight", 5);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Consultations et réservations pondérées, fiches lues en une requête dans l'ordre du classement")
+    void shouldRankViewsAndReservations() {
+        for (int i = 0; i < 3; i++) {
+            trendingService.onBookViewed(new BookViewedEvent(1L));
+        }
+        trendingService.onBookReserved(new BookReservedEvent(2L, 10L));
+        trendingService.onBookViewed(new BookViewedEvent(3L));
+        when(bookRepository.findSummariesByIdIn(List.of(2L, 1L))).thenReturn(List.of(summary(1L), summary(2L)));
+
+        List<TrendingBook> trending = trendingService.getTrending(TrendingPeriod.DAY, 2);
+
+        assertThat(trending).extracting(t -> t.getBook().getId()).containsExactly(2L, 1L);
+        assertThat(trending).extracting(TrendingBook::getScore).containsExactly(5, 3);
+    }
+
+    @Test
+    @SneakyThrows
+    @DisplayName("Livre supprimé ou aucune activité : aucune requête")
+    void shouldNotQueryWithoutActivity() {
+        assertThat(trendingService.getTrending(TrendingPeriod.HOUR, 10)).isEmpty();
+
+        trendingService.onBookViewed(new BookViewedEvent(1L));
+        trendingService.onBookChanged(new BookChangedEvent(Book.builder().id(1L).build(), ChangeOperation.DELETE));
+
+        assertThat(trendingService.getTrending(TrendingPeriod.HOUR, 10)).isEmpty();
+        verify(bookRepository, never()).findSummariesByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Période inconnue ou limite hors bornes refusée")
+    void shouldRejectInvalidArguments() {
+        assertThatThrownBy(() -> TrendingPeriod.of("week")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trendingService.getTrending(TrendingPeriod.HOUR, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> trendingService.getTrending(TrendingPeriod.HOUR, TrendingService.MAX_LIMIT + 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
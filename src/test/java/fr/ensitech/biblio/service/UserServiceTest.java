@@ -13,7 +13,8 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
-import java.util.Date;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -46,7 +47,7 @@ class UserServiceTest {
         user.setEmail("lucas@test.com");
         user.setPassword("1234"); // clair avant hash
         user.setRole("U");
-        user.setBirthdate(new Date());
+        user.setBirthdate(LocalDate.now());
         user.setActive(false);
 
         user.setSecurityQuestionId(1L);
@@ -158,9 +159,9 @@ class UserServiceTest {
     void shouldLoginSuccess() throws Exception {
         user.setActive(true);
         user.setPassword("HASHED_PWD");
-        user.setLastPasswordChange(new Date());
+        user.setLastPasswordChange(Instant.now());
 
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(user);
+        when(userRepository.findWithSecurityQuestionByEmail(user.getEmail())).thenReturn(user);
         when(passwordEncoder.matches("1234", "HASHED_PWD")).thenReturn(true);
 
         User logged = userService.login(user.getEmail(), "1234");
@@ -173,7 +174,7 @@ class UserServiceTest {
     @DisplayName("login() doit échouer si compte non activé")
     void shouldThrowWhenAccountNotActivated() {
         user.setActive(false);
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(user);
+        when(userRepository.findWithSecurityQuestionByEmail(user.getEmail())).thenReturn(user);
 
         assertThatThrownBy(() -> userService.login(user.getEmail(), "1234"))
                 .isInstanceOf(Exception.class)
@@ -185,9 +186,9 @@ class UserServiceTest {
     void shouldThrowWhenPasswordWrong() {
         user.setActive(true);
         user.setPassword("HASHED_PWD");
-        user.setLastPasswordChange(new Date());
+        user.setLastPasswordChange(Instant.now());
 
-        when(userRepository.findByEmail(user.getEmail())).thenReturn(user);
+        when(userRepository.findWithSecurityQuestionByEmail(user.getEmail())).thenReturn(user);
         when(passwordEncoder.matches("BAD", "HASHED_PWD")).thenReturn(false);
 
         assertThatThrownBy(() -> userService.login(user.getEmail(), "BAD"))
@@ -198,7 +199,7 @@ class UserServiceTest {
     @Test
     @DisplayName("login() doit échouer si email inconnu")
     void shouldThrowWhenLoginEmailUnknown() {
-        when(userRepository.findByEmail("unknown@test.com")).thenReturn(null);
+        when(userRepository.findWithSecurityQuestionByEmail("unknown@test.com")).thenReturn(null);
 
         assertThatThrownBy(() -> userService.login("unknown@test.com", "1234"))
                 .isInstanceOf(Exception.class)
@@ -261,7 +262,7 @@ class UserServiceTest {
         updated.setFirstname("Lucas2");
         updated.setLastname("Test2");
         updated.setRole("A");
-        updated.setBirthdate(new Date(0));
+        updated.setBirthdate(LocalDate.EPOCH);
         updated.setActive(true);
 
         // tentatives interdites